@@ -0,0 +1,31 @@
+package com.covenant.monitoring.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class LoginExecutorConfig {
+
+    // Dedicated pool for BCrypt verification, so a login storm cannot take over the Tomcat
+    // request threads. The queue is bounded: when it is full new logins are rejected (503)
+    // instead of piling up
+    @Bean(name = "loginExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor loginExecutor(@Value("${security.login.pool-size:4}") int poolSize,
+                                                @Value("${security.login.queue-capacity:200}") int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+        // Exposes executor.queued, executor.active and executor.completed with name=login
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "login");
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.covenant.monitoring.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class NotificationPushExecutorConfig {
+
+    // Dedicated pool for SSE writes: a slow client blocks one of these threads instead of
+    // the scheduler thread (heartbeats) or the request thread that committed the notification.
+    // The queue is bounded: when it is full the event is dropped and the client realigns on reconnect
+    @Bean(name = "notificationPushExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor notificationPushExecutor(@Value("${notifications.sse.push-pool-size:4}") int poolSize,
+                                                           @Value("${notifications.sse.push-queue-capacity:10000}") int queueCapacity,
+                                                           MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sse-push-");
+        executor.initialize();
+        // Exposes executor.queued, executor.active and executor.completed with name=notification-push
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "notification-push");
+        return executor;
+    }
+}
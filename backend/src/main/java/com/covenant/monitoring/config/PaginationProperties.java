@@ -0,0 +1,30 @@
+package com.covenant.monitoring.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationProperties {
+
+    @Value("${pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    // When enabled, list endpoints called without paging or filter parameters
+    // still return the whole table as a plain JSON array (legacy shape)
+    @Value("${pagination.legacy-list-enabled:true}")
+    private boolean legacyListEnabled;
+
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requestedSize, maxPageSize);
+    }
+
+    public boolean isLegacyListEnabled() {
+        return legacyListEnabled;
+    }
+}
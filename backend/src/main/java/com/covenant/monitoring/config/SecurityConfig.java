@@ -56,6 +56,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         httpSecurity.csrf().disable()
                 // don't authenticate this particular request
                 .authorizeRequests().antMatchers("/api/auth/**").permitAll()
+                // WebSocket handshake: STOMP sessions are authenticated on the CONNECT frame
+                .antMatchers("/ws/**").permitAll()
                 // all other requests need to be authenticated
                 .anyRequest().authenticated().and()
                 // make sure we use stateless session; session won't be used to
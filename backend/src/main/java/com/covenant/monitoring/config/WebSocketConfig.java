@@ -0,0 +1,52 @@
+package com.covenant.monitoring.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import com.covenant.monitoring.security.StompAuthenticationInterceptor;
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final long heartbeatInterval;
+
+    @Autowired
+    public WebSocketConfig(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                           @Value("${websocket.heartbeat-interval:10000}") long heartbeatInterval) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    // The handshake itself is anonymous: the JWT is checked on the STOMP CONNECT frame
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+
+    // In-memory broker: server-to-client topics only, heartbeats keep idle connections alive through proxies
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.initialize();
+        registry.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] {heartbeatInterval, heartbeatInterval})
+                .setTaskScheduler(heartbeatScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+}
@@ -2,47 +2,67 @@ package com.covenant.monitoring.controller;
 
 import com.covenant.monitoring.dto.JwtRequest;
 import com.covenant.monitoring.dto.JwtResponse;
-import com.covenant.monitoring.security.JwtTokenUtil;
-import com.covenant.monitoring.security.JwtUserDetailsService;
+import com.covenant.monitoring.security.LoginService;
+import com.covenant.monitoring.security.LoginThrottle;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.DisabledException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @CrossOrigin
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
+    // Seconds suggested to the client before retrying a throttled or rejected login
+    private static final String RETRY_AFTER_SECONDS = "5";
 
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private LoginService loginService;
 
     @Autowired
-    private JwtUserDetailsService userDetailsService;
+    private LoginThrottle loginThrottle;
 
+    // The request thread only checks the throttle and enqueues the login: BCrypt runs on
+    // the login executor and the response is completed asynchronously.
+    // getRemoteAddr() is the client address resolved from X-Forwarded-For (server.forward-headers-strategy)
     @PostMapping("/login")
-    public ResponseEntity<?> createAuthenticationToken(@RequestBody JwtRequest authenticationRequest) throws Exception {
-        authenticate(authenticationRequest.getUsername(), authenticationRequest.getPassword());
-        final UserDetails userDetails = userDetailsService
-                .loadUserByUsername(authenticationRequest.getUsername());
-        final String token = jwtTokenUtil.generateToken(userDetails);
-        return ResponseEntity.ok(new JwtResponse(token));
+    public CompletableFuture<ResponseEntity<?>> createAuthenticationToken(@RequestBody JwtRequest authenticationRequest,
+                                                                          HttpServletRequest request) {
+        if (authenticationRequest.getUsername() == null || authenticationRequest.getPassword() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        if (!loginThrottle.tryAcquire(authenticationRequest.getUsername(), request.getRemoteAddr())) {
+            loginService.recordThrottled();
+            return CompletableFuture.completedFuture(retryLater(HttpStatus.TOO_MANY_REQUESTS));
+        }
+        try {
+            return loginService.login(authenticationRequest.getUsername(), authenticationRequest.getPassword())
+                    .<ResponseEntity<?>>thenApply(token -> ResponseEntity.ok(new JwtResponse(token)))
+                    .exceptionally(this::unauthorized);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(retryLater(HttpStatus.SERVICE_UNAVAILABLE));
+        }
     }
 
-    private void authenticate(String username, String password) throws Exception {
-        try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
-        } catch (DisabledException e) {
-            throw new Exception("USER_DISABLED", e);
-        } catch (BadCredentialsException e) {
-            throw new Exception("INVALID_CREDENTIALS", e);
+    // Wrong password, disabled or unknown user: 401 without telling the cases apart.
+    // Any other failure is propagated unchanged
+    private ResponseEntity<?> unauthorized(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof AuthenticationException || cause.getCause() instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+    }
+
+    private ResponseEntity<?> retryLater(HttpStatus status) {
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
     }
 }
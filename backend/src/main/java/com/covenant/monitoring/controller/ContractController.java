@@ -1,13 +1,18 @@
 package com.covenant.monitoring.controller;
 
+import com.covenant.monitoring.config.PaginationProperties;
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.service.ContractService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +22,33 @@ import java.util.Optional;
 public class ContractController {
 
     private final ContractService contractService;
+    private final PaginationProperties paginationProperties;
 
     @Autowired
-    public ContractController(ContractService contractService) {
+    public ContractController(ContractService contractService, PaginationProperties paginationProperties) {
         this.contractService = contractService;
+        this.paginationProperties = paginationProperties;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
-    public ResponseEntity<List<Contract>> getAllContracts() {
-        List<Contract> contracts = contractService.getAllContracts();
-        return new ResponseEntity<>(contracts, HttpStatus.OK);
+    public ResponseEntity<?> getAllContracts(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        boolean paged = cursor != null || size != null || status != null || country != null
+                || legalEntity != null || fromDate != null || toDate != null;
+        if (!paged && paginationProperties.isLegacyListEnabled()) {
+            List<ContractListItem> contracts = contractService.getContractListItems();
+            return new ResponseEntity<>(contracts, HttpStatus.OK);
+        }
+        CursorPage<ContractListItem> page = contractService.getContractsPage(cursor, paginationProperties.resolvePageSize(size),
+                status, country, legalEntity, fromDate, toDate);
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -1,10 +1,14 @@
 package com.covenant.monitoring.controller;
 
+import com.covenant.monitoring.config.PaginationProperties;
+import com.covenant.monitoring.dto.CovenantListItem;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.service.CovenantService;
 import com.covenant.monitoring.service.ContractService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,18 +25,35 @@ public class CovenantController {
 
     private final CovenantService covenantService;
     private final ContractService contractService;
+    private final PaginationProperties paginationProperties;
 
     @Autowired
-    public CovenantController(CovenantService covenantService, ContractService contractService) {
+    public CovenantController(CovenantService covenantService, ContractService contractService,
+                              PaginationProperties paginationProperties) {
         this.covenantService = covenantService;
         this.contractService = contractService;
+        this.paginationProperties = paginationProperties;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
-    public ResponseEntity<List<Covenant>> getAllCovenants() {
-        List<Covenant> covenants = covenantService.getAllCovenants();
-        return new ResponseEntity<>(covenants, HttpStatus.OK);
+    public ResponseEntity<?> getAllCovenants(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+        boolean paged = cursor != null || size != null || status != null || country != null
+                || legalEntity != null || fromDate != null || toDate != null;
+        if (!paged && paginationProperties.isLegacyListEnabled()) {
+            List<CovenantListItem> covenants = covenantService.getCovenantListItems();
+            return new ResponseEntity<>(covenants, HttpStatus.OK);
+        }
+        CursorPage<CovenantListItem> page = covenantService.getCovenantsPage(cursor, paginationProperties.resolvePageSize(size),
+                status, country, legalEntity, fromDate, toDate);
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -73,9 +94,8 @@ public class CovenantController {
     @GetMapping("/due-for-monitoring")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY')")
     public ResponseEntity<List<Covenant>> getCovenantsDueForMonitoring() {
-        // Get covenants that haven't been monitored in the last 3 months
-        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-        List<Covenant> covenants = covenantService.getCovenantsDueForMonitoring(threeMonthsAgo);
+        // Get covenants whose next monitoring is due, based on each covenant's frequency
+        List<Covenant> covenants = covenantService.getCovenantsDueForMonitoring(LocalDateTime.now());
         return new ResponseEntity<>(covenants, HttpStatus.OK);
     }
 
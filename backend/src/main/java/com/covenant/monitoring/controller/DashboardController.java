@@ -0,0 +1,29 @@
+package com.covenant.monitoring.controller;
+
+import com.covenant.monitoring.dto.DashboardSummary;
+import com.covenant.monitoring.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/status-summary")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
+    public ResponseEntity<DashboardSummary> getStatusSummary() {
+        DashboardSummary summary = dashboardService.getStatusSummary();
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+}
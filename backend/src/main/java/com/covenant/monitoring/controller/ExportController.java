@@ -0,0 +1,95 @@
+package com.covenant.monitoring.controller;
+
+import com.covenant.monitoring.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/contracts")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
+    public ResponseEntity<StreamingResponseBody> exportContracts(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity) {
+        StreamingResponseBody body = out -> exportService.writeContracts(out, status, country, legalEntity);
+        return xlsx("contratti", body);
+    }
+
+    @GetMapping("/covenants")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
+    public ResponseEntity<StreamingResponseBody> exportCovenants(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity) {
+        StreamingResponseBody body = out -> exportService.writeCovenants(out, status, country, legalEntity);
+        return xlsx("covenant", body);
+    }
+
+    @GetMapping("/monitoring-results")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
+    public ResponseEntity<StreamingResponseBody> exportMonitoringResults(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay().minusNanos(1) : null;
+        StreamingResponseBody body = out -> exportService.writeMonitoringResults(out, status, country, legalEntity, from, to);
+        return xlsx("monitoraggi", body);
+    }
+
+    @GetMapping(value = "/monitoring-history", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_LEGAL_HOLDING')")
+    public ResponseEntity<StreamingResponseBody> exportMonitoringHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String contractId) {
+        LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay().minusNanos(1) : null;
+        StreamingResponseBody body = out -> exportService.writeMonitoringHistoryNdjson(out, from, to, contractId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(NDJSON);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("storico_monitoraggi_" + LocalDate.now() + ".ndjson")
+                .build());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    // Il file viene scritto direttamente sulla risposta, senza Content-Length
+    private ResponseEntity<StreamingResponseBody> xlsx(String filename, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(XLSX);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(filename + "_" + LocalDate.now() + ".xlsx")
+                .build());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,47 @@
+package com.covenant.monitoring.controller;
+
+import com.covenant.monitoring.dto.ImportReport;
+import com.covenant.monitoring.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    @Autowired
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @PostMapping("/contracts")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY')")
+    public ResponseEntity<ImportReport> importContracts(@RequestParam("file") MultipartFile file) {
+        try {
+            ImportReport report = bulkImportService.importContracts(file);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (IllegalArgumentException | IOException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/covenants")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_LEGAL_HOLDING', 'ROLE_LEGAL_COUNTRY')")
+    public ResponseEntity<ImportReport> importCovenants(@RequestParam("file") MultipartFile file) {
+        try {
+            ImportReport report = bulkImportService.importCovenants(file);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (IllegalArgumentException | IOException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -1,46 +1,65 @@
 package com.covenant.monitoring.controller;
 
+import com.covenant.monitoring.config.PaginationProperties;
+import com.covenant.monitoring.dto.CursorPage;
+import com.covenant.monitoring.dto.MonitoringResultListItem;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.MonitoringResult;
-import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.security.AuthenticatedUser;
 import com.covenant.monitoring.service.CovenantService;
 import com.covenant.monitoring.service.MonitoringResultService;
-import com.covenant.monitoring.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @CrossOrigin
 @RequestMapping("/api/monitoring-results")
 public class MonitoringResultController {
 
+    private static final int MAX_LATEST_BATCH_SIZE = 1000;
+
     private final MonitoringResultService monitoringResultService;
     private final CovenantService covenantService;
-    private final UserService userService;
+    private final PaginationProperties paginationProperties;
 
     @Autowired
     public MonitoringResultController(MonitoringResultService monitoringResultService, 
                                      CovenantService covenantService,
-                                     UserService userService) {
+                                     PaginationProperties paginationProperties) {
         this.monitoringResultService = monitoringResultService;
         this.covenantService = covenantService;
-        this.userService = userService;
+        this.paginationProperties = paginationProperties;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_ADMIN_HOLDING', 'ROLE_ADMIN_COUNTRY')")
-    public ResponseEntity<List<MonitoringResult>> getAllMonitoringResults() {
-        List<MonitoringResult> results = monitoringResultService.getAllMonitoringResults();
-        return new ResponseEntity<>(results, HttpStatus.OK);
+    public ResponseEntity<?> getAllMonitoringResults(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String legalEntity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+        boolean paged = cursor != null || size != null || status != null || country != null
+                || legalEntity != null || fromDate != null || toDate != null;
+        if (!paged && paginationProperties.isLegacyListEnabled()) {
+            List<MonitoringResultListItem> results = monitoringResultService.getMonitoringResultListItems();
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        }
+        CursorPage<MonitoringResultListItem> page = monitoringResultService.getMonitoringResultsPage(cursor,
+                paginationProperties.resolvePageSize(size), status, country, legalEntity, fromDate, toDate);
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -92,30 +111,30 @@ public class MonitoringResultController {
         }
     }
 
+    // Batch: gli ultimi risultati di piu' covenant in una sola chiamata (e una sola query).
+    // I covenant mai monitorati non compaiono nella risposta
+    @PostMapping("/latest")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY', 'ROLE_ADMIN_HOLDING', 'ROLE_ADMIN_COUNTRY')")
+    public ResponseEntity<List<MonitoringResultListItem>> getLatestMonitoringResultsForCovenants(@RequestBody Set<Long> covenantIds) {
+        if (covenantIds.size() > MAX_LATEST_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<MonitoringResultListItem> results = monitoringResultService.getLatestMonitoringResultsForCovenants(covenantIds);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_FINANCE_HOLDING', 'ROLE_FINANCE_COUNTRY')")
-    public ResponseEntity<MonitoringResult> createMonitoringResult(@RequestBody MonitoringResult monitoringResult) {
-        // Set the current user as the creator
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            monitoringResult.setCreatedBy(user.get());
-            
-            // Update the covenant's last monitoring date
-            Optional<Covenant> covenant = covenantService.getCovenantById(monitoringResult.getCovenant().getId());
-            if (covenant.isPresent()) {
-                Covenant c = covenant.get();
-                c.setLastMonitoringDate(LocalDateTime.now());
-                c.setStatus(monitoringResult.getStatus());
-                covenantService.saveCovenant(c);
-            }
-            
-            MonitoringResult savedResult = monitoringResultService.saveMonitoringResult(monitoringResult);
-            return new ResponseEntity<>(savedResult, HttpStatus.CREATED);
-        } else {
+    public ResponseEntity<MonitoringResultListItem> createMonitoringResult(@RequestBody MonitoringResult monitoringResult,
+                                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        // Sets the current user as the creator, then saves the result and updates the
+        // covenant's status and last monitoring date in one transaction. The response is the
+        // list projection, so the creator is serialized as a UserRef and never as the User entity
+        MonitoringResultListItem savedResult = monitoringResultService.createMonitoringResult(monitoringResult, currentUser.getUserId());
+        return new ResponseEntity<>(savedResult, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
@@ -1,19 +1,21 @@
 package com.covenant.monitoring.controller;
 
-import com.covenant.monitoring.model.Notification;
-import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.dto.NotificationView;
+import com.covenant.monitoring.dto.StreamTicketResponse;
+import com.covenant.monitoring.security.AuthenticatedUser;
+import com.covenant.monitoring.security.StreamTicketService;
+import com.covenant.monitoring.service.NotificationPushService;
 import com.covenant.monitoring.service.NotificationService;
-import com.covenant.monitoring.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @CrossOrigin
@@ -21,91 +23,103 @@ import java.util.Optional;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserService userService;
+    private final NotificationPushService notificationPushService;
+    private final StreamTicketService streamTicketService;
 
     @Autowired
-    public NotificationController(NotificationService notificationService, UserService userService) {
+    public NotificationController(NotificationService notificationService,
+                                  NotificationPushService notificationPushService,
+                                  StreamTicketService streamTicketService) {
         this.notificationService = notificationService;
-        this.userService = userService;
+        this.notificationPushService = notificationPushService;
+        this.streamTicketService = streamTicketService;
     }
 
+    // Short-lived, single-use ticket for opening the stream: the JWT never ends up in a URL
+    @PostMapping("/stream-ticket")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamTicketResponse> createStreamTicket(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(new StreamTicketResponse(streamTicketService.issue(currentUser)));
+    }
+
+    // Server-Sent Events stream of new notifications and unread-count changes. The request thread
+    // is released as soon as the emitter is returned; the connection stays open in async mode.
+    // EventSource cannot set headers, so the stream is opened with ?ticket= from POST /stream-ticket;
+    // on reconnect the client asks for a new ticket, which also works after its JWT has been refreshed
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> streamNotifications(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        Long userId = currentUser.getUserId();
+        SseEmitter emitter = notificationPushService.subscribe(userId, currentUser.getRoles(),
+                () -> notificationService.countUnreadNotifications(userId, currentUser.getRoles()));
+        // Disables response buffering on nginx-style reverse proxies
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // The principal is resolved by JwtRequestFilter: direct notifications are filtered by user_id
+    // and broadcasts by the user's roles, without loading the User entity
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Notification>> getCurrentUserNotifications() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            List<Notification> notifications = notificationService.getNotificationsByUser(user.get());
-            return new ResponseEntity<>(notifications, HttpStatus.OK);
-        } else {
+    public ResponseEntity<List<NotificationView>> getCurrentUserNotifications(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        List<NotificationView> notifications = notificationService.getNotificationViews(currentUser.getUserId(),
+                currentUser.getRoles());
+        return new ResponseEntity<>(notifications, HttpStatus.OK);
     }
 
     @GetMapping("/unread")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Notification>> getUnreadNotifications() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            List<Notification> notifications = notificationService.getUnreadNotificationsByUser(user.get());
-            return new ResponseEntity<>(notifications, HttpStatus.OK);
-        } else {
+    public ResponseEntity<List<NotificationView>> getUnreadNotifications(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        List<NotificationView> notifications = notificationService.getUnreadNotificationViews(currentUser.getUserId(),
+                currentUser.getRoles());
+        return new ResponseEntity<>(notifications, HttpStatus.OK);
     }
 
     @GetMapping("/count-unread")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Long> countUnreadNotifications() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            Long count = notificationService.countUnreadNotificationsByUser(user.get());
-            return new ResponseEntity<>(count, HttpStatus.OK);
-        } else {
+    public ResponseEntity<Long> countUnreadNotifications(@AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        long count = notificationService.countUnreadNotifications(currentUser.getUserId(), currentUser.getRoles());
+        return new ResponseEntity<>(count, HttpStatus.OK);
     }
 
     @PutMapping("/{id}/mark-as-read")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Notification> markNotificationAsRead(@PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            Optional<Notification> notification = notificationService.getNotificationById(id);
-            if (notification.isPresent() && notification.get().getUser().getId().equals(user.get().getId())) {
-                Notification updatedNotification = notificationService.markAsRead(id);
-                return new ResponseEntity<>(updatedNotification, HttpStatus.OK);
-            } else {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } else {
+    public ResponseEntity<NotificationView> markNotificationAsRead(@PathVariable Long id,
+                                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        return notificationService.markAsReadForUser(id, currentUser.getUserId(), currentUser.getRoles())
+                .map(updated -> new ResponseEntity<>(updated, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.getUserByUsername(authentication.getName());
-        
-        if (user.isPresent()) {
-            Optional<Notification> notification = notificationService.getNotificationById(id);
-            if (notification.isPresent() && notification.get().getUser().getId().equals(user.get().getId())) {
-                notificationService.deleteNotification(id);
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-            } else {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } else {
+    public ResponseEntity<Void> deleteNotification(@PathVariable Long id,
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        if (!notificationService.deleteForUser(id, currentUser.getUserId(), currentUser.getRoles())) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 }
@@ -0,0 +1,82 @@
+package com.covenant.monitoring.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proiezione in sola lettura di un contratto per le liste.
+ */
+public class ContractListItem {
+
+    private final Long id;
+    private final String contractId;
+    private final String legalEntity;
+    private final String country;
+    private final String contractType;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String counterparty;
+    private final String status;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public ContractListItem(Long id, String contractId, String legalEntity, String country, String contractType,
+                            BigDecimal amount, String currency, String counterparty, String status,
+                            LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.contractId = contractId;
+        this.legalEntity = legalEntity;
+        this.country = country;
+        this.contractType = contractType;
+        this.amount = amount;
+        this.currency = currency;
+        this.counterparty = counterparty;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getContractId() {
+        return this.contractId;
+    }
+
+    public String getLegalEntity() {
+        return this.legalEntity;
+    }
+
+    public String getCountry() {
+        return this.country;
+    }
+
+    public String getContractType() {
+        return this.contractType;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    public String getCounterparty() {
+        return this.counterparty;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public LocalDate getStartDate() {
+        return this.startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return this.endDate;
+    }
+}
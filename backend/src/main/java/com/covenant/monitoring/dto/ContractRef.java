@@ -0,0 +1,35 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Riferimento sintetico a un contratto, incluso nelle righe di lista dei covenant e dei risultati.
+ */
+public class ContractRef {
+
+    private final Long id;
+    private final String contractId;
+    private final String legalEntity;
+    private final String country;
+
+    public ContractRef(Long id, String contractId, String legalEntity, String country) {
+        this.id = id;
+        this.contractId = contractId;
+        this.legalEntity = legalEntity;
+        this.country = country;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getContractId() {
+        return this.contractId;
+    }
+
+    public String getLegalEntity() {
+        return this.legalEntity;
+    }
+
+    public String getCountry() {
+        return this.country;
+    }
+}
@@ -0,0 +1,63 @@
+package com.covenant.monitoring.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proiezione in sola lettura di un covenant per le liste, con il contratto ridotto a riferimento.
+ */
+public class CovenantListItem {
+
+    private final Long id;
+    private final String covenantId;
+    private final String title;
+    private final Boolean hasCurePeriod;
+    private final String contractArticle;
+    private final String status;
+    private final LocalDateTime lastMonitoringDate;
+    private final ContractRef contract;
+
+    public CovenantListItem(Long id, String covenantId, String title, Boolean hasCurePeriod, String contractArticle,
+                            String status, LocalDateTime lastMonitoringDate,
+                            Long contractDbId, String contractId, String legalEntity, String country) {
+        this.id = id;
+        this.covenantId = covenantId;
+        this.title = title;
+        this.hasCurePeriod = hasCurePeriod;
+        this.contractArticle = contractArticle;
+        this.status = status;
+        this.lastMonitoringDate = lastMonitoringDate;
+        this.contract = new ContractRef(contractDbId, contractId, legalEntity, country);
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getCovenantId() {
+        return this.covenantId;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public Boolean getHasCurePeriod() {
+        return this.hasCurePeriod;
+    }
+
+    public String getContractArticle() {
+        return this.contractArticle;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public LocalDateTime getLastMonitoringDate() {
+        return this.lastMonitoringDate;
+    }
+
+    public ContractRef getContract() {
+        return this.contract;
+    }
+}
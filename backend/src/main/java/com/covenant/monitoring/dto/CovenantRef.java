@@ -0,0 +1,35 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Riferimento sintetico a un covenant, incluso nelle righe di lista dei risultati di monitoraggio.
+ */
+public class CovenantRef {
+
+    private final Long id;
+    private final String covenantId;
+    private final String title;
+    private final ContractRef contract;
+
+    public CovenantRef(Long id, String covenantId, String title, ContractRef contract) {
+        this.id = id;
+        this.covenantId = covenantId;
+        this.title = title;
+        this.contract = contract;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getCovenantId() {
+        return this.covenantId;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public ContractRef getContract() {
+        return this.contract;
+    }
+}
@@ -0,0 +1,45 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Variazione di stato di un covenant inviata sul topic /topic/covenant-status.
+ * Solo gli id e i due stati: il client aggiorna il covenant gia' presente nello store.
+ */
+public class CovenantStatusChange {
+
+    private final Long covenantId;
+    private final Long contractId;
+    private final String oldStatus;
+    private final String newStatus;
+
+    public CovenantStatusChange(Long covenantId, Long contractId, String oldStatus, String newStatus) {
+        this.covenantId = covenantId;
+        this.contractId = contractId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Long getCovenantId() {
+        return this.covenantId;
+    }
+
+    public Long getContractId() {
+        return this.contractId;
+    }
+
+    public String getOldStatus() {
+        return this.oldStatus;
+    }
+
+    public String getNewStatus() {
+        return this.newStatus;
+    }
+
+    // Due variazioni consecutive dello stesso covenant: resta lo stato di partenza della prima
+    public CovenantStatusChange followedBy(CovenantStatusChange next) {
+        return new CovenantStatusChange(covenantId, next.contractId, oldStatus, next.newStatus);
+    }
+
+    public boolean isNoOp() {
+        return oldStatus != null && oldStatus.equals(newStatus);
+    }
+}
@@ -0,0 +1,50 @@
+package com.covenant.monitoring.dto;
+
+import java.util.Objects;
+
+/**
+ * Chiave del rollup degli stati: country e legal entity del contratto e status del covenant.
+ */
+public class CovenantStatusKey {
+
+    private final String country;
+    private final String legalEntity;
+    private final String status;
+
+    public CovenantStatusKey(String country, String legalEntity, String status) {
+        this.country = country;
+        this.legalEntity = legalEntity;
+        this.status = status;
+    }
+
+    public String getCountry() {
+        return this.country;
+    }
+
+    public String getLegalEntity() {
+        return this.legalEntity;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CovenantStatusKey)) {
+            return false;
+        }
+        CovenantStatusKey other = (CovenantStatusKey) o;
+        return Objects.equals(country, other.country)
+                && Objects.equals(legalEntity, other.legalEntity)
+                && Objects.equals(status, other.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(country, legalEntity, status);
+    }
+}
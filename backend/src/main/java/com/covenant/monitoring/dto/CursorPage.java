@@ -0,0 +1,43 @@
+package com.covenant.monitoring.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagina di risultati ottenuta con paginazione keyset (cursor).
+ * Il cursore è l'id dell'ultimo elemento restituito: la pagina successiva
+ * si richiede passando nextCursor come parametro "cursor".
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+    private final boolean hasMore;
+
+    public CursorPage(List<T> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Costruisce la pagina a partire da una query che ha letto size + 1 righe:
+    // la riga in più serve solo a sapere se esiste una pagina successiva
+    public static <T> CursorPage<T> fromOverfetched(List<T> rows, int size, Function<T, Long> idExtractor) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? idExtractor.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public List<T> getItems() {
+        return this.items;
+    }
+
+    public Long getNextCursor() {
+        return this.nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return this.hasMore;
+    }
+}
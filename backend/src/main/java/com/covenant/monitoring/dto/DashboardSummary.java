@@ -0,0 +1,30 @@
+package com.covenant.monitoring.dto;
+
+import java.util.List;
+
+public class DashboardSummary {
+
+    private final List<StatusSummary> countryStatusSummary;
+    private final List<StatusSummary> companyStatusSummary;
+    private final StatusSummary totals;
+
+    public DashboardSummary(List<StatusSummary> countryStatusSummary,
+                            List<StatusSummary> companyStatusSummary,
+                            StatusSummary totals) {
+        this.countryStatusSummary = countryStatusSummary;
+        this.companyStatusSummary = companyStatusSummary;
+        this.totals = totals;
+    }
+
+    public List<StatusSummary> getCountryStatusSummary() {
+        return this.countryStatusSummary;
+    }
+
+    public List<StatusSummary> getCompanyStatusSummary() {
+        return this.companyStatusSummary;
+    }
+
+    public StatusSummary getTotals() {
+        return this.totals;
+    }
+}
@@ -0,0 +1,45 @@
+package com.covenant.monitoring.dto;
+
+import java.util.List;
+
+/**
+ * Esito di un import massivo: righe lette, righe salvate e dettaglio degli errori per riga.
+ * Il dettaglio e' limitato ai primi errori; errorsTruncated indica che ne sono stati omessi.
+ */
+public class ImportReport {
+
+    private final long totalRows;
+    private final long importedRows;
+    private final long rejectedRows;
+    private final List<ImportRowError> errors;
+    private final boolean errorsTruncated;
+
+    public ImportReport(long totalRows, long importedRows, long rejectedRows, List<ImportRowError> errors,
+                        boolean errorsTruncated) {
+        this.totalRows = totalRows;
+        this.importedRows = importedRows;
+        this.rejectedRows = rejectedRows;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getTotalRows() {
+        return this.totalRows;
+    }
+
+    public long getImportedRows() {
+        return this.importedRows;
+    }
+
+    public long getRejectedRows() {
+        return this.rejectedRows;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return this.errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return this.errorsTruncated;
+    }
+}
@@ -0,0 +1,29 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Errore su una riga del file importato. Il numero di riga e' quello del file (intestazione = riga 1).
+ */
+public class ImportRowError {
+
+    private final long rowNumber;
+    private final String column;
+    private final String message;
+
+    public ImportRowError(long rowNumber, String column, String message) {
+        this.rowNumber = rowNumber;
+        this.column = column;
+        this.message = message;
+    }
+
+    public long getRowNumber() {
+        return this.rowNumber;
+    }
+
+    public String getColumn() {
+        return this.column;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+}
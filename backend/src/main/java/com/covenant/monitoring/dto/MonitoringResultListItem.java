@@ -0,0 +1,54 @@
+package com.covenant.monitoring.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proiezione in sola lettura di un risultato di monitoraggio per le liste,
+ * con covenant, contratto e autore ridotti a riferimenti.
+ */
+public class MonitoringResultListItem {
+
+    private final Long id;
+    private final String status;
+    private final LocalDateTime monitoringDate;
+    private final String notes;
+    private final CovenantRef covenant;
+    private final UserRef createdBy;
+
+    public MonitoringResultListItem(Long id, String status, LocalDateTime monitoringDate, String notes,
+                                    Long covenantDbId, String covenantId, String covenantTitle,
+                                    Long contractDbId, String contractId, String legalEntity, String country,
+                                    Long userId, String username, String firstName, String lastName) {
+        this.id = id;
+        this.status = status;
+        this.monitoringDate = monitoringDate;
+        this.notes = notes;
+        this.covenant = new CovenantRef(covenantDbId, covenantId, covenantTitle,
+                new ContractRef(contractDbId, contractId, legalEntity, country));
+        this.createdBy = new UserRef(userId, username, firstName, lastName);
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public LocalDateTime getMonitoringDate() {
+        return this.monitoringDate;
+    }
+
+    public String getNotes() {
+        return this.notes;
+    }
+
+    public CovenantRef getCovenant() {
+        return this.covenant;
+    }
+
+    public UserRef getCreatedBy() {
+        return this.createdBy;
+    }
+}
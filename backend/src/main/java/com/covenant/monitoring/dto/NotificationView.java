@@ -0,0 +1,52 @@
+package com.covenant.monitoring.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notifica come vista da un utente: diretta (una riga per utente) o broadcast
+ * (una riga per messaggio, con lo stato di lettura dell'utente).
+ */
+public class NotificationView {
+
+    private final Long id;
+    private final String title;
+    private final String message;
+    private final boolean isRead;
+    private final LocalDateTime createdAt;
+    private final boolean broadcast;
+
+    public NotificationView(Long id, String title, String message, Boolean isRead, LocalDateTime createdAt,
+                            Boolean broadcast) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        // Per i broadcast senza ricevuta lo stato e' null: non ancora letto
+        this.isRead = Boolean.TRUE.equals(isRead);
+        this.createdAt = createdAt;
+        this.broadcast = Boolean.TRUE.equals(broadcast);
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public boolean getIsRead() {
+        return this.isRead;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public boolean isBroadcast() {
+        return this.broadcast;
+    }
+}
@@ -0,0 +1,35 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Riga di aggregazione: numero di covenant per country, legal entity e status.
+ */
+public class StatusCount {
+
+    private final String country;
+    private final String legalEntity;
+    private final String status;
+    private final long count;
+
+    public StatusCount(String country, String legalEntity, String status, Long count) {
+        this.country = country;
+        this.legalEntity = legalEntity;
+        this.status = status;
+        this.count = count != null ? count : 0L;
+    }
+
+    public String getCountry() {
+        return this.country;
+    }
+
+    public String getLegalEntity() {
+        return this.legalEntity;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+}
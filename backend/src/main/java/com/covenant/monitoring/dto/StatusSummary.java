@@ -0,0 +1,45 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Conteggio dei covenant VERDE/GIALLO/ROSSO per un raggruppamento (country o compagnia).
+ */
+public class StatusSummary {
+
+    private final String name;
+    private long verde;
+    private long giallo;
+    private long rosso;
+
+    public StatusSummary(String name) {
+        this.name = name;
+    }
+
+    public void add(String status, long count) {
+        switch (status) {
+            case "VERDE" -> this.verde += count;
+            case "GIALLO" -> this.giallo += count;
+            case "ROSSO" -> this.rosso += count;
+            default -> { }
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getVerde() {
+        return this.verde;
+    }
+
+    public long getGiallo() {
+        return this.giallo;
+    }
+
+    public long getRosso() {
+        return this.rosso;
+    }
+
+    public long getTotal() {
+        return this.verde + this.giallo + this.rosso;
+    }
+}
@@ -0,0 +1,18 @@
+package com.covenant.monitoring.dto;
+
+import java.io.Serializable;
+
+public class StreamTicketResponse implements Serializable {
+
+    private static final long serialVersionUID = 3458129730512260417L;
+
+    private final String ticket;
+
+    public StreamTicketResponse(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public String getTicket() {
+        return this.ticket;
+    }
+}
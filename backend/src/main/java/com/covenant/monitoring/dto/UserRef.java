@@ -0,0 +1,35 @@
+package com.covenant.monitoring.dto;
+
+/**
+ * Riferimento sintetico a un utente: non espone password né ruoli.
+ */
+public class UserRef {
+
+    private final Long id;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+
+    public UserRef(Long id, String username, String firstName, String lastName) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    public String getFirstName() {
+        return this.firstName;
+    }
+
+    public String getLastName() {
+        return this.lastName;
+    }
+}
@@ -0,0 +1,44 @@
+package com.covenant.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "broadcast_notifications")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastNotification {
+
+    // Stessa sequence delle notifiche dirette: gli id non si sovrappongono e il frontend
+    // puo' trattare le due tipologie come un'unica lista
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String message;
+
+    @ElementCollection
+    @CollectionTable(name = "broadcast_notification_roles", joinColumns = @JoinColumn(name = "broadcast_id"))
+    @Column(name = "role_name", nullable = false)
+    private Set<String> targetRoles = new HashSet<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,42 @@
+package com.covenant.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "broadcast_receipts")
+@IdClass(BroadcastReceipt.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastReceipt {
+
+    @Id
+    @Column(name = "broadcast_id")
+    private Long broadcastId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead = false;
+
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean isDeleted = false;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long broadcastId;
+        private Long userId;
+    }
+}
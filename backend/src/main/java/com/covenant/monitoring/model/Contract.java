@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Contract {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contracts_seq")
+    @SequenceGenerator(name = "contracts_seq", sequenceName = "contracts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "contract_id", nullable = false, unique = true)
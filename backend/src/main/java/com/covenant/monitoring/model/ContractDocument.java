@@ -9,13 +9,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "contract_documents")
+@NamedEntityGraph(name = "ContractDocument.withContract", attributeNodes = @NamedAttributeNode("contract"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ContractDocument {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_documents_seq")
+    @SequenceGenerator(name = "contract_documents_seq", sequenceName = "contract_documents_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -9,13 +9,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "covenants")
+@NamedEntityGraph(name = "Covenant.withContract", attributeNodes = @NamedAttributeNode("contract"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Covenant {
 
+    public static final int DEFAULT_MONITORING_FREQUENCY_MONTHS = 3;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "covenants_seq")
+    @SequenceGenerator(name = "covenants_seq", sequenceName = "covenants_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -40,6 +44,14 @@ public class Covenant {
     @Column(name = "last_monitoring_date")
     private LocalDateTime lastMonitoringDate;
 
+    // Ogni quanti mesi il covenant va monitorato
+    @Column(name = "monitoring_frequency_months", nullable = false)
+    private Integer monitoringFrequencyMonths;
+
+    // Scadenza del prossimo monitoraggio, ricalcolata a ogni salvataggio
+    @Column(name = "next_due_date", nullable = false)
+    private LocalDateTime nextDueDate;
+
     @Column(name = "future_risks")
     private String futureRisks;
 
@@ -56,10 +68,24 @@ public class Covenant {
         if (status == null) {
             status = "PENDING";
         }
+        refreshNextDueDate();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        refreshNextDueDate();
+    }
+
+    // Un covenant mai monitorato e' in scadenza dalla sua creazione
+    private void refreshNextDueDate() {
+        if (monitoringFrequencyMonths == null || monitoringFrequencyMonths < 1) {
+            monitoringFrequencyMonths = DEFAULT_MONITORING_FREQUENCY_MONTHS;
+        }
+        if (lastMonitoringDate != null) {
+            nextDueDate = lastMonitoringDate.plusMonths(monitoringFrequencyMonths);
+        } else {
+            nextDueDate = createdAt != null ? createdAt : LocalDateTime.now();
+        }
     }
 }
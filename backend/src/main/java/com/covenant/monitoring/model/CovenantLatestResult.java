@@ -0,0 +1,38 @@
+package com.covenant.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "covenant_latest_results")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CovenantLatestResult {
+
+    @Id
+    @Column(name = "covenant_id")
+    private Long covenantId;
+
+    @Column(name = "monitoring_result_id", nullable = false)
+    private Long monitoringResultId;
+
+    @Column(name = "monitoring_date", nullable = false)
+    private LocalDateTime monitoringDate;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -9,13 +9,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "covenant_owners")
+@NamedEntityGraph(
+    name = "CovenantOwner.withCovenant",
+    attributeNodes = @NamedAttributeNode(value = "covenant", subgraph = "covenant"),
+    subgraphs = @NamedSubgraph(name = "covenant", attributeNodes = @NamedAttributeNode("contract"))
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CovenantOwner {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "covenant_owners_seq")
+    @SequenceGenerator(name = "covenant_owners_seq", sequenceName = "covenant_owners_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
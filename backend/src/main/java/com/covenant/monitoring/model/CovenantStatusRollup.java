@@ -0,0 +1,43 @@
+package com.covenant.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "covenant_status_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"country", "legal_entity", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CovenantStatusRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "covenant_status_rollup_seq")
+    @SequenceGenerator(name = "covenant_status_rollup_seq", sequenceName = "covenant_status_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String country;
+
+    @Column(name = "legal_entity", nullable = false)
+    private String legalEntity;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "covenant_count", nullable = false)
+    private Long covenantCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
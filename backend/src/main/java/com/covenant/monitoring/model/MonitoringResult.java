@@ -9,13 +9,25 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "monitoring_results")
+@NamedEntityGraph(
+    name = "MonitoringResult.detail",
+    attributeNodes = {
+        @NamedAttributeNode(value = "covenant", subgraph = "covenant"),
+        @NamedAttributeNode(value = "createdBy", subgraph = "createdBy")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "covenant", attributeNodes = @NamedAttributeNode("contract")),
+        @NamedSubgraph(name = "createdBy", attributeNodes = @NamedAttributeNode("roles"))
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MonitoringResult {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monitoring_results_seq")
+    @SequenceGenerator(name = "monitoring_results_seq", sequenceName = "monitoring_results_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -9,13 +9,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications")
+@NamedEntityGraph(
+    name = "Notification.withUser",
+    attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"),
+    subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("roles"))
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,46 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.dto.NotificationView;
+import com.covenant.monitoring.model.BroadcastNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    // Broadcast indirizzati ad almeno uno dei ruoli dell'utente. La ricevuta esiste solo se
+    // l'utente ha letto o cancellato il messaggio: l'assenza equivale a "non letto".
+    // Un utente nuovo non vede i broadcast precedenti alla sua creazione; lo storico oltre
+    // la retention viene eliminato da SchedulerService.purgeExpiredBroadcasts
+    String VISIBLE_TO_USER =
+            "FROM BroadcastNotification b JOIN b.targetRoles t " +
+            "JOIN User u ON u.id = :userId " +
+            "LEFT JOIN BroadcastReceipt r ON r.broadcastId = b.id AND r.userId = :userId " +
+            "WHERE t IN :roles AND (u.createdAt IS NULL OR b.createdAt >= u.createdAt) " +
+            "AND (r.isDeleted IS NULL OR r.isDeleted = false) ";
+
+    @Query("SELECT DISTINCT new com.covenant.monitoring.dto.NotificationView(" +
+           "b.id, b.title, b.message, r.isRead, b.createdAt, true) " + VISIBLE_TO_USER)
+    List<NotificationView> findViewsForUser(@Param("userId") Long userId,
+                                            @Param("roles") Collection<String> roles);
+
+    @Query("SELECT DISTINCT new com.covenant.monitoring.dto.NotificationView(" +
+           "b.id, b.title, b.message, r.isRead, b.createdAt, true) " + VISIBLE_TO_USER +
+           "AND (r.isRead IS NULL OR r.isRead = false)")
+    List<NotificationView> findUnreadViewsForUser(@Param("userId") Long userId,
+                                                  @Param("roles") Collection<String> roles);
+
+    @Query("SELECT COUNT(DISTINCT b.id) " + VISIBLE_TO_USER + "AND (r.isRead IS NULL OR r.isRead = false)")
+    long countUnreadForUser(@Param("userId") Long userId, @Param("roles") Collection<String> roles);
+
+    @Query("SELECT COUNT(b) > 0 FROM BroadcastNotification b JOIN b.targetRoles t WHERE b.id = :id AND t IN :roles")
+    boolean isAddressedTo(@Param("id") Long id, @Param("roles") Collection<String> roles);
+
+    List<BroadcastNotification> findByCreatedAtBefore(LocalDateTime createdAt);
+}
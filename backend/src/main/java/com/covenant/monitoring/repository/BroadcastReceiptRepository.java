@@ -0,0 +1,40 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.model.BroadcastReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface BroadcastReceiptRepository extends JpaRepository<BroadcastReceipt, BroadcastReceipt.Key> {
+
+    // Ricevute scritte con UPDATE e, se la riga manca, INSERT ... ON CONFLICT DO NOTHING:
+    // senza target di conflitto l'insert resta eseguibile anche su H2 in modalita' PostgreSQL
+    @Modifying
+    @Query("UPDATE BroadcastReceipt r SET r.isRead = true WHERE r.broadcastId = :broadcastId AND r.userId = :userId")
+    int setRead(@Param("broadcastId") Long broadcastId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO broadcast_receipts (broadcast_id, user_id, is_read, is_deleted) " +
+           "VALUES (:broadcastId, :userId, TRUE, FALSE) ON CONFLICT DO NOTHING")
+    int insertRead(@Param("broadcastId") Long broadcastId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE BroadcastReceipt r SET r.isDeleted = true WHERE r.broadcastId = :broadcastId AND r.userId = :userId")
+    int setDeleted(@Param("broadcastId") Long broadcastId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO broadcast_receipts (broadcast_id, user_id, is_read, is_deleted) " +
+           "VALUES (:broadcastId, :userId, FALSE, TRUE) ON CONFLICT DO NOTHING")
+    int insertDeleted(@Param("broadcastId") Long broadcastId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM BroadcastReceipt r WHERE r.broadcastId IN :broadcastIds")
+    int deleteByBroadcastIdIn(@Param("broadcastIds") Collection<Long> broadcastIds);
+}
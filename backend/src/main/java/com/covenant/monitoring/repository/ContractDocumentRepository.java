@@ -2,17 +2,30 @@ package com.covenant.monitoring.repository;
 
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.model.ContractDocument;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContractDocumentRepository extends JpaRepository<ContractDocument, Long> {
     
+    @EntityGraph("ContractDocument.withContract")
     List<ContractDocument> findByContract(Contract contract);
     
+    @EntityGraph("ContractDocument.withContract")
     List<ContractDocument> findByDocumentType(String documentType);
     
+    @EntityGraph("ContractDocument.withContract")
     List<ContractDocument> findByContractAndDocumentType(Contract contract, String documentType);
+
+    @Override
+    @EntityGraph("ContractDocument.withContract")
+    List<ContractDocument> findAll();
+
+    @Override
+    @EntityGraph("ContractDocument.withContract")
+    Optional<ContractDocument> findById(Long id);
 }
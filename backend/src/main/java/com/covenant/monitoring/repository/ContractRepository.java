@@ -1,14 +1,28 @@
 package com.covenant.monitoring.repository;
 
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.ContractRef;
 import com.covenant.monitoring.model.Contract;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, Long> {
+
+    String LIST_ITEM_SELECT = "SELECT new com.covenant.monitoring.dto.ContractListItem(" +
+            "c.id, c.contractId, c.legalEntity, c.country, c.contractType, c.amount, c.currency, " +
+            "c.counterparty, c.status, c.startDate, c.endDate) FROM Contract c ";
     
     Optional<Contract> findByContractId(String contractId);
     
@@ -19,4 +33,42 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     List<Contract> findByCountryAndLegalEntity(String country, String legalEntity);
     
     List<Contract> findByStatus(String status);
+
+    @Query(LIST_ITEM_SELECT + "ORDER BY c.id ASC")
+    List<ContractListItem> findAllListItems();
+
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:cursor IS NULL OR c.id > :cursor) " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:country IS NULL OR c.country = :country) " +
+           "AND (:legalEntity IS NULL OR c.legalEntity = :legalEntity) " +
+           "AND (:fromDate IS NULL OR c.startDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR c.startDate <= :toDate) " +
+           "ORDER BY c.id ASC")
+    List<ContractListItem> findPage(@Param("cursor") Long cursor,
+                                    @Param("status") String status,
+                                    @Param("country") String country,
+                                    @Param("legalEntity") String legalEntity,
+                                    @Param("fromDate") LocalDate fromDate,
+                                    @Param("toDate") LocalDate toDate,
+                                    Pageable pageable);
+
+    // Cursore forward-only per l'export: le righe arrivano dal driver a blocchi di fetchSize
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:status IS NULL OR c.status = :status) " +
+           "AND (:country IS NULL OR c.country = :country) " +
+           "AND (:legalEntity IS NULL OR c.legalEntity = :legalEntity) " +
+           "ORDER BY c.id ASC")
+    Stream<ContractListItem> streamListItems(@Param("status") String status,
+                                             @Param("country") String country,
+                                             @Param("legalEntity") String legalEntity);
+
+    @Query("SELECT c.contractId FROM Contract c WHERE c.contractId IN :contractIds")
+    List<String> findExistingContractIds(@Param("contractIds") Collection<String> contractIds);
+
+    @Query("SELECT new com.covenant.monitoring.dto.ContractRef(c.id, c.contractId, c.legalEntity, c.country) " +
+           "FROM Contract c WHERE c.contractId IN :contractIds")
+    List<ContractRef> findRefsByContractIdIn(@Param("contractIds") Collection<String> contractIds);
 }
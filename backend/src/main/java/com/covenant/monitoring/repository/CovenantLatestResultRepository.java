@@ -0,0 +1,40 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.model.CovenantLatestResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CovenantLatestResultRepository extends JpaRepository<CovenantLatestResult, Long> {
+
+    Optional<CovenantLatestResult> findByMonitoringResultId(Long monitoringResultId);
+
+    // Sostituisce la riga solo se il nuovo risultato non e' piu' vecchio di quello registrato,
+    // cosi' un monitoraggio retrodatato o due inserimenti concorrenti non la fanno regredire
+    @Modifying
+    @Query("UPDATE CovenantLatestResult l SET l.monitoringResultId = :monitoringResultId, " +
+           "l.monitoringDate = :monitoringDate, l.status = :status, l.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE l.covenantId = :covenantId AND l.monitoringDate <= :monitoringDate")
+    int updateIfNewer(@Param("covenantId") Long covenantId,
+                      @Param("monitoringResultId") Long monitoringResultId,
+                      @Param("monitoringDate") LocalDateTime monitoringDate,
+                      @Param("status") String status);
+
+    // 0 se la riga del covenant esiste gia'. ON CONFLICT senza colonne di conflitto
+    // e' accettato sia da PostgreSQL sia da H2
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO covenant_latest_results (covenant_id, monitoring_result_id, monitoring_date, status, updated_at) " +
+           "VALUES (:covenantId, :monitoringResultId, :monitoringDate, :status, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("covenantId") Long covenantId,
+                       @Param("monitoringResultId") Long monitoringResultId,
+                       @Param("monitoringDate") LocalDateTime monitoringDate,
+                       @Param("status") String status);
+}
@@ -2,19 +2,33 @@ package com.covenant.monitoring.repository;
 
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.CovenantOwner;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CovenantOwnerRepository extends JpaRepository<CovenantOwner, Long> {
     
+    @EntityGraph("CovenantOwner.withCovenant")
     List<CovenantOwner> findByCovenant(Covenant covenant);
     
+    @EntityGraph("CovenantOwner.withCovenant")
     List<CovenantOwner> findByOwnerName(String ownerName);
     
+    @EntityGraph("CovenantOwner.withCovenant")
     List<CovenantOwner> findByOwnerUnit(String ownerUnit);
     
+    @EntityGraph("CovenantOwner.withCovenant")
     List<CovenantOwner> findByOwnerNameAndOwnerUnit(String ownerName, String ownerUnit);
+
+    @Override
+    @EntityGraph("CovenantOwner.withCovenant")
+    List<CovenantOwner> findAll();
+
+    @Override
+    @EntityGraph("CovenantOwner.withCovenant")
+    Optional<CovenantOwner> findById(Long id);
 }
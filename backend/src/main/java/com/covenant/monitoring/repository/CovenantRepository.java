@@ -1,26 +1,99 @@
 package com.covenant.monitoring.repository;
 
+import com.covenant.monitoring.dto.CovenantListItem;
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.StatusCount;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.Contract;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CovenantRepository extends JpaRepository<Covenant, Long> {
+
+    String LIST_ITEM_SELECT = "SELECT new com.covenant.monitoring.dto.CovenantListItem(" +
+            "c.id, c.covenantId, c.title, c.hasCurePeriod, c.contractArticle, c.status, c.lastMonitoringDate, " +
+            "ct.id, ct.contractId, ct.legalEntity, ct.country) FROM Covenant c JOIN c.contract ct ";
     
+    @EntityGraph("Covenant.withContract")
     Optional<Covenant> findByCovenantId(String covenantId);
     
+    @EntityGraph("Covenant.withContract")
     List<Covenant> findByContract(Contract contract);
     
+    @EntityGraph("Covenant.withContract")
     List<Covenant> findByStatus(String status);
     
+    @EntityGraph("Covenant.withContract")
     List<Covenant> findByContractAndStatus(Contract contract, String status);
     
-    List<Covenant> findByLastMonitoringDateBefore(LocalDateTime date);
+    // Range scan su idx_covenants_next_due_date, dalle scadenze piu' vecchie
+    @EntityGraph("Covenant.withContract")
+    List<Covenant> findByNextDueDateLessThanEqualOrderByNextDueDateAsc(LocalDateTime date);
+
+    long countByStatus(String status);
+
+    long countByNextDueDateLessThanEqual(LocalDateTime date);
     
+    @EntityGraph("Covenant.withContract")
     List<Covenant> findByContractInAndStatus(List<Contract> contracts, String status);
+
+    @Query(LIST_ITEM_SELECT + "ORDER BY c.id ASC")
+    List<CovenantListItem> findAllListItems();
+
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:cursor IS NULL OR c.id > :cursor) " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:country IS NULL OR ct.country = :country) " +
+           "AND (:legalEntity IS NULL OR ct.legalEntity = :legalEntity) " +
+           "AND (:fromDate IS NULL OR c.lastMonitoringDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR c.lastMonitoringDate <= :toDate) " +
+           "ORDER BY c.id ASC")
+    List<CovenantListItem> findPage(@Param("cursor") Long cursor,
+                                    @Param("status") String status,
+                                    @Param("country") String country,
+                                    @Param("legalEntity") String legalEntity,
+                                    @Param("fromDate") LocalDateTime fromDate,
+                                    @Param("toDate") LocalDateTime toDate,
+                                    Pageable pageable);
+
+    // Cursore forward-only per l'export: le righe arrivano dal driver a blocchi di fetchSize
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:status IS NULL OR c.status = :status) " +
+           "AND (:country IS NULL OR ct.country = :country) " +
+           "AND (:legalEntity IS NULL OR ct.legalEntity = :legalEntity) " +
+           "ORDER BY c.id ASC")
+    Stream<CovenantListItem> streamListItems(@Param("status") String status,
+                                             @Param("country") String country,
+                                             @Param("legalEntity") String legalEntity);
+
+    @Query("SELECT new com.covenant.monitoring.dto.StatusCount(ct.country, ct.legalEntity, c.status, COUNT(c)) " +
+           "FROM Covenant c JOIN c.contract ct " +
+           "GROUP BY ct.country, ct.legalEntity, c.status")
+    List<StatusCount> countByCountryAndLegalEntityAndStatus();
+
+    @Query("SELECT new com.covenant.monitoring.dto.CovenantStatusKey(ct.country, ct.legalEntity, c.status) " +
+           "FROM Covenant c JOIN c.contract ct WHERE c.id = :id")
+    Optional<CovenantStatusKey> findStatusKeyById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph("Covenant.withContract")
+    List<Covenant> findAll();
+
+    @Override
+    @EntityGraph("Covenant.withContract")
+    Optional<Covenant> findById(Long id);
 }
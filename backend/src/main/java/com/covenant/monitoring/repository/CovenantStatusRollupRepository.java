@@ -0,0 +1,50 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.dto.StatusCount;
+import com.covenant.monitoring.model.CovenantStatusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CovenantStatusRollupRepository extends JpaRepository<CovenantStatusRollup, Long> {
+
+    @Query("SELECT new com.covenant.monitoring.dto.StatusCount(r.country, r.legalEntity, r.status, r.covenantCount) " +
+           "FROM CovenantStatusRollup r " +
+           "WHERE r.status IN :statuses AND r.covenantCount > 0")
+    List<StatusCount> findCountsByStatusIn(@Param("statuses") Collection<String> statuses);
+
+    // Lock delle righe esistenti per la riconciliazione: gli aggiornamenti concorrenti
+    // attendono il commit invece di sommarsi a conteggi che stanno per essere corretti
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM CovenantStatusRollup r")
+    List<CovenantStatusRollup> findAllForUpdate();
+
+    @Modifying
+    @Query("UPDATE CovenantStatusRollup r SET r.covenantCount = r.covenantCount + :delta, " +
+           "r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.country = :country AND r.legalEntity = :legalEntity AND r.status = :status")
+    int incrementCount(@Param("country") String country,
+                       @Param("legalEntity") String legalEntity,
+                       @Param("status") String status,
+                       @Param("delta") long delta);
+
+    // Crea la riga del gruppo; 0 se un'altra transazione l'ha gia' inserita. ON CONFLICT senza
+    // colonne di conflitto e' accettato sia da PostgreSQL sia da H2
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO covenant_status_rollup (id, country, legal_entity, status, covenant_count, updated_at) " +
+           "VALUES (nextval('covenant_status_rollup_seq'), :country, :legalEntity, :status, :delta, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("country") String country,
+                       @Param("legalEntity") String legalEntity,
+                       @Param("status") String status,
+                       @Param("delta") long delta);
+}
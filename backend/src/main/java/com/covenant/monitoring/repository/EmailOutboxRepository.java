@@ -0,0 +1,66 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.model.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query("SELECT m.id FROM EmailOutboxMessage m " +
+           "WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Presa in carico di un lotto: la condizione su status e next_attempt_at viene rivalutata
+    // sulla riga aggiornata, quindi con piu' dispatcher concorrenti ogni messaggio va a uno solo.
+    // Il tentativo viene contato subito: un nodo che si ferma durante l'invio non causa ritentativi infiniti
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.claimToken = :claimToken, m.nextAttemptAt = :leaseUntil, " +
+           "m.attempts = m.attempts + 1 " +
+           "WHERE m.id IN :ids AND m.status = 'PENDING' AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<EmailOutboxMessage> findByClaimToken(String claimToken);
+
+    // Esito registrato solo se il lotto e' ancora di questo dispatcher: se la presa in carico e' scaduta
+    // e un altro nodo ha ripreso il messaggio, l'aggiornamento non tocca la riga
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.claimToken = NULL, " +
+           "m.lastError = NULL WHERE m.id IN :ids AND m.claimToken = :claimToken")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.claimToken = NULL, m.lastError = :lastError WHERE m.id = :id AND m.claimToken = :claimToken")
+    int markFailed(@Param("id") Long id, @Param("claimToken") String claimToken, @Param("status") String status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    // Stessa email per tutti gli utenti abilitati con almeno uno dei ruoli, in un solo INSERT ... SELECT
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO email_outbox (id, recipient, subject, body, status, attempts, next_attempt_at, created_at) " +
+           "SELECT nextval('email_outbox_seq'), u.email, :subject, :body, 'PENDING', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+           "FROM users u " +
+           "WHERE u.enabled = TRUE AND EXISTS (SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+           "              WHERE ur.user_id = u.id AND r.name IN (:roleNames))")
+    int enqueueForRoles(@Param("roleNames") Collection<String> roleNames,
+                        @Param("subject") String subject,
+                        @Param("body") String body);
+
+    long countByStatus(String status);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :sentAt")
+    int deleteSentBefore(@Param("sentAt") LocalDateTime sentAt);
+}
@@ -1,26 +1,128 @@
 package com.covenant.monitoring.repository;
 
+import com.covenant.monitoring.dto.MonitoringResultListItem;
 import com.covenant.monitoring.model.MonitoringResult;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MonitoringResultRepository extends JpaRepository<MonitoringResult, Long> {
+
+    String LIST_ITEM_SELECT = "SELECT new com.covenant.monitoring.dto.MonitoringResultListItem(" +
+            "m.id, m.status, m.monitoringDate, m.notes, " +
+            "c.id, c.covenantId, c.title, ct.id, ct.contractId, ct.legalEntity, ct.country, " +
+            "u.id, u.username, u.firstName, u.lastName) " +
+            "FROM MonitoringResult m JOIN m.covenant c JOIN c.contract ct JOIN m.createdBy u ";
     
+    @EntityGraph("MonitoringResult.detail")
     List<MonitoringResult> findByCovenant(Covenant covenant);
     
+    @EntityGraph("MonitoringResult.detail")
     List<MonitoringResult> findByStatus(String status);
     
+    @EntityGraph("MonitoringResult.detail")
     List<MonitoringResult> findByCreatedBy(User user);
     
+    @EntityGraph("MonitoringResult.detail")
     List<MonitoringResult> findByMonitoringDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    @EntityGraph("MonitoringResult.detail")
     List<MonitoringResult> findByCovenant_ContractId(Long contractId);
     
+    // Niente fetch dei ruoli (collezione) con il limit, altrimenti Hibernate paginerebbe in memoria
+    @EntityGraph(attributePaths = {"covenant", "covenant.contract", "createdBy"})
     List<MonitoringResult> findTop1ByCovenant_IdOrderByMonitoringDateDesc(Long covenantId);
+
+    // Con il limite inferiore sulla data PostgreSQL esclude le partizioni dei trimestri precedenti
+    @EntityGraph(attributePaths = {"covenant", "covenant.contract", "createdBy"})
+    List<MonitoringResult> findTop1ByCovenant_IdAndMonitoringDateGreaterThanEqualOrderByMonitoringDateDesc(
+            Long covenantId, LocalDateTime since);
+
+    @Query(LIST_ITEM_SELECT + "ORDER BY m.id ASC")
+    List<MonitoringResultListItem> findAllListItems();
+
+    @Query(LIST_ITEM_SELECT + "WHERE m.id = :id")
+    Optional<MonitoringResultListItem> findListItemById(@Param("id") Long id);
+
+    // Ultimo risultato di ciascun covenant in una sola query: la join sulla chiave completa
+    // (id, monitoring_date) legge una riga per covenant dalla sola partizione interessata
+    @Query(LIST_ITEM_SELECT + ", CovenantLatestResult l " +
+           "WHERE l.covenantId IN :covenantIds " +
+           "AND m.id = l.monitoringResultId AND m.monitoringDate = l.monitoringDate " +
+           "ORDER BY c.id ASC")
+    List<MonitoringResultListItem> findLatestListItemsByCovenantIds(@Param("covenantIds") Collection<Long> covenantIds);
+
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:cursor IS NULL OR m.id > :cursor) " +
+           "AND (:status IS NULL OR m.status = :status) " +
+           "AND (:country IS NULL OR ct.country = :country) " +
+           "AND (:legalEntity IS NULL OR ct.legalEntity = :legalEntity) " +
+           "AND (:fromDate IS NULL OR m.monitoringDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR m.monitoringDate <= :toDate) " +
+           "ORDER BY m.id ASC")
+    List<MonitoringResultListItem> findPage(@Param("cursor") Long cursor,
+                                            @Param("status") String status,
+                                            @Param("country") String country,
+                                            @Param("legalEntity") String legalEntity,
+                                            @Param("fromDate") LocalDateTime fromDate,
+                                            @Param("toDate") LocalDateTime toDate,
+                                            Pageable pageable);
+
+    // Cursore forward-only per l'export: le righe arrivano dal driver a blocchi di fetchSize
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:status IS NULL OR m.status = :status) " +
+           "AND (:country IS NULL OR ct.country = :country) " +
+           "AND (:legalEntity IS NULL OR ct.legalEntity = :legalEntity) " +
+           "AND (:fromDate IS NULL OR m.monitoringDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR m.monitoringDate <= :toDate) " +
+           "ORDER BY m.id ASC")
+    Stream<MonitoringResultListItem> streamListItems(@Param("status") String status,
+                                                     @Param("country") String country,
+                                                     @Param("legalEntity") String legalEntity,
+                                                     @Param("fromDate") LocalDateTime fromDate,
+                                                     @Param("toDate") LocalDateTime toDate);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+                 @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(LIST_ITEM_SELECT +
+           "WHERE (:fromDate IS NULL OR m.monitoringDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR m.monitoringDate <= :toDate) " +
+           "AND (:contractId IS NULL OR ct.contractId = :contractId) " +
+           "ORDER BY m.monitoringDate ASC, m.id ASC")
+    Stream<MonitoringResultListItem> streamHistory(@Param("fromDate") LocalDateTime fromDate,
+                                                   @Param("toDate") LocalDateTime toDate,
+                                                   @Param("contractId") String contractId);
+
+    @Override
+    @EntityGraph("MonitoringResult.detail")
+    List<MonitoringResult> findAll();
+
+    @Override
+    @EntityGraph("MonitoringResult.detail")
+    Optional<MonitoringResult> findById(Long id);
+
+    // Manutenzione delle partizioni trimestrali (funzioni definite in create_database.sql)
+    @Query(value = "SELECT ensure_monitoring_results_partitions(CAST(:fromDate AS DATE), CAST(:toDate AS DATE))",
+           nativeQuery = true)
+    Integer ensurePartitions(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT detach_monitoring_results_partitions_before(CAST(:cutoff AS DATE))", nativeQuery = true)
+    List<String> detachPartitionsBefore(@Param("cutoff") LocalDate cutoff);
 }
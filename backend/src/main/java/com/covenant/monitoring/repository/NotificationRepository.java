@@ -1,18 +1,70 @@
 package com.covenant.monitoring.repository;
 
+import com.covenant.monitoring.dto.NotificationView;
 import com.covenant.monitoring.model.Notification;
 import com.covenant.monitoring.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
+    @EntityGraph("Notification.withUser")
     List<Notification> findByUser(User user);
     
+    @EntityGraph("Notification.withUser")
     List<Notification> findByUserAndIsRead(User user, Boolean isRead);
     
     Long countByUserAndIsRead(User user, Boolean isRead);
+
+    // Varianti per id utente: filtrano su notifications.user_id senza caricare l'entita' User
+    @EntityGraph("Notification.withUser")
+    List<Notification> findByUserId(Long userId);
+
+    @EntityGraph("Notification.withUser")
+    List<Notification> findByUserIdAndIsRead(Long userId, Boolean isRead);
+
+    Long countByUserIdAndIsRead(Long userId, Boolean isRead);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    boolean existsByIdAndUserIdAndIsRead(Long id, Long userId, Boolean isRead);
+
+    @Query("SELECT new com.covenant.monitoring.dto.NotificationView(n.id, n.title, n.message, n.isRead, n.createdAt, false) " +
+           "FROM Notification n WHERE n.user.id = :userId")
+    List<NotificationView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.covenant.monitoring.dto.NotificationView(n.id, n.title, n.message, n.isRead, n.createdAt, false) " +
+           "FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    List<NotificationView> findUnreadViewsByUserId(@Param("userId") Long userId);
+
+    // Fan-out in un solo statement: una notifica per ogni utente con almeno uno dei ruoli.
+    // nextval diretto sulla sequence: ogni valore corrisponde a un blocco dell'optimizer pooled
+    // di Hibernate e viene restituito una sola volta, quindi gli id non collidono
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO notifications (id, user_id, title, message, is_read, created_at) " +
+           "SELECT nextval('notifications_seq'), u.id, :title, :message, FALSE, CURRENT_TIMESTAMP " +
+           "FROM users u " +
+           "WHERE EXISTS (SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+           "              WHERE ur.user_id = u.id AND r.name IN (:roleNames))")
+    int insertForRoles(@Param("roleNames") Collection<String> roleNames,
+                       @Param("title") String title,
+                       @Param("message") String message);
+
+    @Override
+    @EntityGraph("Notification.withUser")
+    List<Notification> findAll();
+
+    @Override
+    @EntityGraph("Notification.withUser")
+    Optional<Notification> findById(Long id);
 }
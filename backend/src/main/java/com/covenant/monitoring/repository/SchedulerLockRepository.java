@@ -0,0 +1,36 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Riuscito solo se il lease precedente e' scaduto: con due nodi concorrenti il secondo UPDATE
+    // attende il lock di riga e rivaluta la condizione sulla riga gia' aggiornata (0 righe)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedAt = :now, l.lockedBy = :lockedBy " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquireExpired(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                       @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Prima esecuzione del job: la riga viene creata da un solo nodo. ON CONFLICT senza target
+    // (l'unico vincolo e' la chiave primaria name) perche' H2 in modalita' PostgreSQL non accetta il target
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) " +
+           "VALUES (:name, :lockedUntil, :now, :lockedBy) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                       @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil WHERE l.name = :name AND l.lockedBy = :lockedBy")
+    int release(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+}
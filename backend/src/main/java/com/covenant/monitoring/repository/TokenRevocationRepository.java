@@ -0,0 +1,32 @@
+package com.covenant.monitoring.repository;
+
+import com.covenant.monitoring.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.revokedAt < :revokedAt")
+    int deleteByRevokedAtBefore(@Param("revokedAt") LocalDateTime revokedAt);
+
+    // Una sola riga per utente: una nuova revoca sposta in avanti l'istante di riferimento, mai indietro
+    @Modifying
+    @Query("UPDATE TokenRevocation r SET r.revokedAt = :revokedAt WHERE r.userId = :userId AND r.revokedAt < :revokedAt")
+    int advanceRevocation(@Param("userId") Long userId, @Param("revokedAt") LocalDateTime revokedAt);
+
+    // Senza target di conflitto per restare eseguibile anche su H2 in modalita' PostgreSQL
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO token_revocations (user_id, revoked_at) VALUES (:userId, :revokedAt) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("revokedAt") LocalDateTime revokedAt);
+}
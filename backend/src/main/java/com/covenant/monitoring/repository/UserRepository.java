@@ -1,19 +1,31 @@
 package com.covenant.monitoring.repository;
 
 import com.covenant.monitoring.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    @EntityGraph("User.withRoles")
     Optional<User> findByUsername(String username);
     
+    @EntityGraph("User.withRoles")
     Optional<User> findByEmail(String email);
     
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+
+    @Override
+    @EntityGraph("User.withRoles")
+    List<User> findAll();
+
+    @Override
+    @EntityGraph("User.withRoles")
+    Optional<User> findById(Long id);
 }
@@ -0,0 +1,76 @@
+package com.covenant.monitoring.security;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Principal resolved once per request by JwtRequestFilter. Controllers receive it with
+ * {@code @AuthenticationPrincipal} instead of looking the user up again by username.
+ */
+public final class AuthenticatedUser implements Principal, Serializable {
+
+    private static final long serialVersionUID = 6219370825178410527L;
+
+    // Visibility of the user: holding roles (and admins) see every country
+    public enum Scope {
+        HOLDING,
+        COUNTRY
+    }
+
+    private final Long userId;
+    private final String username;
+    private final Set<String> roles;
+    private final Scope scope;
+
+    public AuthenticatedUser(Long userId, String username, Set<String> roles) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = Set.copyOf(roles);
+        this.scope = this.roles.stream().anyMatch(role -> role.equals("ROLE_ADMIN") || role.endsWith("_HOLDING"))
+                ? Scope.HOLDING
+                : Scope.COUNTRY;
+    }
+
+    public static AuthenticatedUser from(CachedUserDetails userDetails) {
+        return new AuthenticatedUser(userDetails.getUserId(), userDetails.getUsername(),
+                userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toSet()));
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    // Used by Authentication.getName()
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser [userId=" + userId + ", username=" + username + ", roles=" + roles
+                + ", scope=" + scope + "]";
+    }
+}
@@ -0,0 +1,77 @@
+package com.covenant.monitoring.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Immutable snapshot of a user stored in the user details cache.
+ * It deliberately does not implement CredentialsContainer: the ProviderManager erases
+ * credentials after login, which would otherwise wipe the password hash of the shared cached instance.
+ */
+public final class CachedUserDetails implements UserDetails {
+
+    private static final long serialVersionUID = 4385120337259870114L;
+
+    private final Long userId;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final List<GrantedAuthority> authorities;
+
+    public CachedUserDetails(Long userId, String username, String password, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedUserDetails [userId=" + userId + ", username=" + username + ", enabled=" + enabled
+                + ", authorities=" + authorities + "]";
+    }
+}
@@ -1,6 +1,7 @@
 package com.covenant.monitoring.security;
 
 import java.io.IOException;
+import java.util.stream.Collectors;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -9,56 +10,90 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    // The browser EventSource API cannot send an Authorization header: the stream is opened with a ticket
+    private static final String EVENT_STREAM_PATH = "/notifications/stream";
+
     @Autowired
     private JwtUserDetailsService jwtUserDetailsService;
 
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private StreamTicketService streamTicketService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
+        String ticket = request.getParameter(StreamTicketService.TICKET_PARAMETER);
+        if (ticket != null && requestTokenHeader == null && request.getRequestURI().endsWith(EVENT_STREAM_PATH)) {
+            authenticateWithTicket(ticket, request);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        VerifiedToken verifiedToken = null;
         String jwtToken = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
+        } else {
+            logger.warn("JWT Token does not begin with Bearer String");
+        }
+
+        if (jwtToken != null) {
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                // Single parse and signature check; repeated tokens are served from the verified-token cache
+                verifiedToken = jwtTokenUtil.verify(jwtToken);
             } catch (IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.error("JWT Token has expired");
+            } catch (JwtException e) {
+                logger.error("Invalid JWT Token");
             }
-        } else {
-            logger.warn("JWT Token does not begin with Bearer String");
         }
 
         // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.jwtUserDetailsService.loadUserByUsername(username);
+            CachedUserDetails userDetails = jwtTokenUtil.getUserDetailsFromToken(verifiedToken);
+            if (userDetails != null) {
+                // Stateless mode: authorities come from the token, only the in-memory revocation list is checked
+                if (tokenRevocationService.isRevoked(userDetails.getUserId(), verifiedToken.getIssuedAt())) {
+                    logger.warn("JWT Token has been revoked");
+                    chain.doFilter(request, response);
+                    return;
+                }
+            } else {
+                userDetails = this.jwtUserDetailsService.loadCachedUserDetails(verifiedToken.getSubject());
+            }
 
             // if token is valid configure Spring Security to manually set authentication
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+            if (jwtTokenUtil.validateToken(verifiedToken, userDetails)) {
 
+                // The resolved principal (id, roles, scope) is what controllers receive via @AuthenticationPrincipal
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        AuthenticatedUser.from(userDetails), null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // After setting the Authentication in the context, we specify
@@ -69,4 +104,25 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    // Single-use stream ticket: the principal comes from the ticket, revocations still apply
+    private void authenticateWithTicket(String ticket, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        StreamTicketService.RedeemedTicket redeemed = streamTicketService.redeem(ticket);
+        if (redeemed == null) {
+            logger.warn("Invalid or already used stream ticket");
+            return;
+        }
+        AuthenticatedUser user = redeemed.getUser();
+        if (tokenRevocationService.isRevoked(user.getUserId(), redeemed.getIssuedAt())) {
+            logger.warn("Stream ticket has been revoked");
+            return;
+        }
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                user, null, user.getRoles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
 }
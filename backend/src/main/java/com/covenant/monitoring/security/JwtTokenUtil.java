@@ -1,15 +1,30 @@
 package com.covenant.monitoring.security;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -19,41 +34,109 @@ public class JwtTokenUtil implements Serializable {
 
     private static final long serialVersionUID = -2550185165626007488L;
 
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.expiration}")
     private long jwtTokenValidity;
 
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Stateless mode: authorities and user id travel in the token, so the request filter
+    // needs no repository access. Tokens get a shorter lifetime to bound staleness
+    @Value("${jwt.stateless-authorities.enabled:false}")
+    private boolean statelessAuthorities;
+
+    @Value("${jwt.stateless-authorities.expiration:900000}")
+    private long statelessTokenValidity;
+
+    // SHA-256 digest of the token -> verified claims. Each entry expires together with its token,
+    // so a cache hit never returns an expired token and raw tokens are never kept in memory
+    private transient Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return nanosUntilExpiration(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return nanosUntilExpiration(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Parses and verifies the token once. A token already verified and not yet expired is
+    // served from the cache without repeating the HMAC check. Throws the usual jjwt
+    // exceptions (ExpiredJwtException, SignatureException, MalformedJwtException...) otherwise
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
     // retrieve username from jwt token
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     // retrieve expiration date from jwt token
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
-
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+        return Date.from(verify(token).getExpiration());
     }
 
     // for retrieving any information from token we will need the secret key
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    private VerifiedToken parse(String token) {
+        Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        return VerifiedToken.from(claims);
     }
 
-    // check if the token has expired
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    // In stateless mode, rebuilds the authenticated user from the token claims.
+    // Returns null when the mode is off or the token was issued without the claims
+    public CachedUserDetails getUserDetailsFromToken(VerifiedToken token) {
+        if (!statelessAuthorities) {
+            return null;
+        }
+        Object roles = token.getClaim(ROLES_CLAIM);
+        Object userId = token.getClaim(USER_ID_CLAIM);
+        if (!(roles instanceof List) || !(userId instanceof Number)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = ((List<?>) roles).stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+        return new CachedUserDetails(((Number) userId).longValue(), token.getSubject(), null, true, authorities);
     }
 
     // generate token for user
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (statelessAuthorities && userDetails instanceof CachedUserDetails) {
+            claims.put(USER_ID_CLAIM, ((CachedUserDetails) userDetails).getUserId());
+            claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList()));
+        }
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
@@ -66,14 +149,35 @@ public class JwtTokenUtil implements Serializable {
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtTokenValidity))
+                .setExpiration(new Date(System.currentTimeMillis() + (statelessAuthorities ? statelessTokenValidity : jwtTokenValidity)))
                 .signWith(SignatureAlgorithm.HS512, secret)
                 .compact();
     }
 
+    // validate an already verified token against the loaded user
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
     // validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    private static long nanosUntilExpiration(VerifiedToken token) {
+        if (token.getExpiration() == null) {
+            return 0L;
+        }
+        long millis = token.getExpiration().toEpochMilli() - Instant.now().toEpochMilli();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, millis));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
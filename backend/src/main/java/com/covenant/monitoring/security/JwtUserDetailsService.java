@@ -1,10 +1,12 @@
 package com.covenant.monitoring.security;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,23 +17,72 @@ import org.springframework.stereotype.Service;
 import com.covenant.monitoring.model.Role;
 import com.covenant.monitoring.model.User;
 import com.covenant.monitoring.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
 public class JwtUserDetailsService implements UserDetailsService {
 
+    private final UserRepository userRepository;
+
+    // Bounded, TTL-based cache of user snapshots keyed by username. Entries are evicted
+    // by UserService on every change; the TTL bounds staleness for changes made elsewhere
+    // (e.g. another node or a direct database update)
+    private final Cache<String, CachedUserDetails> cache;
+
     @Autowired
-    private UserRepository userRepository;
+    public JwtUserDetailsService(UserRepository userRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                 @Value("${security.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size for "userDetails"
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return loadCachedUserDetails(username);
+    }
+
+    // Same as loadUserByUsername, typed so that callers can read the user id
+    public CachedUserDetails loadCachedUserDetails(String username) throws UsernameNotFoundException {
+        // Unknown usernames are not cached: the exception propagates and nothing is stored
+        return cache.get(username, this::loadSnapshot);
+    }
+
+    // Evicts the entry for the given user. The user id is matched too, so a rename
+    // also drops the entry cached under the old username
+    public void evictUser(Long userId, String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+        if (userId != null) {
+            cache.asMap().values().removeIf(details -> userId.equals(details.getUserId()));
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private CachedUserDetails loadSnapshot(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(), 
+        return new CachedUserDetails(
+                user.getId(),
+                user.getUsername(),
                 user.getPassword(),
-                user.getEnabled(),
-                true, true, true,
+                Boolean.TRUE.equals(user.getEnabled()),
                 getAuthorities(user.getRoles()));
     }
 
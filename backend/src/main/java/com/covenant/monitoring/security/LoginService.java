@@ -0,0 +1,81 @@
+package com.covenant.monitoring.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs credential verification (BCrypt) and token generation on the bounded login executor.
+ */
+@Service
+public class LoginService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtUserDetailsService userDetailsService;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final Executor loginExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LoginService(AuthenticationManager authenticationManager,
+                        JwtUserDetailsService userDetailsService,
+                        JwtTokenUtil jwtTokenUtil,
+                        @Qualifier("loginExecutor") Executor loginExecutor,
+                        MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.loginExecutor = loginExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Completes with the JWT, or exceptionally with USER_DISABLED / INVALID_CREDENTIALS.
+    // Throws RejectedExecutionException immediately when the login queue is full.
+    // The auth.login timer includes the time spent waiting in the queue
+    public CompletableFuture<String> login(String username, String password) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(username, password), loginExecutor)
+                    .whenComplete((token, e) -> sample.stop(timer(e == null ? "success" : "failure")));
+        } catch (RuntimeException e) {
+            sample.stop(timer("rejected"));
+            throw e;
+        }
+    }
+
+    public void recordThrottled() {
+        meterRegistry.counter("auth.login.throttled").increment();
+    }
+
+    private String authenticate(String username, String password) {
+        try {
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+        } catch (DisabledException e) {
+            throw new CompletionException(new Exception("USER_DISABLED", e));
+        } catch (BadCredentialsException e) {
+            throw new CompletionException(new Exception("INVALID_CREDENTIALS", e));
+        }
+        final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return jwtTokenUtil.generateToken(userDetails);
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("auth.login")
+                .description("Login latency, including the wait in the login queue")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
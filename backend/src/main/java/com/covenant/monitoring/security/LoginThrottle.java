@@ -0,0 +1,84 @@
+package com.covenant.monitoring.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token-bucket throttling of login attempts, per username and per client IP.
+ * Buckets live in bounded caches and are dropped after a period of inactivity.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(15);
+
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final int usernameCapacity;
+    private final double usernameRefillPerSecond;
+    private final boolean ipEnabled;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+
+    @Autowired
+    public LoginThrottle(@Value("${security.login.per-username.capacity:5}") int usernameCapacity,
+                         @Value("${security.login.per-username.refill-per-minute:5}") int usernameRefillPerMinute,
+                         @Value("${security.login.per-ip.enabled:true}") boolean ipEnabled,
+                         @Value("${security.login.per-ip.capacity:50}") int ipCapacity,
+                         @Value("${security.login.per-ip.refill-per-minute:100}") int ipRefillPerMinute,
+                         @Value("${security.login.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerSecond = usernameRefillPerMinute / 60.0;
+        this.ipEnabled = ipEnabled;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60.0;
+        this.usernameBuckets = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(IDLE_EXPIRY).build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(IDLE_EXPIRY).build();
+    }
+
+    // Both buckets must have a token. The IP bucket is checked first, so attempts from a throttled
+    // address do not consume the tokens of the usernames it targets. The IP bucket can be turned off
+    // where the client address is not reliable (e.g. a proxy that does not forward it)
+    public boolean tryAcquire(String username, String clientIp) {
+        if (ipEnabled && clientIp != null && !ipBuckets.get(clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerSecond)).tryConsume()) {
+            return false;
+        }
+        if (username == null) {
+            return true;
+        }
+        return usernameBuckets.get(username.toLowerCase(), key -> new TokenBucket(usernameCapacity, usernameRefillPerSecond))
+                .tryConsume();
+    }
+
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.covenant.monitoring.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot set headers on the WebSocket handshake, so the
+ * JWT is sent as the Authorization header of the CONNECT frame and verified once per session,
+ * with the same checks as {@link JwtRequestFilter}. SUBSCRIBE frames on unauthenticated
+ * sessions are rejected.
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final JwtUserDetailsService jwtUserDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    public StompAuthenticationInterceptor(JwtTokenUtil jwtTokenUtil, JwtUserDetailsService jwtUserDetailsService,
+                                          TokenRevocationService tokenRevocationService) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.jwtUserDetailsService = jwtUserDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand()) && accessor.getUser() == null) {
+            throw new MessagingException("Unauthenticated STOMP session");
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new MessagingException("JWT Token does not begin with Bearer String");
+        }
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtTokenUtil.verify(header.substring(7));
+        } catch (IllegalArgumentException | JwtException e) {
+            throw new MessagingException("Invalid JWT Token", e);
+        }
+        CachedUserDetails userDetails = jwtTokenUtil.getUserDetailsFromToken(verifiedToken);
+        if (userDetails != null) {
+            if (tokenRevocationService.isRevoked(userDetails.getUserId(), verifiedToken.getIssuedAt())) {
+                throw new MessagingException("JWT Token has been revoked");
+            }
+        } else {
+            userDetails = jwtUserDetailsService.loadCachedUserDetails(verifiedToken.getSubject());
+        }
+        if (!jwtTokenUtil.validateToken(verifiedToken, userDetails)) {
+            throw new MessagingException("Invalid JWT Token");
+        }
+        return new UsernamePasswordAuthenticationToken(AuthenticatedUser.from(userDetails), null,
+                userDetails.getAuthorities());
+    }
+}
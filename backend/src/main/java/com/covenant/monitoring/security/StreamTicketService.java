@@ -0,0 +1,117 @@
+package com.covenant.monitoring.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Short-lived, single-use tickets for the notification event stream. EventSource cannot send an
+ * Authorization header, so the client first obtains a ticket with its JWT and then opens
+ * /notifications/stream?ticket=... The JWT itself never appears in URLs or access logs.
+ * Tickets are signed with a key derived from jwt.secret, so they are not accepted as Bearer
+ * tokens (and vice versa), and carry the user id and roles, so any node can redeem them.
+ */
+@Component
+public class StreamTicketService {
+
+    public static final String TICKET_PARAMETER = "ticket";
+
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "uid";
+
+    private final Key signingKey;
+    private final Duration ttl;
+    // Ids of redeemed tickets, kept until the ticket would have expired anyway
+    private final Cache<String, Boolean> redeemed;
+
+    @Autowired
+    public StreamTicketService(@Value("${jwt.secret}") String secret,
+                               @Value("${notifications.sse.ticket-ttl:30s}") Duration ttl,
+                               @Value("${notifications.sse.max-tracked-tickets:100000}") long maxTrackedTickets) {
+        this.signingKey = Keys.hmacShaKeyFor(sha512("stream-ticket:" + secret));
+        this.ttl = ttl;
+        this.redeemed = Caffeine.newBuilder().maximumSize(maxTrackedTickets).expireAfterWrite(ttl).build();
+    }
+
+    public String issue(AuthenticatedUser user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getUserId())
+                .claim(ROLES_CLAIM, List.copyOf(user.getRoles()))
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    // Returns the ticket owner, or null when the ticket is invalid, expired or already used
+    public RedeemedTicket redeem(String ticket) {
+        Claims claims;
+        try {
+            claims = Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(ticket).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (claims.getId() == null || !(userId instanceof Number) || !(roles instanceof List)) {
+            return null;
+        }
+        if (redeemed.asMap().putIfAbsent(claims.getId(), Boolean.TRUE) != null) {
+            return null;
+        }
+        Set<String> roleNames = ((List<?>) roles).stream().map(Object::toString).collect(Collectors.toSet());
+        return new RedeemedTicket(new AuthenticatedUser(((Number) userId).longValue(), claims.getSubject(), roleNames),
+                claims.getIssuedAt().toInstant());
+    }
+
+    private static byte[] sha512(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-512").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 not available", e);
+        }
+    }
+
+    public static final class RedeemedTicket {
+
+        private final AuthenticatedUser user;
+        private final Instant issuedAt;
+
+        RedeemedTicket(AuthenticatedUser user, Instant issuedAt) {
+            this.user = user;
+            this.issuedAt = issuedAt;
+        }
+
+        public AuthenticatedUser getUser() {
+            return user;
+        }
+
+        public Instant getIssuedAt() {
+            return issuedAt;
+        }
+    }
+}
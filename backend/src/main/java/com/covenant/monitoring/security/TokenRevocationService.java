@@ -0,0 +1,99 @@
+package com.covenant.monitoring.security;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.covenant.monitoring.model.TokenRevocation;
+import com.covenant.monitoring.repository.TokenRevocationRepository;
+
+/**
+ * Revocation list for stateless tokens. When a user's roles, password or status change,
+ * every token issued to that user before the change is rejected.
+ * Each node keeps an in-memory copy refreshed periodically, so the per-request check
+ * never touches the database; a revocation reaches the other nodes within one refresh interval.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final boolean enabled;
+    private final long tokenValidity;
+
+    // user id -> tokens issued before this instant are revoked. Replaced as a whole on refresh
+    private volatile Map<Long, Instant> revocations = Map.of();
+
+    @Autowired
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  @Value("${jwt.stateless-authorities.enabled:false}") boolean enabled,
+                                  @Value("${jwt.stateless-authorities.expiration:900000}") long tokenValidity) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.enabled = enabled;
+        this.tokenValidity = tokenValidity;
+    }
+
+    // JWT timestamps have second precision: the revocation instant is truncated the same way,
+    // so a token issued right after the change (e.g. a new login) is not rejected
+    @Transactional
+    public void revokeUser(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime persisted = LocalDateTime.ofInstant(revokedAt, ZoneId.systemDefault());
+        // Update first; when no row exists yet, insert it. If another node inserted it in the
+        // meantime the insert is a no-op and the update is retried (it only ever moves forward)
+        if (tokenRevocationRepository.advanceRevocation(userId, persisted) == 0
+                && tokenRevocationRepository.insertIfAbsent(userId, persisted) == 0) {
+            tokenRevocationRepository.advanceRevocation(userId, persisted);
+        }
+        Map<Long, Instant> updated = new HashMap<>(revocations);
+        updated.merge(userId, revokedAt, (current, added) -> current.isAfter(added) ? current : added);
+        revocations = Map.copyOf(updated);
+    }
+
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        Instant revokedAt = revocations.get(userId);
+        return revokedAt != null && (issuedAt == null || issuedAt.isBefore(revokedAt));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    // Revocations older than the token lifetime can no longer match a valid token and are purged
+    @Scheduled(fixedDelayString = "${jwt.stateless-authorities.revocation-refresh-interval:30000}")
+    @Transactional
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(tokenValidity * 1_000_000L);
+        int purged = tokenRevocationRepository.deleteByRevokedAtBefore(cutoff);
+        if (purged > 0) {
+            log.debug("Purged {} expired token revocations", purged);
+        }
+        Map<Long, Instant> loaded = new HashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtAfter(cutoff)) {
+            loaded.put(revocation.getUserId(), revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        revocations = Map.copyOf(loaded);
+    }
+}
@@ -0,0 +1,55 @@
+package com.covenant.monitoring.security;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable result of a successful JWT signature verification.
+ * Safe to share between requests through the verified-token cache.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    private final Map<String, Object> claims;
+
+    public VerifiedToken(String subject, Instant issuedAt, Instant expiration, Map<String, Object> claims) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+    }
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims);
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    public Object getClaim(String name) {
+        return claims.get(name);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && !expiration.isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,28 @@
+package com.covenant.monitoring.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Esegue un'azione dopo il commit della transazione corrente, oppure subito se non c'e'
+ * una transazione attiva. Le azioni registrate nella stessa transazione vengono eseguite
+ * nell'ordine di registrazione.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
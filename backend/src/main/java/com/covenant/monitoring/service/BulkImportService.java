@@ -0,0 +1,397 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.ContractRef;
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.ImportReport;
+import com.covenant.monitoring.dto.ImportRowError;
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    static final Set<String> COVENANT_STATUSES = Set.of("VERDE", "GIALLO", "ROSSO", "PENDING");
+
+    private final ContractRepository contractRepository;
+    private final CovenantRepository covenantRepository;
+    private final CovenantStatusRollupService rollupService;
+    private final ImportFileReader fileReader;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public BulkImportService(ContractRepository contractRepository,
+                             CovenantRepository covenantRepository,
+                             CovenantStatusRollupService rollupService,
+                             ImportFileReader fileReader,
+                             PlatformTransactionManager transactionManager,
+                             EntityManager entityManager,
+                             @Value("${import.chunk-size:500}") int chunkSize,
+                             @Value("${import.max-errors:1000}") int maxErrors) {
+        this.contractRepository = contractRepository;
+        this.covenantRepository = covenantRepository;
+        this.rollupService = rollupService;
+        this.fileReader = fileReader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportReport importContracts(MultipartFile file) throws IOException {
+        ImportRun run = new ImportRun(maxErrors);
+        List<ImportFileReader.Row> buffer = new ArrayList<>(chunkSize);
+        fileReader.read(file, row -> {
+            buffer.add(row);
+            if (buffer.size() == chunkSize) {
+                processContractChunk(buffer, run);
+                buffer.clear();
+            }
+        });
+        if (!buffer.isEmpty()) {
+            processContractChunk(buffer, run);
+        }
+        log.info("Import contratti completato: {} righe lette, {} importate, {} scartate",
+                run.totalRows, run.importedRows, run.rejectedRows);
+        return run.toReport();
+    }
+
+    public ImportReport importCovenants(MultipartFile file) throws IOException {
+        ImportRun run = new ImportRun(maxErrors);
+        List<ImportFileReader.Row> buffer = new ArrayList<>(chunkSize);
+        fileReader.read(file, row -> {
+            buffer.add(row);
+            if (buffer.size() == chunkSize) {
+                processCovenantChunk(buffer, run);
+                buffer.clear();
+            }
+        });
+        if (!buffer.isEmpty()) {
+            processCovenantChunk(buffer, run);
+        }
+        log.info("Import covenant completato: {} righe lette, {} importate, {} scartate",
+                run.totalRows, run.importedRows, run.rejectedRows);
+        return run.toReport();
+    }
+
+    private void processContractChunk(List<ImportFileReader.Row> rows, ImportRun run) {
+        run.totalRows += rows.size();
+
+        // La validazione dei campi non accede al database e puo' girare in parallelo
+        List<RowResult<Contract>> results = rows.parallelStream()
+                .map(this::validateContract)
+                .collect(Collectors.toList());
+
+        // Contratti gia' presenti in anagrafica o ripetuti nel file
+        Set<String> candidateIds = results.stream()
+                .filter(RowResult::isValid)
+                .map(result -> result.entity.getContractId())
+                .collect(Collectors.toSet());
+        Set<String> existing = candidateIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(contractRepository.findExistingContractIds(candidateIds));
+
+        List<RowResult<Contract>> toSave = new ArrayList<>();
+        for (RowResult<Contract> result : results) {
+            if (result.isValid()) {
+                String contractId = result.entity.getContractId();
+                if (existing.contains(contractId)) {
+                    result.reject("contractId", "Contratto gia' esistente: " + contractId);
+                } else if (!run.seenKeys.add(contractId)) {
+                    result.reject("contractId", "Contratto duplicato nel file: " + contractId);
+                } else {
+                    toSave.add(result);
+                }
+            }
+            run.collect(result);
+        }
+
+        writeChunk(toSave, run, () -> {
+            contractRepository.saveAll(toSave.stream().map(result -> result.entity).collect(Collectors.toList()));
+        });
+    }
+
+    private void processCovenantChunk(List<ImportFileReader.Row> rows, ImportRun run) {
+        run.totalRows += rows.size();
+
+        // Risolve con una sola query i contratti referenziati dal chunk che non sono ancora in cache.
+        // Anche gli id non trovati restano in cache, per non cercarli di nuovo nei chunk successivi
+        Set<String> missing = rows.stream()
+                .map(row -> row.get("contractId"))
+                .filter(contractId -> contractId != null && !run.contracts.containsKey(contractId)
+                        && !run.unknownContracts.contains(contractId))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!missing.isEmpty()) {
+            for (ContractRef ref : contractRepository.findRefsByContractIdIn(missing)) {
+                run.contracts.put(ref.getContractId(), ref);
+                missing.remove(ref.getContractId());
+            }
+            run.unknownContracts.addAll(missing);
+        }
+
+        Map<String, ContractRef> contracts = run.contracts;
+        List<RowResult<Covenant>> results = rows.parallelStream()
+                .map(row -> validateCovenant(row, contracts))
+                .collect(Collectors.toList());
+
+        List<RowResult<Covenant>> toSave = new ArrayList<>();
+        for (RowResult<Covenant> result : results) {
+            if (result.isValid()) {
+                toSave.add(result);
+            }
+            run.collect(result);
+        }
+
+        writeChunk(toSave, run, () -> {
+            Map<CovenantStatusKey, Long> deltas = new HashMap<>();
+            List<Covenant> covenants = new ArrayList<>(toSave.size());
+            for (RowResult<Covenant> result : toSave) {
+                result.entity.setContract(entityManager.getReference(Contract.class, result.contract.getId()));
+                covenants.add(result.entity);
+                deltas.merge(new CovenantStatusKey(result.contract.getCountry(), result.contract.getLegalEntity(),
+                        result.entity.getStatus()), 1L, Long::sum);
+            }
+            covenantRepository.saveAll(covenants);
+            rollupService.applyDeltas(deltas);
+        });
+    }
+
+    // Un chunk = una transazione: gli insert vengono inviati in batch al flush e il
+    // persistence context viene svuotato per non accumulare entita' tra un chunk e l'altro
+    private <T> void writeChunk(List<RowResult<T>> toSave, ImportRun run, Runnable writer) {
+        if (toSave.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writer.run();
+                entityManager.flush();
+                entityManager.clear();
+            });
+            run.importedRows += toSave.size();
+        } catch (RuntimeException e) {
+            log.warn("Chunk di import annullato: {}", e.getMessage());
+            entityManager.clear();
+            for (RowResult<T> result : toSave) {
+                run.rejectedRows++;
+                run.addError(new ImportRowError(result.rowNumber, null,
+                        "Riga non salvata, transazione del blocco annullata: " + e.getMessage()));
+            }
+        }
+    }
+
+    private RowResult<Contract> validateContract(ImportFileReader.Row row) {
+        RowResult<Contract> result = new RowResult<>(row.getRowNumber());
+        Contract contract = new Contract();
+        contract.setContractId(required(row, "contractId", result));
+        contract.setLegalEntity(required(row, "legalEntity", result));
+        contract.setCountry(required(row, "country", result));
+        contract.setContractType(required(row, "contractType", result));
+        contract.setAmount(parseAmount(row, "amount", result));
+        String currency = required(row, "currency", result);
+        contract.setCurrency(currency != null ? currency.toUpperCase(Locale.ROOT) : null);
+        contract.setCounterparty(required(row, "counterparty", result));
+        contract.setStatus(required(row, "status", result));
+        contract.setStartDate(parseDate(row, "startDate", true, result));
+        contract.setEndDate(parseDate(row, "endDate", true, result));
+        contract.setHasGuarantee(parseBoolean(row, "hasGuarantee", result));
+        contract.setGuaranteeCompany(row.get("guaranteeCompany"));
+        contract.setAdditionalInfo(row.get("additionalInfo"));
+
+        if (contract.getStartDate() != null && contract.getEndDate() != null
+                && contract.getEndDate().isBefore(contract.getStartDate())) {
+            result.reject("endDate", "La data di fine precede la data di inizio");
+        }
+        result.entity = contract;
+        return result;
+    }
+
+    private RowResult<Covenant> validateCovenant(ImportFileReader.Row row, Map<String, ContractRef> contracts) {
+        RowResult<Covenant> result = new RowResult<>(row.getRowNumber());
+        String contractId = required(row, "contractId", result);
+        if (contractId != null) {
+            result.contract = contracts.get(contractId);
+            if (result.contract == null) {
+                result.reject("contractId", "Contratto non trovato: " + contractId);
+            }
+        }
+
+        Covenant covenant = new Covenant();
+        covenant.setCovenantId(required(row, "covenantId", result));
+        covenant.setTitle(required(row, "title", result));
+        covenant.setHasCurePeriod(parseBoolean(row, "hasCurePeriod", result));
+        covenant.setContractArticle(row.get("contractArticle"));
+        covenant.setFutureRisks(row.get("futureRisks"));
+        covenant.setMonitoringFrequencyMonths(parseFrequency(row, "monitoringFrequencyMonths", result));
+
+        String status = row.get("status");
+        status = status != null ? status.toUpperCase(Locale.ROOT) : "PENDING";
+        if (!COVENANT_STATUSES.contains(status)) {
+            result.reject("status", "Stato non valido: " + status);
+        }
+        covenant.setStatus(status);
+        result.entity = covenant;
+        return result;
+    }
+
+    private String required(ImportFileReader.Row row, String column, RowResult<?> result) {
+        String value = row.get(column);
+        if (value == null) {
+            result.reject(column, "Campo obbligatorio");
+        }
+        return value;
+    }
+
+    private BigDecimal parseAmount(ImportFileReader.Row row, String column, RowResult<?> result) {
+        String value = required(row, column, result);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            result.reject(column, "Importo non valido: " + value);
+            return null;
+        }
+    }
+
+    private Integer parseFrequency(ImportFileReader.Row row, String column, RowResult<?> result) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int months = Integer.parseInt(value);
+            if (months >= 1) {
+                return months;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        result.reject(column, "Frequenza di monitoraggio non valida (mesi): " + value);
+        return null;
+    }
+
+    private LocalDate parseDate(ImportFileReader.Row row, String column, boolean mandatory, RowResult<?> result) {
+        String value = mandatory ? required(row, column, result) : row.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            result.reject(column, "Data non valida (formato atteso AAAA-MM-GG): " + value);
+            return null;
+        }
+    }
+
+    private Boolean parseBoolean(ImportFileReader.Row row, String column, RowResult<?> result) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "si":
+            case "sì":
+            case "yes":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "0":
+                return false;
+            default:
+                result.reject(column, "Valore booleano non valido: " + value);
+                return null;
+        }
+    }
+
+    // Esito della validazione di una riga; gli errori sono per riga, quindi la
+    // lista non e' condivisa tra i thread della validazione parallela
+    private static class RowResult<T> {
+
+        private final long rowNumber;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private T entity;
+        private ContractRef contract;
+
+        RowResult(long rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+
+        void reject(String column, String message) {
+            errors.add(new ImportRowError(rowNumber, column, message));
+        }
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    // Stato di un singolo import, aggiornato solo dal thread che legge il file.
+    // Le righe scartate vengono sempre contate, ma nel report finiscono solo i primi maxErrors errori
+    private static class ImportRun {
+
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Set<String> seenKeys = new HashSet<>();
+        private final Map<String, ContractRef> contracts = new HashMap<>();
+        private final Set<String> unknownContracts = new HashSet<>();
+        private long totalRows;
+        private long importedRows;
+        private long rejectedRows;
+        private boolean errorsTruncated;
+
+        ImportRun(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void collect(RowResult<?> result) {
+            if (!result.isValid()) {
+                rejectedRows++;
+                result.errors.forEach(this::addError);
+            }
+        }
+
+        void addError(ImportRowError error) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(totalRows, importedRows, rejectedRows, errors, errorsTruncated);
+        }
+    }
+}
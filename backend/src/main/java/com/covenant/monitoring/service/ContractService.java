@@ -1,10 +1,14 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.repository.ContractRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +26,17 @@ public class ContractService {
         return contractRepository.findAll();
     }
 
+    public List<ContractListItem> getContractListItems() {
+        return contractRepository.findAllListItems();
+    }
+
+    public CursorPage<ContractListItem> getContractsPage(Long cursor, int size, String status, String country,
+                                                         String legalEntity, LocalDate fromDate, LocalDate toDate) {
+        List<ContractListItem> rows = contractRepository.findPage(cursor, status, country, legalEntity,
+                fromDate, toDate, PageRequest.of(0, size + 1));
+        return CursorPage.fromOverfetched(rows, size, ContractListItem::getId);
+    }
+
     public Optional<Contract> getContractById(Long id) {
         return contractRepository.findById(id);
     }
@@ -1,10 +1,16 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.CovenantListItem;
+import com.covenant.monitoring.dto.CovenantStatusChange;
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.repository.CovenantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,16 +20,32 @@ import java.util.Optional;
 public class CovenantService {
 
     private final CovenantRepository covenantRepository;
+    private final CovenantStatusRollupService rollupService;
+    private final CovenantStatusStreamPublisher statusStreamPublisher;
 
     @Autowired
-    public CovenantService(CovenantRepository covenantRepository) {
+    public CovenantService(CovenantRepository covenantRepository, CovenantStatusRollupService rollupService,
+                           CovenantStatusStreamPublisher statusStreamPublisher) {
         this.covenantRepository = covenantRepository;
+        this.rollupService = rollupService;
+        this.statusStreamPublisher = statusStreamPublisher;
     }
 
     public List<Covenant> getAllCovenants() {
         return covenantRepository.findAll();
     }
 
+    public List<CovenantListItem> getCovenantListItems() {
+        return covenantRepository.findAllListItems();
+    }
+
+    public CursorPage<CovenantListItem> getCovenantsPage(Long cursor, int size, String status, String country,
+                                                         String legalEntity, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<CovenantListItem> rows = covenantRepository.findPage(cursor, status, country, legalEntity,
+                fromDate, toDate, PageRequest.of(0, size + 1));
+        return CursorPage.fromOverfetched(rows, size, CovenantListItem::getId);
+    }
+
     public Optional<Covenant> getCovenantById(Long id) {
         return covenantRepository.findById(id);
     }
@@ -44,19 +66,81 @@ public class CovenantService {
         return covenantRepository.findByContractAndStatus(contract, status);
     }
 
+    // Covenant con il monitoraggio scaduto alla data indicata, compresi quelli mai monitorati
     public List<Covenant> getCovenantsDueForMonitoring(LocalDateTime date) {
-        return covenantRepository.findByLastMonitoringDateBefore(date);
+        return covenantRepository.findByNextDueDateLessThanEqualOrderByNextDueDateAsc(date);
     }
 
     public List<Covenant> getCovenantsByContractsAndStatus(List<Contract> contracts, String status) {
         return covenantRepository.findByContractInAndStatus(contracts, status);
     }
 
+    @Transactional
     public Covenant saveCovenant(Covenant covenant) {
-        return covenantRepository.save(covenant);
+        if (covenant.getId() != null) {
+            keepPersistedSchedule(covenant);
+        }
+        CovenantStatusKey before = covenant.getId() != null
+                ? covenantRepository.findStatusKeyById(covenant.getId()).orElse(null)
+                : null;
+        Covenant savedCovenant = covenantRepository.save(covenant);
+        CovenantStatusKey after = covenantRepository.findStatusKeyById(savedCovenant.getId()).orElse(null);
+        rollupService.recordChange(before, after);
+        if (before != null && after != null) {
+            publishStatusChange(savedCovenant, before.getStatus(), after.getStatus());
+        }
+        return savedCovenant;
+    }
+
+    // Il corpo di una PUT puo' non riportare frequenza e data di creazione: senza di esse la
+    // scadenza verrebbe ricalcolata con la frequenza di default, o da adesso se mai monitorato
+    private void keepPersistedSchedule(Covenant covenant) {
+        if (covenant.getMonitoringFrequencyMonths() != null && covenant.getCreatedAt() != null) {
+            return;
+        }
+        covenantRepository.findById(covenant.getId()).ifPresent(existing -> {
+            if (covenant.getMonitoringFrequencyMonths() == null) {
+                covenant.setMonitoringFrequencyMonths(existing.getMonitoringFrequencyMonths());
+            }
+            if (covenant.getCreatedAt() == null) {
+                covenant.setCreatedAt(existing.getCreatedAt());
+            }
+        });
+    }
+
+    // Registra l'esito di un monitoraggio sul covenant. La chiave precedente va letta
+    // prima di modificare l'entità, altrimenti l'auto-flush la restituirebbe già aggiornata
+    @Transactional
+    public Optional<Covenant> recordMonitoring(Long covenantId, String status, LocalDateTime monitoringDate) {
+        Optional<CovenantStatusKey> before = covenantRepository.findStatusKeyById(covenantId);
+        if (before.isEmpty()) {
+            return Optional.empty();
+        }
+        Covenant covenant = covenantRepository.findById(covenantId).orElseThrow();
+        // Un monitoraggio retrodatato viene solo storicizzato: data e stato del covenant
+        // restano quelli del monitoraggio piu' recente
+        if (covenant.getLastMonitoringDate() != null && monitoringDate.isBefore(covenant.getLastMonitoringDate())) {
+            return Optional.of(covenant);
+        }
+        covenant.setLastMonitoringDate(monitoringDate);
+        covenant.setStatus(status);
+        Covenant savedCovenant = covenantRepository.save(covenant);
+        rollupService.recordChange(before.get(),
+                new CovenantStatusKey(before.get().getCountry(), before.get().getLegalEntity(), status));
+        publishStatusChange(savedCovenant, before.get().getStatus(), status);
+        return Optional.of(savedCovenant);
+    }
+
+    // Inviata dopo il commit e solo se lo stato cambia; l'id del contratto viene dal proxy, senza query
+    private void publishStatusChange(Covenant covenant, String oldStatus, String newStatus) {
+        Long contractId = covenant.getContract() != null ? covenant.getContract().getId() : null;
+        statusStreamPublisher.publish(new CovenantStatusChange(covenant.getId(), contractId, oldStatus, newStatus));
     }
 
+    @Transactional
     public void deleteCovenant(Long id) {
+        CovenantStatusKey before = covenantRepository.findStatusKeyById(id).orElse(null);
         covenantRepository.deleteById(id);
+        rollupService.recordChange(before, null);
     }
 }
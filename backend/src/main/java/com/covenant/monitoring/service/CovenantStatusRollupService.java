@@ -0,0 +1,123 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.StatusCount;
+import com.covenant.monitoring.model.CovenantStatusRollup;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.CovenantStatusRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class CovenantStatusRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(CovenantStatusRollupService.class);
+
+    private final CovenantStatusRollupRepository rollupRepository;
+    private final CovenantRepository covenantRepository;
+    private final SchedulerLockService schedulerLockService;
+
+    @Autowired
+    public CovenantStatusRollupService(CovenantStatusRollupRepository rollupRepository,
+                                       CovenantRepository covenantRepository,
+                                       SchedulerLockService schedulerLockService) {
+        this.rollupRepository = rollupRepository;
+        this.covenantRepository = covenantRepository;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    public List<StatusCount> getCounts(Collection<String> statuses) {
+        return rollupRepository.findCountsByStatusIn(statuses);
+    }
+
+    // Aggiorna i contatori nella transazione del chiamante: before/after sono
+    // null rispettivamente per un covenant appena creato o appena cancellato
+    @Transactional
+    public void recordChange(CovenantStatusKey before, CovenantStatusKey after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            applyDelta(before, -1);
+        }
+        if (after != null) {
+            applyDelta(after, 1);
+        }
+    }
+
+    @Transactional
+    public void applyDeltas(Map<CovenantStatusKey, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                applyDelta(key, delta);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    // Ricalcola i conteggi dai covenant e corregge eventuali scostamenti
+    // (es. cancellazioni a cascata dei contratti o modifiche di country/legal entity).
+    // Le righe del rollup vengono bloccate prima di contare i covenant e la correzione e'
+    // applicata come delta, cosi' un aggiornamento concorrente non viene sovrascritto
+    @Scheduled(cron = "${rollup.reconcile-cron:0 */15 * * * ?}")
+    @Transactional
+    public void reconcile() {
+        // Con piu' istanze basta un nodo: le altre attenderebbero solo il lock sulle righe del rollup
+        if (!schedulerLockService.tryAcquire("reconcileCovenantStatusRollup")) {
+            return;
+        }
+        Map<CovenantStatusKey, Long> recorded = new HashMap<>();
+        for (CovenantStatusRollup rollup : rollupRepository.findAllForUpdate()) {
+            recorded.put(new CovenantStatusKey(rollup.getCountry(), rollup.getLegalEntity(), rollup.getStatus()),
+                    rollup.getCovenantCount());
+        }
+
+        Map<CovenantStatusKey, Long> corrections = new HashMap<>();
+        recorded.forEach((key, count) -> corrections.put(key, -count));
+        for (StatusCount row : covenantRepository.countByCountryAndLegalEntityAndStatus()) {
+            CovenantStatusKey key = new CovenantStatusKey(row.getCountry(), row.getLegalEntity(), row.getStatus());
+            corrections.merge(key, row.getCount(), Long::sum);
+        }
+
+        int corrected = 0;
+        for (Map.Entry<CovenantStatusKey, Long> correction : corrections.entrySet()) {
+            if (correction.getValue() != 0) {
+                applyDelta(correction.getKey(), correction.getValue());
+                corrected++;
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Rollup stati covenant riconciliato: {} gruppi corretti", corrected);
+        }
+    }
+
+    // UPDATE della riga del gruppo, che nel caso comune esiste gia'. Se manca viene inserita;
+    // se nel frattempo l'ha inserita un'altra transazione, l'INSERT non fa nulla e si ripete l'UPDATE
+    private void applyDelta(CovenantStatusKey key, long delta) {
+        if (rollupRepository.incrementCount(key.getCountry(), key.getLegalEntity(), key.getStatus(), delta) > 0) {
+            return;
+        }
+        if (rollupRepository.insertIfAbsent(key.getCountry(), key.getLegalEntity(), key.getStatus(), delta) > 0) {
+            return;
+        }
+        rollupRepository.incrementCount(key.getCountry(), key.getLegalEntity(), key.getStatus(), delta);
+    }
+}
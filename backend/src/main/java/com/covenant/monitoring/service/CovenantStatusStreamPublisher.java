@@ -0,0 +1,71 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.CovenantStatusChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pubblica le variazioni di stato dei covenant sul topic STOMP /topic/covenant-status.
+ * Le variazioni vengono accumulate dopo il commit e inviate a intervalli regolari come un unico
+ * frame con la lista delle variazioni: una raffica di monitoraggi trimestrali produce pochi frame.
+ * Piu' variazioni dello stesso covenant nell'intervallo vengono fuse in una sola.
+ */
+@Service
+public class CovenantStatusStreamPublisher {
+
+    public static final String TOPIC = "/topic/covenant-status";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxBatchSize;
+
+    // covenant id -> variazione in attesa di invio
+    private final ConcurrentMap<Long, CovenantStatusChange> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CovenantStatusStreamPublisher(SimpMessagingTemplate messagingTemplate,
+                                         @Value("${covenants.status-stream.max-batch-size:500}") int maxBatchSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void publish(CovenantStatusChange change) {
+        if (change.isNoOp()) {
+            return;
+        }
+        AfterCommit.run(() -> pending.merge(change.getCovenantId(), change, CovenantStatusChange::followedBy));
+    }
+
+    // Ogni chiave viene rimossa singolarmente: una variazione arrivata durante il flush
+    // finisce nel frame successivo invece di andare persa
+    @Scheduled(fixedDelayString = "${covenants.status-stream.flush-interval:500}")
+    public void flush() {
+        List<CovenantStatusChange> batch = new ArrayList<>();
+        for (Long covenantId : pending.keySet()) {
+            CovenantStatusChange change = pending.remove(covenantId);
+            // Stato tornato quello iniziale nell'intervallo: nulla da comunicare
+            if (change == null || change.isNoOp()) {
+                continue;
+            }
+            batch.add(change);
+            if (batch.size() == maxBatchSize) {
+                messagingTemplate.convertAndSend(TOPIC, batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            messagingTemplate.convertAndSend(TOPIC, batch);
+        }
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.DashboardSummary;
+import com.covenant.monitoring.dto.StatusCount;
+import com.covenant.monitoring.dto.StatusSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class DashboardService {
+
+    static final List<String> DASHBOARD_STATUSES = List.of("VERDE", "GIALLO", "ROSSO");
+
+    private final CovenantStatusRollupService rollupService;
+
+    @Autowired
+    public DashboardService(CovenantStatusRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    public DashboardSummary getStatusSummary() {
+        // Legge il rollup mantenuto incrementalmente: il costo dipende solo dal
+        // numero di gruppi (country, legal entity, status) e non dai covenant
+        List<StatusCount> counts = rollupService.getCounts(DASHBOARD_STATUSES);
+        return buildSummary(counts);
+    }
+
+    DashboardSummary buildSummary(List<StatusCount> counts) {
+        Map<String, StatusSummary> byCountry = new TreeMap<>();
+        Map<String, StatusSummary> byCompany = new TreeMap<>();
+        StatusSummary totals = new StatusSummary("TOTALE");
+
+        for (StatusCount row : counts) {
+            byCountry.computeIfAbsent(row.getCountry(), StatusSummary::new).add(row.getStatus(), row.getCount());
+            byCompany.computeIfAbsent(row.getLegalEntity(), StatusSummary::new).add(row.getStatus(), row.getCount());
+            totals.add(row.getStatus(), row.getCount());
+        }
+
+        return new DashboardSummary(new ArrayList<>(byCountry.values()), new ArrayList<>(byCompany.values()), totals);
+    }
+}
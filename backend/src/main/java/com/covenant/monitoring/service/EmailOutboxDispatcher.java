@@ -0,0 +1,230 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.model.EmailOutboxMessage;
+import com.covenant.monitoring.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Invia in background le email dell'outbox. Ogni ciclo prende in carico un lotto di messaggi
+ * (transazione breve), li invia con una sola connessione SMTP e registra l'esito (seconda
+ * transazione breve): nessuna transazione resta aperta durante l'invio.
+ * I messaggi non consegnati vengono ritentati con backoff esponenziale fino a max-attempts.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    // Lunghezza massima dell'errore salvato su last_error
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String from;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration retention;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.from:noreply@covenant-monitoring.local}") String from,
+                                 @Value("${email.outbox.batch-size:100}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${email.outbox.max-backoff:6h}") Duration maxBackoff,
+                                 @Value("${email.outbox.claim-timeout:30m}") Duration claimTimeout,
+                                 @Value("${email.outbox.retention:30d}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+        this.sentCounter = meterRegistry.counter("email.outbox.dispatched", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.dispatched", "outcome", "retry");
+        this.failedCounter = meterRegistry.counter("email.outbox.dispatched", "outcome", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:5000}",
+               initialDelayString = "${email.outbox.initial-delay:10000}")
+    public void dispatchScheduled() {
+        int sent = dispatchPending();
+        if (sent > 0) {
+            log.debug("Outbox email: {} messaggi inviati", sent);
+        }
+    }
+
+    // Svuota la coda a lotti finche' ci sono messaggi pronti; restituisce il numero di email inviate
+    public int dispatchPending() {
+        int sent = 0;
+        while (true) {
+            List<EmailOutboxMessage> batch = claimBatch();
+            if (batch.isEmpty()) {
+                return sent;
+            }
+            sent += sendBatch(batch);
+            if (batch.size() < batchSize) {
+                return sent;
+            }
+        }
+    }
+
+    // Le email inviate restano per retention come traccia, poi vengono eliminate
+    @Scheduled(cron = "${email.outbox.purge-cron:0 30 3 * * ?}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+        log.info("Outbox email: eliminati {} messaggi inviati", deleted);
+    }
+
+    private List<EmailOutboxMessage> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = emailOutboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            String claimToken = UUID.randomUUID().toString();
+            emailOutboxRepository.claim(ids, claimToken, now, now.plus(claimTimeout));
+            return emailOutboxRepository.findByClaimToken(claimToken);
+        });
+    }
+
+    private int sendBatch(List<EmailOutboxMessage> batch) {
+        // MimeMessage non ridefinisce equals: le chiavi sono confrontate per identita', nell'ordine del lotto
+        Map<MimeMessage, EmailOutboxMessage> byMimeMessage = new LinkedHashMap<>();
+        Map<EmailOutboxMessage, String> failures = new IdentityHashMap<>();
+        Set<EmailOutboxMessage> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (EmailOutboxMessage message : batch) {
+            try {
+                byMimeMessage.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                // Messaggio non costruibile (es. indirizzo non valido): inutile ritentare
+                failures.put(message, e.getMessage());
+                rejected.add(message);
+            }
+        }
+
+        if (!byMimeMessage.isEmpty()) {
+            try {
+                // JavaMailSenderImpl invia tutto il lotto sulla stessa connessione SMTP
+                mailSender.send(byMimeMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // Esito per messaggio: falliscono solo quelli indicati, gli altri sono stati consegnati
+                if (e.getFailedMessages().isEmpty()) {
+                    byMimeMessage.values().forEach(message -> failures.put(message, e.getMessage()));
+                } else {
+                    e.getFailedMessages().forEach((mimeMessage, cause) -> {
+                        EmailOutboxMessage message = byMimeMessage.get(mimeMessage);
+                        if (message != null) {
+                            failures.put(message, cause.getMessage());
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                // Server non raggiungibile o autenticazione fallita: tutto il lotto va ritentato
+                log.warn("Invio del lotto di {} email non riuscito: {}", byMimeMessage.size(), e.getMessage());
+                byMimeMessage.values().forEach(message -> failures.put(message, e.getMessage()));
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (EmailOutboxMessage message : batch) {
+            if (!failures.containsKey(message)) {
+                sentIds.add(message.getId());
+            }
+        }
+        // Tutti i messaggi del lotto condividono il token della presa in carico
+        recordOutcome(batch.get(0).getClaimToken(), sentIds, failures, rejected);
+        return sentIds.size();
+    }
+
+    private void recordOutcome(String claimToken, List<Long> sentIds, Map<EmailOutboxMessage, String> failures,
+                               Set<EmailOutboxMessage> rejected) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                int updated = emailOutboxRepository.markSent(sentIds, claimToken, now);
+                if (updated < sentIds.size()) {
+                    log.warn("Outbox email: presa in carico scaduta per {} messaggi inviati, claim-timeout troppo breve",
+                            sentIds.size() - updated);
+                }
+            }
+            failures.forEach((message, error) -> {
+                // attempts e' gia' stato incrementato alla presa in carico
+                boolean exhausted = rejected.contains(message) || message.getAttempts() >= maxAttempts;
+                emailOutboxRepository.markFailed(message.getId(), claimToken,
+                        exhausted ? EmailOutboxMessage.STATUS_FAILED : EmailOutboxMessage.STATUS_PENDING,
+                        exhausted ? now : now.plus(backoff(message.getAttempts())),
+                        truncate(error));
+                (exhausted ? failedCounter : retriedCounter).increment();
+            });
+        });
+        sentCounter.increment(sentIds.size());
+    }
+
+    // 30s, 1m, 2m, 4m, ... fino a max-backoff
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody());
+        return mimeMessage;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
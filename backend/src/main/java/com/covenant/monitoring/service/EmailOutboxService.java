@@ -0,0 +1,38 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.model.EmailOutboxMessage;
+import com.covenant.monitoring.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Accoda le email nell'outbox. I metodi partecipano alla transazione del chiamante: l'email
+ * esiste se e solo se esiste la notifica, e nessuna latenza SMTP entra nella transazione.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository) {
+        this.emailOutboxRepository = emailOutboxRepository;
+    }
+
+    @Transactional
+    public EmailOutboxMessage enqueue(String recipient, String subject, String body) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        return emailOutboxRepository.save(message);
+    }
+
+    @Transactional
+    public int enqueueForRoles(Collection<String> roleNames, String subject, String body) {
+        return emailOutboxRepository.enqueueForRoles(roleNames, subject, body);
+    }
+}
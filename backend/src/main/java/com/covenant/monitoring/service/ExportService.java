@@ -0,0 +1,231 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.CovenantListItem;
+import com.covenant.monitoring.dto.MonitoringResultListItem;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class ExportService {
+
+    // Righe tenute in memoria da SXSSF: le precedenti vengono scaricate su file temporaneo
+    private static final int ROW_WINDOW = 100;
+
+    // Limite di righe di un foglio XLSX (intestazione compresa): oltre si prosegue su un nuovo foglio
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    // Ogni quante righe NDJSON svuotare il buffer verso il client
+    private static final int NDJSON_FLUSH_EVERY = 1000;
+
+    private static final List<Column<ContractListItem>> CONTRACT_COLUMNS = List.of(
+            new Column<>("ID Contratto", 18, ContractListItem::getContractId),
+            new Column<>("Entità Legale", 28, ContractListItem::getLegalEntity),
+            new Column<>("Paese", 14, ContractListItem::getCountry),
+            new Column<>("Tipo", 18, ContractListItem::getContractType),
+            new Column<>("Importo", 16, ContractListItem::getAmount),
+            new Column<>("Valuta", 8, ContractListItem::getCurrency),
+            new Column<>("Controparte", 28, ContractListItem::getCounterparty),
+            new Column<>("Stato", 14, ContractListItem::getStatus),
+            new Column<>("Data Inizio", 12, ContractListItem::getStartDate),
+            new Column<>("Data Fine", 12, ContractListItem::getEndDate));
+
+    private static final List<Column<CovenantListItem>> COVENANT_COLUMNS = List.of(
+            new Column<>("ID Covenant", 18, CovenantListItem::getCovenantId),
+            new Column<>("Titolo", 40, CovenantListItem::getTitle),
+            new Column<>("ID Contratto", 18, item -> item.getContract().getContractId()),
+            new Column<>("Entità Legale", 28, item -> item.getContract().getLegalEntity()),
+            new Column<>("Paese", 14, item -> item.getContract().getCountry()),
+            new Column<>("Articolo", 14, CovenantListItem::getContractArticle),
+            new Column<>("Cure Period", 12, item -> Boolean.TRUE.equals(item.getHasCurePeriod()) ? "Sì" : "No"),
+            new Column<>("Stato", 10, CovenantListItem::getStatus),
+            new Column<>("Ultimo Monitoraggio", 20, CovenantListItem::getLastMonitoringDate));
+
+    private static final List<Column<MonitoringResultListItem>> MONITORING_RESULT_COLUMNS = List.of(
+            new Column<>("Data Monitoraggio", 20, MonitoringResultListItem::getMonitoringDate),
+            new Column<>("ID Covenant", 18, item -> item.getCovenant().getCovenantId()),
+            new Column<>("Covenant", 40, item -> item.getCovenant().getTitle()),
+            new Column<>("ID Contratto", 18, item -> item.getCovenant().getContract().getContractId()),
+            new Column<>("Entità Legale", 28, item -> item.getCovenant().getContract().getLegalEntity()),
+            new Column<>("Paese", 14, item -> item.getCovenant().getContract().getCountry()),
+            new Column<>("Stato", 10, MonitoringResultListItem::getStatus),
+            new Column<>("Note", 50, MonitoringResultListItem::getNotes),
+            new Column<>("Inserito da", 18, item -> item.getCreatedBy().getUsername()));
+
+    private final ContractRepository contractRepository;
+    private final CovenantRepository covenantRepository;
+    private final MonitoringResultRepository monitoringResultRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportService(ContractRepository contractRepository,
+                         CovenantRepository covenantRepository,
+                         MonitoringResultRepository monitoringResultRepository,
+                         ObjectMapper objectMapper) {
+        this.contractRepository = contractRepository;
+        this.covenantRepository = covenantRepository;
+        this.monitoringResultRepository = monitoringResultRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // La transazione (read-only) tiene aperto il cursore: su PostgreSQL il fetch size
+    // viene rispettato solo con autocommit disattivato
+    @Transactional(readOnly = true)
+    public void writeContracts(OutputStream out, String status, String country, String legalEntity) throws IOException {
+        try (Stream<ContractListItem> rows = contractRepository.streamListItems(status, country, legalEntity)) {
+            writeWorkbook(out, "Contratti", CONTRACT_COLUMNS, rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCovenants(OutputStream out, String status, String country, String legalEntity) throws IOException {
+        try (Stream<CovenantListItem> rows = covenantRepository.streamListItems(status, country, legalEntity)) {
+            writeWorkbook(out, "Covenant", COVENANT_COLUMNS, rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeMonitoringResults(OutputStream out, String status, String country, String legalEntity,
+                                       LocalDateTime fromDate, LocalDateTime toDate) throws IOException {
+        try (Stream<MonitoringResultListItem> rows = monitoringResultRepository.streamListItems(status, country,
+                legalEntity, fromDate, toDate)) {
+            writeWorkbook(out, "Monitoraggi", MONITORING_RESULT_COLUMNS, rows);
+        }
+    }
+
+    // Storico completo dei monitoraggi in NDJSON (un oggetto JSON per riga): ogni riga viene
+    // serializzata e scritta appena letta dal cursore, senza mai costruire la lista completa
+    @Transactional(readOnly = true)
+    public long writeMonitoringHistoryNdjson(OutputStream out, LocalDateTime fromDate, LocalDateTime toDate,
+                                             String contractId) throws IOException {
+        long written = 0;
+        // Senza FLUSH_AFTER_WRITE_VALUE (attivo di default) ogni riga svuoterebbe il buffer verso il client
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<MonitoringResultListItem> rows = monitoringResultRepository.streamHistory(fromDate, toDate, contractId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (MonitoringResultListItem item : (Iterable<MonitoringResultListItem>) rows::iterator) {
+                writer.writeValue(generator, item);
+                generator.writeRaw('\n');
+                if (++written % NDJSON_FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+
+    // Le larghezze delle colonne sono fisse: l'auto-size richiederebbe di tenere in memoria tutte le righe
+    <T> void writeWorkbook(OutputStream out, String sheetName, List<Column<T>> columns, Stream<T> rows) throws IOException {
+        writeWorkbook(out, sheetName, columns, rows, MAX_ROWS_PER_SHEET);
+    }
+
+    // Raggiunto il limite di righe i dati proseguono su "<nome> (2)", "<nome> (3)", ... con la stessa intestazione
+    <T> void writeWorkbook(OutputStream out, String sheetName, List<Column<T>> columns, Stream<T> rows,
+                           int maxRowsPerSheet) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+            CellStyle dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+
+            SXSSFSheet[] sheet = {createSheet(workbook, sheetName, columns, headerStyle)};
+            int[] rowIndex = {1};
+            rows.forEach(item -> {
+                if (rowIndex[0] == maxRowsPerSheet) {
+                    String name = sheetName + " (" + (workbook.getNumberOfSheets() + 1) + ")";
+                    sheet[0] = createSheet(workbook, name, columns, headerStyle);
+                    rowIndex[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowIndex[0]++);
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = columns.get(i).extractor.apply(item);
+                    if (value == null) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(i);
+                    if (value instanceof BigDecimal) {
+                        cell.setCellValue(((BigDecimal) value).doubleValue());
+                    } else if (value instanceof LocalDateTime) {
+                        cell.setCellValue((LocalDateTime) value);
+                        cell.setCellStyle(dateTimeStyle);
+                    } else if (value instanceof LocalDate) {
+                        cell.setCellValue((LocalDate) value);
+                        cell.setCellStyle(dateStyle);
+                    } else {
+                        cell.setCellValue(value.toString());
+                    }
+                }
+            });
+
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private <T> SXSSFSheet createSheet(SXSSFWorkbook workbook, String name, List<Column<T>> columns, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(columns.get(i).header);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, columns.get(i).width * 256);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    static class Column<T> {
+
+        private final String header;
+        private final int width;
+        private final Function<T, Object> extractor;
+
+        Column(String header, int width, Function<T, Object> extractor) {
+            this.header = header;
+            this.width = width;
+            this.extractor = extractor;
+        }
+    }
+}
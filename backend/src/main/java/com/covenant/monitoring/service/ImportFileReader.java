@@ -0,0 +1,185 @@
+package com.covenant.monitoring.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Legge un file CSV o XLSX una riga alla volta, senza caricarlo interamente in memoria.
+ * La prima riga contiene i nomi delle colonne.
+ */
+@Component
+public class ImportFileReader {
+
+    public void read(MultipartFile file, Consumer<Row> consumer) throws IOException {
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (filename.endsWith(".csv")) {
+            try (InputStream in = file.getInputStream()) {
+                readCsv(in, consumer);
+            }
+        } else if (filename.endsWith(".xlsx")) {
+            readXlsx(file, consumer);
+        } else {
+            throw new IllegalArgumentException("Formato non supportato: sono accettati solo file .csv e .xlsx");
+        }
+    }
+
+    void readCsv(InputStream in, Consumer<Row> consumer) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        try (CSVParser parser = format.parse(reader)) {
+            // CSVParser legge i record in modo lazy dal Reader; la riga 1 e' l'intestazione
+            long rowNumber = 1;
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                record.toMap().forEach((column, value) -> values.put(column.trim(), value));
+                consumer.accept(new Row(++rowNumber, values));
+            }
+        }
+    }
+
+    // Il pacchetto OOXML viene aperto da file: OPCPackage.open(InputStream) caricherebbe
+    // l'intero zip in memoria. Il foglio viene poi letto con il parser SAX di POI
+    void readXlsx(MultipartFile file, Consumer<Row> consumer) throws IOException {
+        File tempFile = Files.createTempFile("covenant-import-", ".xlsx").toFile();
+        try {
+            file.transferTo(tempFile);
+            try (OPCPackage pkg = OPCPackage.open(tempFile, PackageAccess.READ)) {
+                XSSFReader xssfReader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = xssfReader.getStylesTable();
+                Iterator<InputStream> sheets = xssfReader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                            new SheetRowHandler(consumer), new IsoDateFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("File XLSX non leggibile: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * Riga letta dal file, con i valori indicizzati per nome di colonna.
+     */
+    public static class Row {
+
+        private final long rowNumber;
+        private final Map<String, String> values;
+
+        public Row(long rowNumber, Map<String, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        public long getRowNumber() {
+            return this.rowNumber;
+        }
+
+        public String get(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private static class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<Row> consumer;
+        private final List<String> header = new ArrayList<>();
+        private Map<String, String> current;
+        private boolean headerRow;
+
+        SheetRowHandler(Consumer<Row> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            headerRow = header.isEmpty();
+            current = new HashMap<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headerRow) {
+                return;
+            }
+            if (!current.isEmpty()) {
+                consumer.accept(new Row(rowNum + 1L, current));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (headerRow) {
+                while (header.size() < column) {
+                    header.add("");
+                }
+                header.add(formattedValue.trim());
+            } else if (column < header.size() && formattedValue != null && !formattedValue.isBlank()) {
+                current.put(header.get(column), formattedValue);
+            }
+        }
+    }
+
+    // Le celle data vengono restituite in formato ISO, indipendentemente dal formato del foglio
+    private static class IsoDateFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getJavaDate(value, use1904Windowing).toInstant()
+                        .atZone(ZoneId.systemDefault()).toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
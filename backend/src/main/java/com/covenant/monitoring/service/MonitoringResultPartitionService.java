@@ -0,0 +1,81 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.List;
+
+@Service
+public class MonitoringResultPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoringResultPartitionService.class);
+
+    private final MonitoringResultRepository monitoringResultRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final boolean enabled;
+    private final int quartersAhead;
+    private final int retentionQuarters;
+
+    @Autowired
+    public MonitoringResultPartitionService(MonitoringResultRepository monitoringResultRepository,
+                                            SchedulerLockService schedulerLockService,
+                                            @Value("${monitoring-results.partitioning.enabled:false}") boolean enabled,
+                                            @Value("${monitoring-results.partitioning.quarters-ahead:4}") int quartersAhead,
+                                            @Value("${monitoring-results.partitioning.retention-quarters:0}") int retentionQuarters) {
+        this.monitoringResultRepository = monitoringResultRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.enabled = enabled;
+        this.quartersAhead = quartersAhead;
+        this.retentionQuarters = retentionQuarters;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void maintainPartitionsOnStartup() {
+        maintainPartitions();
+    }
+
+    // Crea in anticipo le partizioni dei prossimi trimestri (cosi' le nuove righe non finiscono
+    // nella partizione di default) e, se configurata una retention, stacca quelle scadute
+    @Scheduled(cron = "${monitoring-results.partitioning.cron:0 0 2 1 * ?}")
+    @Transactional
+    public void maintainPartitions() {
+        // Il DDL delle partizioni gira su un solo nodo: due CREATE/DETACH concorrenti sulla stessa tabella si bloccano
+        if (!enabled || !schedulerLockService.tryAcquire("maintainPartitions")) {
+            return;
+        }
+        LocalDate currentQuarter = quarterStart(LocalDate.now());
+        Integer created = monitoringResultRepository.ensurePartitions(currentQuarter,
+                currentQuarter.plusMonths(3L * quartersAhead));
+        if (created != null && created > 0) {
+            log.info("Create {} nuove partizioni trimestrali di monitoring_results", created);
+        }
+        if (retentionQuarters > 0) {
+            detachPartitionsBefore(currentQuarter.minusMonths(3L * retentionQuarters));
+        }
+    }
+
+    // Le partizioni staccate restano tabelle autonome da archiviare: nessun DELETE sulle righe
+    @Transactional
+    public List<String> detachPartitionsBefore(LocalDate cutoff) {
+        List<String> detached = monitoringResultRepository.detachPartitionsBefore(quarterStart(cutoff));
+        if (!detached.isEmpty()) {
+            log.info("Partizioni di monitoring_results staccate per archiviazione: {}", detached);
+        }
+        return detached;
+    }
+
+    static LocalDate quarterStart(LocalDate date) {
+        return date.with(IsoFields.DAY_OF_QUARTER, 1L);
+    }
+}
@@ -1,13 +1,21 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.CursorPage;
+import com.covenant.monitoring.dto.MonitoringResultListItem;
 import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.model.CovenantLatestResult;
 import com.covenant.monitoring.model.MonitoringResult;
 import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.CovenantLatestResultRepository;
 import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +23,37 @@ import java.util.Optional;
 public class MonitoringResultService {
 
     private final MonitoringResultRepository monitoringResultRepository;
+    private final CovenantLatestResultRepository latestResultRepository;
+    private final CovenantService covenantService;
+    private final UserRepository userRepository;
 
     @Autowired
-    public MonitoringResultService(MonitoringResultRepository monitoringResultRepository) {
+    public MonitoringResultService(MonitoringResultRepository monitoringResultRepository,
+                                   CovenantLatestResultRepository latestResultRepository,
+                                   CovenantService covenantService,
+                                   UserRepository userRepository) {
         this.monitoringResultRepository = monitoringResultRepository;
+        this.latestResultRepository = latestResultRepository;
+        this.covenantService = covenantService;
+        this.userRepository = userRepository;
     }
 
     public List<MonitoringResult> getAllMonitoringResults() {
         return monitoringResultRepository.findAll();
     }
 
+    public List<MonitoringResultListItem> getMonitoringResultListItems() {
+        return monitoringResultRepository.findAllListItems();
+    }
+
+    public CursorPage<MonitoringResultListItem> getMonitoringResultsPage(Long cursor, int size, String status,
+                                                                         String country, String legalEntity,
+                                                                         LocalDateTime fromDate, LocalDateTime toDate) {
+        List<MonitoringResultListItem> rows = monitoringResultRepository.findPage(cursor, status, country, legalEntity,
+                fromDate, toDate, PageRequest.of(0, size + 1));
+        return CursorPage.fromOverfetched(rows, size, MonitoringResultListItem::getId);
+    }
+
     public Optional<MonitoringResult> getMonitoringResultById(Long id) {
         return monitoringResultRepository.findById(id);
     }
@@ -49,15 +78,103 @@ public class MonitoringResultService {
         return monitoringResultRepository.findByCovenant_ContractId(contractId);
     }
 
+    // La data dell'ultimo risultato presa da covenant_latest_results fa da limite inferiore, cosi'
+    // viene letta una sola partizione. Senza riga (covenant mai monitorato o dati non ancora
+    // riallineati) si ripiega sulla ricerca su tutto lo storico
     public List<MonitoringResult> getLatestMonitoringResultForCovenant(Long covenantId) {
+        Optional<CovenantLatestResult> latestResult = latestResultRepository.findById(covenantId);
+        if (latestResult.isPresent()) {
+            List<MonitoringResult> latest = monitoringResultRepository
+                    .findTop1ByCovenant_IdAndMonitoringDateGreaterThanEqualOrderByMonitoringDateDesc(
+                            covenantId, latestResult.get().getMonitoringDate());
+            if (!latest.isEmpty()) {
+                return latest;
+            }
+        }
         return monitoringResultRepository.findTop1ByCovenant_IdOrderByMonitoringDateDesc(covenantId);
     }
 
+    public List<MonitoringResultListItem> getLatestMonitoringResultsForCovenants(Collection<Long> covenantIds) {
+        if (covenantIds.isEmpty()) {
+            return List.of();
+        }
+        return monitoringResultRepository.findLatestListItemsByCovenantIds(covenantIds);
+    }
+
+    // Se il risultato modificato era l'ultimo del suo covenant la riga di covenant_latest_results
+    // va ricalcolata: con la data spostata indietro l'upsert la rifiuterebbe e resterebbe la data vecchia
+    @Transactional
     public MonitoringResult saveMonitoringResult(MonitoringResult monitoringResult) {
-        return monitoringResultRepository.save(monitoringResult);
+        Optional<CovenantLatestResult> latestResult = monitoringResult.getId() != null
+                ? latestResultRepository.findByMonitoringResultId(monitoringResult.getId())
+                : Optional.empty();
+        MonitoringResult savedResult = monitoringResultRepository.save(monitoringResult);
+        if (latestResult.isPresent()) {
+            monitoringResultRepository.flush();
+            recomputeLatest(latestResult.get().getCovenantId());
+        }
+        if (savedResult.getCovenant() != null) {
+            upsertLatest(savedResult.getCovenant().getId(), savedResult);
+        }
+        return savedResult;
+    }
+
+    // L'autore e' indicato per id (dal principal della richiesta): basta un riferimento
+    // per la foreign key created_by, senza leggere l'utente dal database.
+    // Restituisce la proiezione, cosi' l'autore esce come UserRef e non come entita' User
+    @Transactional
+    public MonitoringResultListItem createMonitoringResult(MonitoringResult monitoringResult, Long createdById) {
+        MonitoringResult savedResult = createMonitoringResult(monitoringResult, userRepository.getReferenceById(createdById));
+        return monitoringResultRepository.findListItemById(savedResult.getId())
+                .orElseThrow(() -> new IllegalStateException("Risultato di monitoraggio non trovato: " + savedResult.getId()));
+    }
+
+    // Salva il risultato e aggiorna stato e data di monitoraggio del covenant
+    // (e quindi il rollup della dashboard) nella stessa transazione
+    @Transactional
+    public MonitoringResult createMonitoringResult(MonitoringResult monitoringResult, User createdBy) {
+        monitoringResult.setCreatedBy(createdBy);
+        if (monitoringResult.getMonitoringDate() == null) {
+            monitoringResult.setMonitoringDate(LocalDateTime.now());
+        }
+        covenantService.recordMonitoring(monitoringResult.getCovenant().getId(),
+                monitoringResult.getStatus(), monitoringResult.getMonitoringDate());
+        MonitoringResult savedResult = monitoringResultRepository.save(monitoringResult);
+        upsertLatest(monitoringResult.getCovenant().getId(), savedResult);
+        return savedResult;
     }
 
+    // Se viene cancellato l'ultimo risultato di un covenant, la riga di covenant_latest_results
+    // viene ricalcolata dal precedente
+    @Transactional
     public void deleteMonitoringResult(Long id) {
+        Optional<CovenantLatestResult> latestResult = latestResultRepository.findByMonitoringResultId(id);
         monitoringResultRepository.deleteById(id);
+        if (latestResult.isPresent()) {
+            monitoringResultRepository.flush();
+            recomputeLatest(latestResult.get().getCovenantId());
+        }
+    }
+
+    private void recomputeLatest(Long covenantId) {
+        latestResultRepository.deleteById(covenantId);
+        latestResultRepository.flush();
+        monitoringResultRepository.findTop1ByCovenant_IdOrderByMonitoringDateDesc(covenantId).stream()
+                .findFirst()
+                .ifPresent(latest -> upsertLatest(covenantId, latest));
+    }
+
+    // UPDATE condizionato sulla data; se la riga del covenant manca viene inserita. Se nel frattempo
+    // l'ha inserita un'altra transazione si ripete l'UPDATE, che resta condizionato sulla data
+    private void upsertLatest(Long covenantId, MonitoringResult result) {
+        if (latestResultRepository.updateIfNewer(covenantId, result.getId(), result.getMonitoringDate(),
+                result.getStatus()) > 0) {
+            return;
+        }
+        if (latestResultRepository.insertIfAbsent(covenantId, result.getId(), result.getMonitoringDate(),
+                result.getStatus()) > 0) {
+            return;
+        }
+        latestResultRepository.updateIfNewer(covenantId, result.getId(), result.getMonitoringDate(), result.getStatus());
     }
 }
@@ -0,0 +1,226 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.NotificationView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Canale Server-Sent Events delle notifiche: invia ai client connessi le nuove notifiche
+ * e le variazioni del numero di non lette, al posto del polling di /unread e /count-unread.
+ * Le connessioni sono gestite dal supporto asincrono del servlet container: una connessione
+ * inattiva non occupa un thread di Tomcat. Gli invii avvengono dopo il commit e raggiungono
+ * solo i client connessi a questo nodo; gli altri si riallineano alla riconnessione.
+ * Le scritture passano dal pool notificationPushExecutor, in ordine per ciascuna connessione:
+ * un client lento non blocca il thread dello scheduler ne' quello della richiesta.
+ */
+@Service
+public class NotificationPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    // Attesa suggerita al browser prima di riconnettersi (campo retry dello stream)
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    // Eventi in attesa oltre i quali il client e' considerato troppo lento e la connessione viene chiusa
+    static final int MAX_PENDING_EVENTS = 100;
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final long timeout;
+    private final Executor pushExecutor;
+
+    @Autowired
+    public NotificationPushService(@Value("${notifications.sse.timeout:1800000}") long timeout,
+                                   MeterRegistry meterRegistry,
+                                   @Qualifier("notificationPushExecutor") Executor pushExecutor) {
+        this.timeout = timeout;
+        this.pushExecutor = pushExecutor;
+        Gauge.builder("notifications.sse.connections", this, NotificationPushService::getConnectionCount)
+                .description("Client connessi al canale SSE delle notifiche")
+                .register(meterRegistry);
+    }
+
+    // Il conteggio iniziale viene inviato subito, cosi' il client non deve chiamare count-unread
+    public SseEmitter subscribe(Long userId, Collection<String> roles, LongSupplier unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscription subscription = new Subscription(userId, roles, emitter, unreadCount);
+        subscriptions.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        send(subscription, SseEmitter.event()
+                .reconnectTime(RECONNECT_DELAY_MILLIS)
+                .name(UNREAD_COUNT_EVENT)
+                .data(unreadCount.getAsLong()));
+        return emitter;
+    }
+
+    public void publish(Long userId, NotificationView notification) {
+        AfterCommit.run(() -> subscriptionsOf(userId).forEach(s -> enqueue(s, () -> sendNotification(s, notification))));
+    }
+
+    public void publishToRoles(Collection<String> roleNames, NotificationView notification) {
+        AfterCommit.run(() -> forEachWithRole(roleNames, s -> enqueue(s, () -> sendNotification(s, notification))));
+    }
+
+    public void publishUnreadCount(Long userId) {
+        AfterCommit.run(() -> subscriptionsOf(userId).forEach(s -> enqueue(s, () -> sendUnreadCount(s))));
+    }
+
+    public void publishUnreadCounts(Collection<Long> userIds) {
+        AfterCommit.run(() -> userIds.forEach(userId ->
+                subscriptionsOf(userId).forEach(s -> enqueue(s, () -> sendUnreadCount(s)))));
+    }
+
+    public void publishUnreadCountsForRoles(Collection<String> roleNames) {
+        AfterCommit.run(() -> forEachWithRole(roleNames, s -> enqueue(s, () -> sendUnreadCount(s))));
+    }
+
+    // Commento SSE periodico: tiene aperta la connessione attraverso proxy e load balancer
+    // e fa emergere i client disconnessi, che vengono rimossi al primo invio fallito
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-interval:25000}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(set -> set.forEach(s ->
+                enqueue(s, () -> send(s, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    public int getConnectionCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void sendNotification(Subscription subscription, NotificationView notification) {
+        if (send(subscription, SseEmitter.event().id(String.valueOf(notification.getId()))
+                .name(NOTIFICATION_EVENT).data(notification))) {
+            sendUnreadCount(subscription);
+        }
+    }
+
+    private void sendUnreadCount(Subscription subscription) {
+        send(subscription, SseEmitter.event().name(UNREAD_COUNT_EVENT).data(subscription.unreadCount.getAsLong()));
+    }
+
+    private void forEachWithRole(Collection<String> roleNames, Consumer<Subscription> action) {
+        subscriptions.values().forEach(set -> set.forEach(s -> {
+            if (!Collections.disjoint(s.roles, roleNames)) {
+                action.accept(s);
+            }
+        }));
+    }
+
+    // Gli eventi di una connessione vengono accodati e scritti da un solo thread del pool alla volta,
+    // cosi' restano in ordine (il conteggio dei non letti non puo' arrivare prima della notifica)
+    private void enqueue(Subscription subscription, Runnable send) {
+        if (subscription.pending.incrementAndGet() > MAX_PENDING_EVENTS) {
+            log.debug("Client SSE troppo lento per l'utente {}: connessione chiusa", subscription.userId);
+            close(subscription);
+            return;
+        }
+        subscription.events.add(send);
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException e) {
+            // Pool saturo: gli eventi della connessione vengono scartati, il client si riallinea alla riconnessione
+            subscription.draining.set(false);
+            log.warn("Coda degli invii SSE piena: connessione dell'utente {} chiusa", subscription.userId);
+            close(subscription);
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        Runnable send;
+        while ((send = subscription.events.poll()) != null) {
+            subscription.pending.decrementAndGet();
+            send.run();
+        }
+        subscription.draining.set(false);
+        // Evento accodato tra l'ultimo poll e il rilascio del flag
+        if (!subscription.events.isEmpty()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        remove(subscription);
+        subscription.events.clear();
+        subscription.pending.set(0);
+        subscription.emitter.complete();
+    }
+
+    private Set<Subscription> subscriptionsOf(Long userId) {
+        return subscriptions.getOrDefault(userId, Collections.emptySet());
+    }
+
+    private boolean send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter.send(event);
+            return true;
+        } catch (IOException e) {
+            // Client disconnesso: la connessione asincrona viene chiusa lato server
+            log.debug("Connessione SSE chiusa per l'utente {}: {}", subscription.userId, e.getMessage());
+            remove(subscription);
+            subscription.emitter.completeWithError(e);
+            return false;
+        } catch (IllegalStateException e) {
+            // Emitter gia' completato (timeout o chiusura concorrente)
+            remove(subscription);
+            return false;
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (userId, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Subscription {
+
+        private final Long userId;
+        private final Set<String> roles;
+        private final SseEmitter emitter;
+        private final LongSupplier unreadCount;
+        private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(Long userId, Collection<String> roles, SseEmitter emitter, LongSupplier unreadCount) {
+            this.userId = userId;
+            this.roles = Set.copyOf(roles);
+            this.emitter = emitter;
+            this.unreadCount = unreadCount;
+        }
+    }
+}
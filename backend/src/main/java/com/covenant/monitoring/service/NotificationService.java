@@ -1,22 +1,60 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.NotificationView;
+import com.covenant.monitoring.model.BroadcastNotification;
+import com.covenant.monitoring.model.BroadcastReceipt;
 import com.covenant.monitoring.model.Notification;
 import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.BroadcastNotificationRepository;
+import com.covenant.monitoring.repository.BroadcastReceiptRepository;
 import com.covenant.monitoring.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class NotificationService {
 
+    // Righe per batch JDBC (con reWriteBatchedInserts diventano INSERT multi-riga)
+    private static final int FAN_OUT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (id, user_id, title, message, is_read, created_at) " +
+            "VALUES (nextval('notifications_seq'), ?, ?, ?, FALSE, ?)";
+
+    private static final Comparator<NotificationView> NEWEST_FIRST = Comparator.comparing(NotificationView::getCreatedAt,
+            Comparator.nullsLast(Comparator.reverseOrder()));
+
     private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final BroadcastReceiptRepository broadcastReceiptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationPushService pushService;
 
     @Autowired
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               BroadcastNotificationRepository broadcastNotificationRepository,
+                               BroadcastReceiptRepository broadcastReceiptRepository,
+                               JdbcTemplate jdbcTemplate,
+                               UnreadNotificationCounter unreadCounter,
+                               NotificationPushService pushService) {
         this.notificationRepository = notificationRepository;
+        this.broadcastNotificationRepository = broadcastNotificationRepository;
+        this.broadcastReceiptRepository = broadcastReceiptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadCounter = unreadCounter;
+        this.pushService = pushService;
     }
 
     public List<Notification> getAllNotifications() {
@@ -39,6 +77,147 @@ public class NotificationService {
         return notificationRepository.countByUserAndIsRead(user, false);
     }
 
+    public List<Notification> getNotificationsByUserId(Long userId) {
+        return notificationRepository.findByUserId(userId);
+    }
+
+    public List<Notification> getUnreadNotificationsByUserId(Long userId) {
+        return notificationRepository.findByUserIdAndIsRead(userId, false);
+    }
+
+    public Long countUnreadNotificationsByUserId(Long userId) {
+        return notificationRepository.countByUserIdAndIsRead(userId, false);
+    }
+
+    // Notifiche dirette e broadcast dell'utente, dalla piu' recente. I broadcast sono risolti
+    // con i ruoli del principal: una query per tipologia, indipendente dal numero di utenti
+    public List<NotificationView> getNotificationViews(Long userId, Collection<String> roles) {
+        List<NotificationView> views = new ArrayList<>(notificationRepository.findViewsByUserId(userId));
+        if (!roles.isEmpty()) {
+            views.addAll(broadcastNotificationRepository.findViewsForUser(userId, roles));
+        }
+        views.sort(NEWEST_FIRST);
+        return views;
+    }
+
+    public List<NotificationView> getUnreadNotificationViews(Long userId, Collection<String> roles) {
+        List<NotificationView> views = new ArrayList<>(notificationRepository.findUnreadViewsByUserId(userId));
+        if (!roles.isEmpty()) {
+            views.addAll(broadcastNotificationRepository.findUnreadViewsForUser(userId, roles));
+        }
+        views.sort(NEWEST_FIRST);
+        return views;
+    }
+
+    // Servito dal contatore in memoria; il database viene interrogato solo se l'utente non e' in cache
+    public long countUnreadNotifications(Long userId, Collection<String> roles) {
+        return unreadCounter.get(userId, roles, () -> loadUnreadCount(userId, roles));
+    }
+
+    private long loadUnreadCount(Long userId, Collection<String> roles) {
+        long direct = notificationRepository.countByUserIdAndIsRead(userId, false);
+        return roles.isEmpty() ? direct : direct + broadcastNotificationRepository.countUnreadForUser(userId, roles);
+    }
+
+    // L'id puo' indicare una notifica diretta dell'utente o un broadcast indirizzato ai suoi ruoli
+    // (stessa sequence, nessuna sovrapposizione). Per i broadcast viene scritta solo la ricevuta
+    @Transactional
+    public Optional<NotificationView> markAsReadForUser(Long id, Long userId, Collection<String> roles) {
+        if (isOwnedBy(id, userId)) {
+            Notification n = markAsRead(id);
+            return Optional.of(new NotificationView(n.getId(), n.getTitle(), n.getMessage(), n.getIsRead(),
+                    n.getCreatedAt(), false));
+        }
+        if (!roles.isEmpty() && broadcastNotificationRepository.isAddressedTo(id, roles)) {
+            if (isBroadcastUnread(id, userId)) {
+                unreadCounter.decrement(userId);
+                pushService.publishUnreadCount(userId);
+            }
+            markBroadcastRead(id, userId);
+            return broadcastNotificationRepository.findById(id)
+                    .map(b -> new NotificationView(b.getId(), b.getTitle(), b.getMessage(), true, b.getCreatedAt(), true));
+        }
+        return Optional.empty();
+    }
+
+    @Transactional
+    public boolean deleteForUser(Long id, Long userId, Collection<String> roles) {
+        if (isOwnedBy(id, userId)) {
+            if (notificationRepository.existsByIdAndUserIdAndIsRead(id, userId, false)) {
+                unreadCounter.decrement(userId);
+                pushService.publishUnreadCount(userId);
+            }
+            deleteNotification(id);
+            return true;
+        }
+        if (!roles.isEmpty() && broadcastNotificationRepository.isAddressedTo(id, roles)) {
+            if (isBroadcastUnread(id, userId)) {
+                unreadCounter.decrement(userId);
+                pushService.publishUnreadCount(userId);
+            }
+            markBroadcastDeleted(id, userId);
+            return true;
+        }
+        return false;
+    }
+
+    // Prima l'UPDATE; se la ricevuta manca viene inserita. Se un'altra richiesta l'ha inserita
+    // nel frattempo l'insert non fa nulla e l'UPDATE viene ripetuto
+    private void markBroadcastRead(Long broadcastId, Long userId) {
+        if (broadcastReceiptRepository.setRead(broadcastId, userId) == 0
+                && broadcastReceiptRepository.insertRead(broadcastId, userId) == 0) {
+            broadcastReceiptRepository.setRead(broadcastId, userId);
+        }
+    }
+
+    private void markBroadcastDeleted(Long broadcastId, Long userId) {
+        if (broadcastReceiptRepository.setDeleted(broadcastId, userId) == 0
+                && broadcastReceiptRepository.insertDeleted(broadcastId, userId) == 0) {
+            broadcastReceiptRepository.setDeleted(broadcastId, userId);
+        }
+    }
+
+    private boolean isBroadcastUnread(Long broadcastId, Long userId) {
+        return broadcastReceiptRepository.findById(new BroadcastReceipt.Key(broadcastId, userId))
+                .map(receipt -> !receipt.getIsRead() && !receipt.getIsDeleted())
+                .orElse(true);
+    }
+
+    // Un solo messaggio per tutti gli utenti con almeno uno dei ruoli: il costo di scrittura
+    // non dipende dal numero di destinatari
+    @Transactional
+    public BroadcastNotification broadcast(Collection<String> roleNames, String title, String message) {
+        BroadcastNotification broadcast = new BroadcastNotification();
+        broadcast.setTitle(title);
+        broadcast.setMessage(message);
+        broadcast.setTargetRoles(new HashSet<>(roleNames));
+        BroadcastNotification saved = broadcastNotificationRepository.save(broadcast);
+        unreadCounter.incrementForRoles(roleNames);
+        pushService.publishToRoles(roleNames, new NotificationView(saved.getId(), saved.getTitle(), saved.getMessage(),
+                false, saved.getCreatedAt(), true));
+        return saved;
+    }
+
+    // Elimina i broadcast creati prima del limite insieme alle loro ricevute. I contatori in memoria
+    // si riallineano al successivo reconcile
+    @Transactional
+    public int purgeBroadcastsBefore(LocalDateTime cutoff) {
+        List<BroadcastNotification> expired = broadcastNotificationRepository.findByCreatedAtBefore(cutoff);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(expired.size());
+        expired.forEach(broadcast -> ids.add(broadcast.getId()));
+        broadcastReceiptRepository.deleteByBroadcastIdIn(ids);
+        broadcastNotificationRepository.deleteAll(expired);
+        return expired.size();
+    }
+
+    // Verifica di appartenenza con una sola query, senza caricare notifica e utente
+    public boolean isOwnedBy(Long notificationId, Long userId) {
+        return notificationRepository.existsByIdAndUserId(notificationId, userId);
+    }
+
     public Notification saveNotification(Notification notification) {
         return notificationRepository.save(notification);
     }
@@ -47,6 +226,10 @@ public class NotificationService {
         Optional<Notification> notification = notificationRepository.findById(id);
         if (notification.isPresent()) {
             Notification n = notification.get();
+            if (!Boolean.TRUE.equals(n.getIsRead()) && n.getUser() != null) {
+                unreadCounter.decrement(n.getUser().getId());
+                pushService.publishUnreadCount(n.getUser().getId());
+            }
             n.setIsRead(true);
             return notificationRepository.save(n);
         }
@@ -57,12 +240,48 @@ public class NotificationService {
         notificationRepository.deleteById(id);
     }
 
+    // Singolo destinatario; per piu' destinatari usare createNotifications o createNotificationsForRoles
+    @Transactional
     public void createNotification(User user, String title, String message) {
         Notification notification = new Notification();
         notification.setUser(user);
         notification.setTitle(title);
         notification.setMessage(message);
         notification.setIsRead(false);
-        notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.increment(user.getId());
+        // Il contatore viene aggiornato prima dell'invio: il client riceve gia' il nuovo conteggio
+        pushService.publish(user.getId(), new NotificationView(saved.getId(), saved.getTitle(), saved.getMessage(),
+                false, saved.getCreatedAt(), false));
+    }
+
+    // Stessa notifica per un insieme di destinatari indicati per id: insert JDBC a batch
+    // in un'unica transazione, senza caricare gli utenti ne' passare dal persistence context
+    @Transactional
+    public int createNotifications(Collection<Long> userIds, String title, String message) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> recipients = new ArrayList<>(new HashSet<>(userIds));
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, recipients, FAN_OUT_BATCH_SIZE, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, title);
+            ps.setString(3, message);
+            ps.setTimestamp(4, createdAt);
+        });
+        recipients.forEach(unreadCounter::increment);
+        pushService.publishUnreadCounts(recipients);
+        return recipients.size();
+    }
+
+    // Stessa notifica per tutti gli utenti con almeno uno dei ruoli: un solo INSERT ... SELECT
+    // risolto interamente nel database
+    @Transactional
+    public int createNotificationsForRoles(Collection<String> roleNames, String title, String message) {
+        int created = notificationRepository.insertForRoles(roleNames, title, message);
+        unreadCounter.incrementForRoles(roleNames);
+        pushService.publishUnreadCountsForRoles(roleNames);
+        return created;
     }
 }
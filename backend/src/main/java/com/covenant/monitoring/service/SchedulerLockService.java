@@ -0,0 +1,129 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.repository.SchedulerLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lock dei job schedulati su tabella (scheduler_locks), per eseguire ogni job su un solo nodo
+ * per trigger quando il backend gira su piu' istanze.
+ * Il lock e' un lease: scade dopo lock-at-most-for anche se il nodo che lo tiene si ferma,
+ * cosi' un altro nodo lo riprende al trigger successivo. Al termine del job il lease viene
+ * accorciato ma mai sotto lock-at-least-for, che assorbe le piccole differenze di orologio
+ * tra nodi che scattano sullo stesso cron.
+ * Presa e rilascio avvengono in transazioni separate (REQUIRES_NEW), gia' committate quando
+ * il job gira.
+ */
+@Service
+public class SchedulerLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerLockService.class);
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate requiresNew;
+    private final String nodeId;
+    private final Duration lockAtMostFor;
+    private final Duration lockAtLeastFor;
+
+    @Autowired
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${scheduler.lock.node-id:}") String nodeId,
+                                @Value("${scheduler.lock.lock-at-most-for:30m}") Duration lockAtMostFor,
+                                @Value("${scheduler.lock.lock-at-least-for:1m}") Duration lockAtLeastFor) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.lockAtMostFor = lockAtMostFor;
+        this.lockAtLeastFor = lockAtLeastFor;
+    }
+
+    // Per i job @Transactional: il lock viene rilasciato dopo il commit (o il rollback) del job
+    public boolean tryAcquire(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("tryAcquire richiede una transazione attiva: usare runLocked");
+        }
+        LocalDateTime lockedAt = acquire(name);
+        if (lockedAt == null) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(name, lockedAt);
+            }
+        });
+        return true;
+    }
+
+    // Per i job senza transazione: esegue il task solo se il lock e' libero
+    public boolean runLocked(String name, Runnable task) {
+        LocalDateTime lockedAt = acquire(name);
+        if (lockedAt == null) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(name, lockedAt);
+        }
+        return true;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    // Restituisce l'istante di presa del lock, oppure null se il lock e' di un altro nodo
+    private LocalDateTime acquire(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(lockAtMostFor);
+        Integer acquired = requiresNew.execute(status -> {
+            int updated = schedulerLockRepository.acquireExpired(name, nodeId, now, lockedUntil);
+            return updated > 0 ? updated : schedulerLockRepository.insertIfAbsent(name, nodeId, now, lockedUntil);
+        });
+        if (acquired == null || acquired == 0) {
+            log.debug("Job {} gia' in esecuzione su un altro nodo, trigger ignorato", name);
+            return null;
+        }
+        log.debug("Lock del job {} preso dal nodo {}", name, nodeId);
+        return now;
+    }
+
+    private void release(String name, LocalDateTime lockedAt) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minimum = lockedAt.plus(lockAtLeastFor);
+        LocalDateTime lockedUntil = now.isAfter(minimum) ? now : minimum;
+        try {
+            requiresNew.executeWithoutResult(status -> schedulerLockRepository.release(name, nodeId, lockedUntil));
+        } catch (RuntimeException e) {
+            // Il lease scade comunque dopo lock-at-most-for
+            log.warn("Rilascio del lock del job {} non riuscito: {}", name, e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,124 +1,135 @@
 package com.covenant.monitoring.service;
 
-import com.covenant.monitoring.model.Covenant;
-import com.covenant.monitoring.model.Notification;
-import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.model.BroadcastNotification;
 import com.covenant.monitoring.repository.CovenantRepository;
-import com.covenant.monitoring.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class SchedulerService {
 
+    private static final List<String> FINANCE_ROLES = List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY");
+
+    private static final List<String> FINANCE_AND_ADMIN_ROLES = List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY",
+            "ROLE_ADMIN_HOLDING", "ROLE_ADMIN_COUNTRY");
+
+    private static final List<String> ALL_OPERATIONAL_ROLES = List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY",
+            "ROLE_ADMIN_HOLDING", "ROLE_ADMIN_COUNTRY", "ROLE_LEGAL_HOLDING", "ROLE_LEGAL_COUNTRY");
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerService.class);
+
     private final CovenantRepository covenantRepository;
-    private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final EmailOutboxService emailOutboxService;
+    private final SchedulerLockService schedulerLockService;
+    private final boolean emailEnabled;
+    private final Duration broadcastRetention;
 
     @Autowired
     public SchedulerService(CovenantRepository covenantRepository, 
-                           UserRepository userRepository,
-                           NotificationService notificationService) {
+                           NotificationService notificationService,
+                           EmailOutboxService emailOutboxService,
+                           SchedulerLockService schedulerLockService,
+                           @Value("${notifications.email.enabled:false}") boolean emailEnabled,
+                           @Value("${notifications.broadcast.retention:90d}") Duration broadcastRetention) {
         this.covenantRepository = covenantRepository;
-        this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.emailOutboxService = emailOutboxService;
+        this.schedulerLockService = schedulerLockService;
+        this.emailEnabled = emailEnabled;
+        this.broadcastRetention = broadcastRetention;
     }
 
     // Esegue ogni giorno alle 9:00
     @Scheduled(cron = "0 0 9 * * ?")
+    @Transactional
     public void sendMonitoringReminders() {
-        // Trova i covenant che non sono stati monitorati negli ultimi 3 mesi
-        LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-        List<Covenant> dueCovenants = covenantRepository.findByLastMonitoringDateBefore(threeMonthsAgo);
+        // Con piu' istanze il job gira solo sul nodo che prende il lock
+        if (!schedulerLockService.tryAcquire("sendMonitoringReminders")) {
+            return;
+        }
+        // Conta i covenant con il monitoraggio scaduto secondo la propria frequenza
+        long dueCovenants = covenantRepository.countByNextDueDateLessThanEqual(LocalDateTime.now());
         
-        if (!dueCovenants.isEmpty()) {
-            // Trova gli utenti con ruolo Finance per inviare le notifiche
-            List<User> financeUsers = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().stream()
-                    .anyMatch(role -> role.getName().equals("ROLE_FINANCE_HOLDING") || 
-                              role.getName().equals("ROLE_FINANCE_COUNTRY")))
-                .toList();
-            
-            for (User user : financeUsers) {
-                notificationService.createNotification(
-                    user,
-                    "Promemoria Monitoraggio Covenant",
-                    "Ci sono " + dueCovenants.size() + " covenant che richiedono monitoraggio."
-                );
-            }
+        if (dueCovenants > 0) {
+            // Notifica gli utenti con ruolo Finance
+            notifyRoles(FINANCE_ROLES,
+                "Promemoria Monitoraggio Covenant",
+                "Ci sono " + dueCovenants + " covenant che richiedono monitoraggio."
+            );
         }
     }
 
     // Esegue 5 giorni dopo la fine di ogni trimestre
     @Scheduled(cron = "0 0 9 5 1,4,7,10 ?")
+    @Transactional
     public void sendQuarterlyMonitoringReminders() {
-        // Trova tutti gli utenti con ruolo Finance per inviare le notifiche
-        List<User> financeUsers = userRepository.findAll().stream()
-            .filter(user -> user.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("ROLE_FINANCE_HOLDING") || 
-                          role.getName().equals("ROLE_FINANCE_COUNTRY")))
-            .toList();
-        
-        for (User user : financeUsers) {
-            notificationService.createNotification(
-                user,
-                "Monitoraggio Trimestrale Covenant",
-                "È necessario completare il monitoraggio trimestrale dei covenant entro 5 giorni."
-            );
+        if (!schedulerLockService.tryAcquire("sendQuarterlyMonitoringReminders")) {
+            return;
         }
+        // Notifica tutti gli utenti con ruolo Finance
+        notifyRoles(FINANCE_ROLES,
+            "Monitoraggio Trimestrale Covenant",
+            "È necessario completare il monitoraggio trimestrale dei covenant entro 5 giorni."
+        );
     }
 
     // Esegue ogni giorno alle 10:00 per inviare reminder per i covenant non monitorati
     @Scheduled(cron = "0 0 10 * * ?")
+    @Transactional
     public void sendReminderForUnmonitoredCovenants() {
-        // Trova i covenant con status "GIALLO" che potrebbero non essere rispettati nei prossimi 12 mesi
-        List<Covenant> yellowCovenants = covenantRepository.findByStatus("GIALLO");
+        if (!schedulerLockService.tryAcquire("sendReminderForUnmonitoredCovenants")) {
+            return;
+        }
+        // Conta i covenant con status "GIALLO" che potrebbero non essere rispettati nei prossimi 12 mesi
+        long yellowCovenants = covenantRepository.countByStatus("GIALLO");
         
-        if (!yellowCovenants.isEmpty()) {
-            // Trova gli utenti con ruolo Finance e Admin per inviare le notifiche
-            List<User> users = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().stream()
-                    .anyMatch(role -> role.getName().equals("ROLE_FINANCE_HOLDING") || 
-                              role.getName().equals("ROLE_FINANCE_COUNTRY") ||
-                              role.getName().equals("ROLE_ADMIN_HOLDING") ||
-                              role.getName().equals("ROLE_ADMIN_COUNTRY")))
-                .toList();
-            
-            for (User user : users) {
-                notificationService.createNotification(
-                    user,
-                    "Covenant a Rischio",
-                    "Ci sono " + yellowCovenants.size() + " covenant con status GIALLO che potrebbero non essere rispettati nei prossimi 12 mesi."
-                );
-            }
+        if (yellowCovenants > 0) {
+            // Notifica gli utenti con ruolo Finance e Admin
+            notifyRoles(FINANCE_AND_ADMIN_ROLES,
+                "Covenant a Rischio",
+                "Ci sono " + yellowCovenants + " covenant con status GIALLO che potrebbero non essere rispettati nei prossimi 12 mesi."
+            );
         }
         
-        // Trova i covenant con status "ROSSO" che non sono rispettati
-        List<Covenant> redCovenants = covenantRepository.findByStatus("ROSSO");
+        // Conta i covenant con status "ROSSO" che non sono rispettati
+        long redCovenants = covenantRepository.countByStatus("ROSSO");
         
-        if (!redCovenants.isEmpty()) {
-            // Trova tutti gli utenti con ruoli rilevanti per inviare le notifiche
-            List<User> users = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().stream()
-                    .anyMatch(role -> role.getName().equals("ROLE_FINANCE_HOLDING") || 
-                              role.getName().equals("ROLE_FINANCE_COUNTRY") ||
-                              role.getName().equals("ROLE_ADMIN_HOLDING") ||
-                              role.getName().equals("ROLE_ADMIN_COUNTRY") ||
-                              role.getName().equals("ROLE_LEGAL_HOLDING") ||
-                              role.getName().equals("ROLE_LEGAL_COUNTRY")))
-                .toList();
-            
-            for (User user : users) {
-                notificationService.createNotification(
-                    user,
-                    "URGENTE: Covenant non Rispettati",
-                    "Ci sono " + redCovenants.size() + " covenant con status ROSSO che non sono rispettati. È necessaria un'azione immediata."
-                );
-            }
+        if (redCovenants > 0) {
+            // Notifica tutti gli utenti con ruoli rilevanti
+            notifyRoles(ALL_OPERATIONAL_ROLES,
+                "URGENTE: Covenant non Rispettati",
+                "Ci sono " + redCovenants + " covenant con status ROSSO che non sono rispettati. È necessaria un'azione immediata."
+            );
+        }
+    }
+
+    // Ogni notte elimina i broadcast oltre la retention: chi riceve un nuovo ruolo non eredita
+    // tutto lo storico come non letto. La cancellazione e' idempotente, non serve il lock
+    @Scheduled(cron = "${notifications.broadcast.purge-cron:0 45 3 * * ?}")
+    public void purgeExpiredBroadcasts() {
+        int deleted = notificationService.purgeBroadcastsBefore(LocalDateTime.now().minus(broadcastRetention));
+        log.info("Eliminati {} broadcast oltre la retention", deleted);
+    }
+
+    // Promemoria identici per tutti gli utenti dei ruoli: un solo messaggio broadcast,
+    // invece di una copia per utente. Le email vengono solo accodate nella stessa transazione:
+    // l'invio SMTP avviene in background
+    private void notifyRoles(List<String> roleNames, String title, String message) {
+        BroadcastNotification broadcast = notificationService.broadcast(roleNames, title, message);
+        log.debug("Notifica broadcast {} \"{}\" per i ruoli {}", broadcast.getId(), title, roleNames);
+        if (emailEnabled) {
+            int queued = emailOutboxService.enqueueForRoles(roleNames, title, message);
+            log.debug("{} email accodate per i ruoli {}", queued, roleNames);
         }
     }
 }
@@ -0,0 +1,79 @@
+package com.covenant.monitoring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Contatori in memoria delle notifiche non lette (dirette + broadcast) per utente, usati
+ * dall'endpoint count-unread interrogato a polling dalla navbar.
+ * Le variazioni vengono applicate solo dopo il commit e solo agli utenti gia' in cache;
+ * un utente assente viene ricaricato dal database alla prima richiesta. La scadenza dopo
+ * la scrittura riallinea periodicamente i contatori (anche con modifiche fatte da altri nodi).
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final Cache<Long, Counter> counters;
+
+    @Autowired
+    public UnreadNotificationCounter(@Value("${notifications.unread-counters.max-size:50000}") long maxSize,
+                                     @Value("${notifications.unread-counters.reconcile-interval:5m}") Duration reconcileInterval) {
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(reconcileInterval)
+                .build();
+    }
+
+    public long get(Long userId, Collection<String> roles, LongSupplier loader) {
+        return counters.get(userId, key -> new Counter(roles, loader.getAsLong())).value.get();
+    }
+
+    public void increment(Long userId) {
+        AfterCommit.run(() -> adjust(userId, 1));
+    }
+
+    public void decrement(Long userId) {
+        AfterCommit.run(() -> adjust(userId, -1));
+    }
+
+    // Nuovo messaggio per un insieme di ruoli: incrementa gli utenti in cache che ne hanno almeno uno
+    public void incrementForRoles(Collection<String> roleNames) {
+        AfterCommit.run(() -> counters.asMap().values().forEach(counter -> {
+            if (!Collections.disjoint(counter.roles, roleNames)) {
+                counter.value.incrementAndGet();
+            }
+        }));
+    }
+
+    public void evict(Long userId) {
+        AfterCommit.run(() -> counters.invalidate(userId));
+    }
+
+    private void adjust(Long userId, long delta) {
+        Counter counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.value.updateAndGet(current -> Math.max(0, current + delta));
+        }
+    }
+
+    private static final class Counter {
+
+        private final Set<String> roles;
+        private final AtomicLong value;
+
+        Counter(Collection<String> roles, long value) {
+            this.roles = Set.copyOf(roles);
+            this.value = new AtomicLong(value);
+        }
+    }
+}
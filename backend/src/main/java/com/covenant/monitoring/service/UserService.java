@@ -2,6 +2,8 @@ package com.covenant.monitoring.service;
 
 import com.covenant.monitoring.model.User;
 import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.security.JwtUserDetailsService;
+import com.covenant.monitoring.security.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -14,11 +16,19 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       JwtUserDetailsService userDetailsService, TokenRevocationService tokenRevocationService,
+                       UnreadNotificationCounter unreadNotificationCounter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.unreadNotificationCounter = unreadNotificationCounter;
     }
 
     public List<User> getAllUsers() {
@@ -50,10 +60,23 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        boolean existingUser = user.getId() != null;
+        User savedUser = userRepository.save(user);
+        // Invalida la cache di autenticazione dopo il salvataggio (ruoli, password, abilitazione)
+        userDetailsService.evictUser(savedUser.getId(), savedUser.getUsername());
+        // In modalita' stateless i token gia' emessi contengono i vecchi ruoli: vanno revocati.
+        // Il conteggio dei non letti in cache include i broadcast dei vecchi ruoli: viene ricaricato
+        if (existingUser) {
+            tokenRevocationService.revokeUser(savedUser.getId());
+            unreadNotificationCounter.evict(savedUser.getId());
+        }
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userDetailsService.evictUser(id, null);
+        tokenRevocationService.revokeUser(id);
+        unreadNotificationCounter.evict(id);
     }
 }
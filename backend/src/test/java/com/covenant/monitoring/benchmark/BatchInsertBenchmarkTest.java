@@ -0,0 +1,209 @@
+package com.covenant.monitoring.benchmark;
+
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.model.MonitoringResult;
+import com.covenant.monitoring.model.Notification;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.NotificationRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misura i round trip verso il database per 100k inserimenti con id da sequence
+ * (optimizer pooled) e batch JDBC, confrontati con lo stesso inserimento senza batch.
+ * La baseline senza batch equivale al comportamento con IDENTITY, che disattiva il batch
+ * e costa un round trip per riga. Statement e righe/s di entrambi i modi vengono
+ * pubblicati nel report del test.
+ * Eseguire con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BatchInsertBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Covenant covenant;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("benchmark");
+        user.setPassword("$2a$10$hash");
+        user.setEmail("benchmark@example.com");
+        user.setFirstName("Mario");
+        user.setLastName("Rossi");
+        user = userRepository.save(user);
+
+        Contract contract = new Contract();
+        contract.setContractId("CTR-BENCH");
+        contract.setLegalEntity("Enel Green Power");
+        contract.setCountry("Italia");
+        contract.setContractType("Finanziamento");
+        contract.setAmount(BigDecimal.valueOf(1000000));
+        contract.setCurrency("EUR");
+        contract.setCounterparty("Banca");
+        contract.setStatus("ATTIVO");
+        contract.setStartDate(LocalDate.now());
+        contract.setEndDate(LocalDate.now().plusYears(5));
+        contract = contractRepository.save(contract);
+
+        covenant = new Covenant();
+        covenant.setContract(contract);
+        covenant.setCovenantId("COV-BENCH");
+        covenant.setTitle("Debt Service Coverage Ratio");
+        covenant.setStatus("VERDE");
+        covenant = covenantRepository.save(covenant);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tearDownRows();
+        covenantRepository.deleteAll();
+        contractRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void insertNotifications_shouldUseBatchedRoundTrips(TestReporter reporter) {
+        compare(reporter, "notifications", i -> {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setTitle("Promemoria Monitoraggio Covenant");
+            notification.setMessage("Messaggio " + i);
+            notification.setIsRead(false);
+            return notification;
+        });
+    }
+
+    @Test
+    void insertMonitoringResults_shouldUseBatchedRoundTrips(TestReporter reporter) {
+        compare(reporter, "monitoring_results", i -> {
+            MonitoringResult result = new MonitoringResult();
+            result.setCovenant(covenant);
+            result.setCreatedBy(user);
+            result.setStatus("VERDE");
+            result.setMonitoringDate(LocalDateTime.now().minusMinutes(i));
+            return result;
+        });
+    }
+
+    private void compare(TestReporter reporter, String label, IntFunction<Object> factory) {
+        Measurement unbatched = run(factory, false);
+        tearDownRows();
+        Measurement batched = run(factory, true);
+
+        reporter.publishEntry(Map.of(
+                label + ".unbatched.statements", String.valueOf(unbatched.statements),
+                label + ".unbatched.rowsPerSecond", String.valueOf(unbatched.rowsPerSecond()),
+                label + ".batched.statements", String.valueOf(batched.statements),
+                label + ".batched.rowsPerSecond", String.valueOf(batched.rowsPerSecond())));
+
+        // Senza batch serve almeno un round trip per riga; con batch da 50 e sequence pooled
+        // restano circa ROWS/50 insert + ROWS/50 chiamate alla sequence
+        assertTrue(unbatched.statements >= ROWS,
+                "Baseline senza batch per " + label + ": " + unbatched.statements + " statement");
+        assertTrue(batched.statements * 10 < unbatched.statements,
+                "Statement per " + label + ": " + batched.statements + " con batch, "
+                        + unbatched.statements + " senza");
+    }
+
+    private Measurement run(IntFunction<Object> factory, boolean batched) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            final int from = offset;
+            transactionTemplate.executeWithoutResult(status -> {
+                // Dimensione di batch 1: ogni INSERT e' un round trip, come con IDENTITY
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batched ? null : 1);
+                List<Object> chunk = new ArrayList<>(CHUNK);
+                for (int i = from; i < from + CHUNK; i++) {
+                    chunk.add(factory.apply(i));
+                }
+                chunk.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return new Measurement(statistics.getPrepareStatementCount(), System.nanoTime() - start);
+    }
+
+    private void tearDownRows() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM MonitoringResult").executeUpdate();
+            entityManager.createQuery("DELETE FROM Notification").executeUpdate();
+        });
+    }
+
+    private static final class Measurement {
+
+        private final long statements;
+        private final long nanos;
+
+        Measurement(long statements, long nanos) {
+            this.statements = statements;
+            this.nanos = nanos;
+        }
+
+        long rowsPerSecond() {
+            return Math.round(ROWS * 1_000_000_000.0 / Math.max(nanos, 1));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.covenant.monitoring.benchmark;
+
+import com.covenant.monitoring.model.Role;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.security.JwtRequestFilter;
+import com.covenant.monitoring.security.JwtTokenUtil;
+import com.covenant.monitoring.security.JwtUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Confronta il costo per richiesta del JwtRequestFilter:
+ * - legacyTripleParse: il filtro precedente, con tre parse/verifiche HMAC dello stesso token
+ * - singleParse: una sola verifica per richiesta, cache dei token verificati disattivata
+ * - cachedVerification: token gia' verificato servito dalla cache fino alla scadenza
+ * Tutti e tre passano per lo stesso harness (richiesta, filter chain e SecurityContext);
+ * il caricamento dell'utente e' servito dalla cache di JwtUserDetailsService in tutti i casi.
+ * Eseguire con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJwtFilterWithEnoughLengthForHs512SigningAlgorithm";
+
+    private String token;
+    private JwtUserDetailsService userDetailsService;
+    private OncePerRequestFilter legacyFilter;
+    private OncePerRequestFilter uncachedFilter;
+    private OncePerRequestFilter cachedFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_ADMIN");
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setPassword("$2a$10$hash");
+        user.setEnabled(true);
+        user.setRoles(Set.of(role));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        userDetailsService = new JwtUserDetailsService(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+        JwtTokenUtil uncachedUtil = tokenUtil(0);
+        JwtTokenUtil cachedUtil = tokenUtil(10_000);
+        token = cachedUtil.generateToken(userDetailsService.loadUserByUsername("admin"));
+        legacyFilter = new LegacyJwtRequestFilter(userDetailsService);
+        uncachedFilter = filter(uncachedUtil);
+        cachedFilter = filter(cachedUtil);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object legacyTripleParse() throws Exception {
+        return runFilter(legacyFilter);
+    }
+
+    @Benchmark
+    public Object singleParse() throws Exception {
+        return runFilter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object cachedVerification() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    @Test
+    void compareFilterPaths() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertEquals(3, results.size());
+    }
+
+    private Object runFilter(OncePerRequestFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contracts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private JwtTokenUtil tokenUtil(long cacheSize) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtTokenValidity", 3_600_000L);
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "verifiedCacheMaxSize", cacheSize);
+        util.init();
+        return util;
+    }
+
+    private JwtRequestFilter filter(JwtTokenUtil util) {
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUserDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "jwtTokenUtil", util);
+        return filter;
+    }
+
+    // Il JwtRequestFilter precedente: username, scadenza e subject letti ciascuno con un
+    // proprio parse e verifica della firma, utente caricato a ogni richiesta
+    private static class LegacyJwtRequestFilter extends OncePerRequestFilter {
+
+        private final JwtUserDetailsService userDetailsService;
+
+        LegacyJwtRequestFilter(JwtUserDetailsService userDetailsService) {
+            this.userDetailsService = userDetailsService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                String jwtToken = header.substring(7);
+                String username = claims(jwtToken).getSubject();
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    boolean valid = claims(jwtToken).getSubject().equals(userDetails.getUsername())
+                            && claims(jwtToken).getExpiration().after(new Date());
+                    if (valid) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                }
+            }
+            chain.doFilter(request, response);
+        }
+
+        private Claims claims(String jwtToken) {
+            return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(jwtToken).getBody();
+        }
+    }
+}
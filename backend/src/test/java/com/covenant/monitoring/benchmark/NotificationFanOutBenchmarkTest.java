@@ -0,0 +1,145 @@
+package com.covenant.monitoring.benchmark;
+
+import com.covenant.monitoring.model.Role;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.BroadcastNotificationRepository;
+import com.covenant.monitoring.repository.NotificationRepository;
+import com.covenant.monitoring.repository.RoleRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Righe/s per il fan-out di una notifica verso 10k destinatari:
+ * - un save per utente, ognuno nella propria transazione (comportamento precedente dei job)
+ * - createNotifications: insert JDBC a batch in un'unica transazione
+ * - createNotificationsForRoles: un solo INSERT ... SELECT
+ * - un solo broadcast per ruolo, letto dagli utenti tramite le ricevute
+ * I risultati vengono pubblicati nel report del test.
+ * Eseguire con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+public class NotificationFanOutBenchmarkTest {
+
+    private static final int RECIPIENTS = 10_000;
+    private static final String ROLE = "ROLE_FINANCE_HOLDING";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName(ROLE);
+        Role savedRole = roleRepository.save(role);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> batch = new ArrayList<>(RECIPIENTS);
+            for (int i = 0; i < RECIPIENTS; i++) {
+                User user = new User();
+                user.setUsername("fanout" + i);
+                user.setPassword("$2a$10$hash");
+                user.setEmail("fanout" + i + "@example.com");
+                user.setFirstName("Mario");
+                user.setLastName("Rossi");
+                user.setRoles(Set.of(savedRole));
+                batch.add(user);
+            }
+            users.addAll(userRepository.saveAll(batch));
+        });
+        users.forEach(user -> userIds.add(user.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        broadcastNotificationRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM user_roles");
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void fanOut_tenThousandRecipients_shouldReportRowsPerSecond(TestReporter reporter) {
+        // Comportamento precedente dei job: un save per utente, ognuno nella propria transazione
+        long perUserNanos = measure(() -> users.forEach(user ->
+                notificationService.createNotification(user, "Promemoria", "Monitoraggio trimestrale")));
+        assertEquals(RECIPIENTS, notificationRepository.count());
+        notificationRepository.deleteAllInBatch();
+
+        long batchedNanos = measure(() -> assertEquals(RECIPIENTS,
+                notificationService.createNotifications(userIds, "Promemoria", "Monitoraggio trimestrale")));
+        assertEquals(RECIPIENTS, notificationRepository.count());
+        notificationRepository.deleteAllInBatch();
+
+        long insertSelectNanos = measure(() -> assertEquals(RECIPIENTS,
+                notificationService.createNotificationsForRoles(List.of(ROLE), "Promemoria", "Monitoraggio trimestrale")));
+        assertEquals(RECIPIENTS, notificationRepository.count());
+
+        reporter.publishEntry(Map.of(
+                "recipients", String.valueOf(RECIPIENTS),
+                "perUserSave.rowsPerSecond", rowsPerSecond(perUserNanos),
+                "batchedInsert.rowsPerSecond", rowsPerSecond(batchedNanos),
+                "insertSelect.rowsPerSecond", rowsPerSecond(insertSelectNanos)));
+    }
+
+    @Test
+    void fanOut_broadcast_shouldWriteOneRowForAllRecipients(TestReporter reporter) {
+        long nanos = measure(() -> notificationService.broadcast(List.of(ROLE), "Promemoria", "Monitoraggio trimestrale"));
+
+        assertEquals(0, notificationRepository.count());
+        assertEquals(1, broadcastNotificationRepository.count());
+        assertEquals(1, broadcastNotificationRepository.countUnreadForUser(userIds.get(0), List.of(ROLE)));
+        assertEquals(1, broadcastNotificationRepository.countUnreadForUser(userIds.get(RECIPIENTS - 1), List.of(ROLE)));
+        reporter.publishEntry("broadcast.recipientsPerSecond", rowsPerSecond(nanos));
+    }
+
+    private static long measure(Runnable fanOut) {
+        long start = System.nanoTime();
+        fanOut.run();
+        return System.nanoTime() - start;
+    }
+
+    private static String rowsPerSecond(long nanos) {
+        return String.valueOf(Math.round(RECIPIENTS * 1_000_000_000.0 / Math.max(nanos, 1)));
+    }
+}
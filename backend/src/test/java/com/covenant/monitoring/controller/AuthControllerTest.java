@@ -1,9 +1,8 @@
 package com.covenant.monitoring.controller;
 
 import com.covenant.monitoring.dto.JwtRequest;
-import com.covenant.monitoring.dto.JwtResponse;
-import com.covenant.monitoring.security.JwtTokenUtil;
-import com.covenant.monitoring.security.JwtUserDetailsService;
+import com.covenant.monitoring.security.LoginService;
+import com.covenant.monitoring.security.LoginThrottle;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,133 +10,160 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.hamcrest.Matchers.is;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
+@WithMockUser
 public class AuthControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private AuthenticationManager authenticationManager;
-
-    @MockBean
-    private JwtTokenUtil jwtTokenUtil;
+    private LoginService loginService;
 
     @MockBean
-    private JwtUserDetailsService userDetailsService;
+    private LoginThrottle loginThrottle;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     private JwtRequest validRequest;
-    private JwtRequest invalidRequest;
-    private UserDetails userDetails;
 
     @BeforeEach
     void setUp() {
         validRequest = new JwtRequest();
         validRequest.setUsername("admin@example.com");
         validRequest.setPassword("password");
-
-        invalidRequest = new JwtRequest();
-        invalidRequest.setUsername("invalid@example.com");
-        invalidRequest.setPassword("wrongpassword");
-
-        userDetails = org.springframework.security.core.userdetails.User
-                .withUsername("admin@example.com")
-                .password("encoded_password")
-                .authorities("ROLE_ADMIN")
-                .build();
     }
 
     @Test
-    void authenticate_withValidCredentials_shouldReturnToken() throws Exception {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(new UsernamePasswordAuthenticationToken(validRequest.getUsername(), validRequest.getPassword()));
-        when(userDetailsService.loadUserByUsername(validRequest.getUsername())).thenReturn(userDetails);
-        when(jwtTokenUtil.generateToken(userDetails)).thenReturn("valid_jwt_token");
+    void login_withValidCredentials_shouldReturnTokenAsynchronously() throws Exception {
+        when(loginThrottle.tryAcquire(eq("admin@example.com"), anyString())).thenReturn(true);
+        when(loginService.login("admin@example.com", "password"))
+                .thenReturn(CompletableFuture.completedFuture("valid_jwt_token"));
 
-        mockMvc.perform(post("/authenticate")
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token", is("valid_jwt_token")));
+    }
 
-        verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userDetailsService, times(1)).loadUserByUsername(validRequest.getUsername());
-        verify(jwtTokenUtil, times(1)).generateToken(userDetails);
+    @Test
+    void login_whenThrottled_shouldReturnTooManyRequests() throws Exception {
+        when(loginThrottle.tryAcquire(anyString(), anyString())).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        verify(loginService, never()).login(anyString(), anyString());
+        verify(loginService, times(1)).recordThrottled();
     }
 
     @Test
-    void authenticate_withInvalidCredentials_shouldReturnUnauthorized() throws Exception {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new BadCredentialsException("Invalid credentials"));
+    void login_whenQueueIsFull_shouldReturnServiceUnavailable() throws Exception {
+        when(loginThrottle.tryAcquire(anyString(), anyString())).thenReturn(true);
+        when(loginService.login(anyString(), anyString())).thenThrow(new RejectedExecutionException("queue full"));
 
-        mockMvc.perform(post("/authenticate")
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isUnauthorized());
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andReturn();
 
-        verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
-        verify(jwtTokenUtil, never()).generateToken(any(UserDetails.class));
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
     }
 
     @Test
-    void authenticate_withNonExistentUser_shouldReturnUnauthorized() throws Exception {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(new UsernamePasswordAuthenticationToken(invalidRequest.getUsername(), invalidRequest.getPassword()));
-        when(userDetailsService.loadUserByUsername(invalidRequest.getUsername()))
-                .thenThrow(new UsernameNotFoundException("User not found"));
+    void login_withInvalidCredentials_shouldReturnUnauthorized() throws Exception {
+        when(loginThrottle.tryAcquire(anyString(), anyString())).thenReturn(true);
+        when(loginService.login("admin@example.com", "password")).thenReturn(CompletableFuture.failedFuture(
+                new CompletionException(new Exception("INVALID_CREDENTIALS", new BadCredentialsException("Invalid credentials")))));
 
-        mockMvc.perform(post("/authenticate")
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isUnauthorized());
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userDetailsService, times(1)).loadUserByUsername(invalidRequest.getUsername());
-        verify(jwtTokenUtil, never()).generateToken(any(UserDetails.class));
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.token").doesNotExist());
     }
 
     @Test
-    void authenticate_withMissingUsername_shouldReturnBadRequest() throws Exception {
+    void login_withNonExistentUser_shouldReturnUnauthorized() throws Exception {
+        JwtRequest unknownUser = new JwtRequest();
+        unknownUser.setUsername("invalid@example.com");
+        unknownUser.setPassword("wrongpassword");
+        when(loginThrottle.tryAcquire(anyString(), anyString())).thenReturn(true);
+        when(loginService.login("invalid@example.com", "wrongpassword"))
+                .thenReturn(CompletableFuture.failedFuture(new UsernameNotFoundException("User not found")));
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(unknownUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_withMissingUsername_shouldReturnBadRequest() throws Exception {
         JwtRequest requestWithoutUsername = new JwtRequest();
         requestWithoutUsername.setPassword("password");
 
-        mockMvc.perform(post("/authenticate")
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestWithoutUsername)))
-                .andExpect(status().isBadRequest());
+                .andReturn();
 
-        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loginService, loginThrottle);
     }
 
     @Test
-    void authenticate_withMissingPassword_shouldReturnBadRequest() throws Exception {
+    void login_withMissingPassword_shouldReturnBadRequest() throws Exception {
         JwtRequest requestWithoutPassword = new JwtRequest();
         requestWithoutPassword.setUsername("admin@example.com");
 
-        mockMvc.perform(post("/authenticate")
+        MvcResult result = mockMvc.perform(post("/api/auth/login").with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestWithoutPassword)))
-                .andExpect(status().isBadRequest());
+                .andReturn();
 
-        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loginService, loginThrottle);
     }
 }
@@ -1,6 +1,7 @@
 package com.covenant.monitoring.controller;
 
 import com.covenant.monitoring.model.Notification;
+import com.covenant.monitoring.service.NotificationPushService;
 import com.covenant.monitoring.service.NotificationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +34,9 @@ public class NotificationControllerTest {
     @MockBean
     private NotificationService notificationService;
 
+    @MockBean
+    private NotificationPushService notificationPushService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
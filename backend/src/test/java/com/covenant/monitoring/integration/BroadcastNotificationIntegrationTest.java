@@ -0,0 +1,132 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.BroadcastNotification;
+import com.covenant.monitoring.model.BroadcastReceipt;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.BroadcastNotificationRepository;
+import com.covenant.monitoring.repository.BroadcastReceiptRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Broadcast sul database H2 dei test: visibilita' limitata agli utenti esistenti all'invio,
+ * ricevute scritte senza ON CONFLICT con target ed eliminazione oltre la retention.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BroadcastNotificationIntegrationTest {
+
+    private static final List<String> ROLES = List.of("ROLE_FINANCE_HOLDING");
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Autowired
+    private BroadcastReceiptRepository broadcastReceiptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private User existing;
+    private BroadcastNotification broadcast;
+
+    @BeforeEach
+    void setUp() {
+        existing = user("broadcast-existing");
+        broadcast = notificationService.broadcast(ROLES, "Promemoria", "Monitoraggio trimestrale");
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcastReceiptRepository.deleteAll();
+        broadcastNotificationRepository.deleteAll();
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void userCreatedAfterTheBroadcast_shouldNotSeeIt() {
+        User newcomer = user("broadcast-newcomer");
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(broadcast.getCreatedAt().plusMinutes(1)), newcomer.getId());
+
+        assertEquals(1, broadcastNotificationRepository.countUnreadForUser(existing.getId(), ROLES));
+        assertEquals(0, broadcastNotificationRepository.countUnreadForUser(newcomer.getId(), ROLES));
+        assertTrue(broadcastNotificationRepository.findViewsForUser(newcomer.getId(), ROLES).isEmpty());
+    }
+
+    @Test
+    void markAsReadThenDelete_shouldInsertAndThenUpdateTheReceipt() {
+        assertTrue(notificationService.markAsReadForUser(broadcast.getId(), existing.getId(), ROLES).isPresent());
+        // Seconda lettura: la ricevuta esiste gia', passa dall'UPDATE
+        assertTrue(notificationService.markAsReadForUser(broadcast.getId(), existing.getId(), ROLES).isPresent());
+
+        BroadcastReceipt receipt = receipt();
+        assertTrue(receipt.getIsRead());
+        assertFalse(receipt.getIsDeleted());
+        assertEquals(0, broadcastNotificationRepository.countUnreadForUser(existing.getId(), ROLES));
+
+        assertTrue(notificationService.deleteForUser(broadcast.getId(), existing.getId(), ROLES));
+
+        assertTrue(receipt().getIsDeleted());
+        assertTrue(broadcastNotificationRepository.findViewsForUser(existing.getId(), ROLES).isEmpty());
+    }
+
+    @Test
+    void deleteWithoutReceipt_shouldInsertDeletedReceipt() {
+        assertTrue(notificationService.deleteForUser(broadcast.getId(), existing.getId(), ROLES));
+
+        BroadcastReceipt receipt = receipt();
+        assertTrue(receipt.getIsDeleted());
+        assertFalse(receipt.getIsRead());
+    }
+
+    @Test
+    void purgeBroadcastsBefore_shouldRemoveExpiredBroadcastsAndReceipts() {
+        notificationService.markAsReadForUser(broadcast.getId(), existing.getId(), ROLES);
+
+        assertEquals(0, notificationService.purgeBroadcastsBefore(LocalDateTime.now().minusDays(90)));
+        assertEquals(1, notificationService.purgeBroadcastsBefore(LocalDateTime.now().plusMinutes(1)));
+
+        assertEquals(0, broadcastNotificationRepository.count());
+        assertEquals(0, broadcastReceiptRepository.count());
+    }
+
+    private BroadcastReceipt receipt() {
+        return broadcastReceiptRepository.findById(new BroadcastReceipt.Key(broadcast.getId(), existing.getId()))
+                .orElseThrow();
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("$2a$10$hash");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Mario");
+        user.setLastName("Rossi");
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
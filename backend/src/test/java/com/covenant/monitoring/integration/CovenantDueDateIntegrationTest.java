@@ -0,0 +1,113 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.service.CovenantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CovenantDueDateIntegrationTest {
+
+    @Autowired
+    private CovenantService covenantService;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        contract = new Contract();
+        contract.setContractId("CTR-" + UUID.randomUUID().toString().substring(0, 8));
+        contract.setLegalEntity("Enel Green Power");
+        contract.setCountry("Italia");
+        contract.setContractType("Finanziamento");
+        contract.setAmount(BigDecimal.valueOf(1000000));
+        contract.setCurrency("EUR");
+        contract.setCounterparty("Banca");
+        contract.setStatus("ATTIVO");
+        contract.setStartDate(LocalDate.now().minusYears(1));
+        contract.setEndDate(LocalDate.now().plusYears(4));
+        contract = contractRepository.save(contract);
+    }
+
+    @Test
+    void neverMonitoredCovenant_shouldBeDueImmediately() {
+        Covenant covenant = covenantService.saveCovenant(covenant(null, null));
+
+        assertEquals(Covenant.DEFAULT_MONITORING_FREQUENCY_MONTHS, covenant.getMonitoringFrequencyMonths());
+        assertTrue(dueIds().contains(covenant.getId()));
+    }
+
+    @Test
+    void recordMonitoring_shouldMoveNextDueDateByTheCovenantFrequency() {
+        Covenant covenant = covenantService.saveCovenant(covenant(null, 6));
+        LocalDateTime monitoringDate = LocalDateTime.now().minusDays(1);
+
+        covenantService.recordMonitoring(covenant.getId(), "VERDE", monitoringDate);
+
+        Covenant reloaded = covenantRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals(monitoringDate.plusMonths(6).withNano(0), reloaded.getNextDueDate().withNano(0));
+        assertFalse(dueIds().contains(covenant.getId()));
+    }
+
+    @Test
+    void backdatedMonitoring_shouldKeepCurrentStatusAndDueDate() {
+        Covenant covenant = covenantService.saveCovenant(covenant(null, 3));
+        LocalDateTime latest = LocalDateTime.now().minusDays(1);
+        covenantService.recordMonitoring(covenant.getId(), "VERDE", latest);
+
+        covenantService.recordMonitoring(covenant.getId(), "ROSSO", latest.minusMonths(2));
+
+        Covenant reloaded = covenantRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals("VERDE", reloaded.getStatus());
+        assertEquals(latest.withNano(0), reloaded.getLastMonitoringDate().withNano(0));
+    }
+
+    @Test
+    void monthlyCovenant_shouldBeDueBeforeAQuarterlyOne() {
+        LocalDateTime lastMonitoring = LocalDateTime.now().minusMonths(2);
+        Covenant monthly = covenantService.saveCovenant(covenant(lastMonitoring, 1));
+        Covenant quarterly = covenantService.saveCovenant(covenant(lastMonitoring, 3));
+
+        List<Long> due = dueIds();
+        assertTrue(due.contains(monthly.getId()));
+        assertFalse(due.contains(quarterly.getId()));
+    }
+
+    private List<Long> dueIds() {
+        return covenantService.getCovenantsDueForMonitoring(LocalDateTime.now()).stream()
+                .map(Covenant::getId)
+                .toList();
+    }
+
+    private Covenant covenant(LocalDateTime lastMonitoringDate, Integer frequencyMonths) {
+        Covenant covenant = new Covenant();
+        covenant.setContract(contract);
+        covenant.setCovenantId("COV-" + UUID.randomUUID().toString().substring(0, 8));
+        covenant.setTitle("Debt Service Coverage Ratio");
+        covenant.setStatus("VERDE");
+        covenant.setLastMonitoringDate(lastMonitoringDate);
+        covenant.setMonitoringFrequencyMonths(frequencyMonths);
+        return covenant;
+    }
+}
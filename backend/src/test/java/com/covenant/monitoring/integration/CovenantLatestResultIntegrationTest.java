@@ -0,0 +1,222 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.model.CovenantLatestResult;
+import com.covenant.monitoring.model.MonitoringResult;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantLatestResultRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.security.AuthenticatedUser;
+import com.covenant.monitoring.service.MonitoringResultService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * covenant_latest_results sul database H2 dei test: upsert condizionato sulla data,
+ * ricalcolo dopo modifica o cancellazione dell'ultimo risultato e lettura a lotti.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CovenantLatestResultIntegrationTest {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MonitoringResultService monitoringResultService;
+
+    @Autowired
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Autowired
+    private CovenantLatestResultRepository latestResultRepository;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Covenant covenant;
+    private Covenant otherCovenant;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("latest-results");
+        user.setPassword("$2a$10$hash");
+        user.setEmail("latest-results@example.com");
+        user.setFirstName("Mario");
+        user.setLastName("Rossi");
+        user = userRepository.save(user);
+
+        Contract contract = new Contract();
+        contract.setContractId("CTR-LATEST");
+        contract.setLegalEntity("Enel Green Power");
+        contract.setCountry("Italia");
+        contract.setContractType("Finanziamento");
+        contract.setAmount(BigDecimal.valueOf(1000000));
+        contract.setCurrency("EUR");
+        contract.setCounterparty("Banca");
+        contract.setStatus("ATTIVO");
+        contract.setStartDate(LocalDate.now().minusYears(1));
+        contract.setEndDate(LocalDate.now().plusYears(4));
+        contract = contractRepository.save(contract);
+
+        covenant = covenantRepository.save(covenant(contract, "COV-LATEST-1"));
+        otherCovenant = covenantRepository.save(covenant(contract, "COV-LATEST-2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        latestResultRepository.deleteAll();
+        monitoringResultRepository.deleteAll();
+        covenantRepository.deleteAll();
+        contractRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void createMonitoringResult_shouldKeepTheMostRecentResult() {
+        MonitoringResult first = create(covenant, "VERDE", BASE_DATE.minusMonths(1));
+        MonitoringResult latest = create(covenant, "GIALLO", BASE_DATE);
+        create(covenant, "ROSSO", BASE_DATE.minusMonths(2));
+
+        CovenantLatestResult row = latestResultRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals(latest.getId(), row.getMonitoringResultId());
+        assertEquals(BASE_DATE, row.getMonitoringDate());
+        assertEquals("GIALLO", row.getStatus());
+        assertNotEquals(first.getId(), row.getMonitoringResultId());
+    }
+
+    @Test
+    void updatingLatestResultToAnEarlierDate_shouldRecomputeTheRow() {
+        MonitoringResult previous = create(covenant, "VERDE", BASE_DATE.minusMonths(1));
+        MonitoringResult latest = create(covenant, "GIALLO", BASE_DATE);
+
+        latest.setMonitoringDate(BASE_DATE.minusMonths(3));
+        monitoringResultService.saveMonitoringResult(latest);
+
+        CovenantLatestResult row = latestResultRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals(previous.getId(), row.getMonitoringResultId());
+        assertEquals(BASE_DATE.minusMonths(1), row.getMonitoringDate());
+    }
+
+    @Test
+    void updatingOnlyResultToAnEarlierDate_shouldKeepItAsLatest() {
+        MonitoringResult only = create(covenant, "VERDE", BASE_DATE);
+
+        only.setMonitoringDate(BASE_DATE.minusDays(10));
+        monitoringResultService.saveMonitoringResult(only);
+
+        CovenantLatestResult row = latestResultRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals(only.getId(), row.getMonitoringResultId());
+        assertEquals(BASE_DATE.minusDays(10), row.getMonitoringDate());
+        assertEquals(1, monitoringResultService.getLatestMonitoringResultsForCovenants(
+                List.of(covenant.getId())).size());
+    }
+
+    @Test
+    void deletingLatestResult_shouldFallBackToThePreviousOne() {
+        MonitoringResult previous = create(covenant, "VERDE", BASE_DATE.minusMonths(1));
+        MonitoringResult latest = create(covenant, "GIALLO", BASE_DATE);
+
+        monitoringResultService.deleteMonitoringResult(latest.getId());
+
+        CovenantLatestResult row = latestResultRepository.findById(covenant.getId()).orElseThrow();
+        assertEquals(previous.getId(), row.getMonitoringResultId());
+
+        monitoringResultService.deleteMonitoringResult(previous.getId());
+
+        assertTrue(latestResultRepository.findById(covenant.getId()).isEmpty());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void latestBatchEndpoint_shouldReturnOneResultPerCovenant() throws Exception {
+        create(covenant, "VERDE", BASE_DATE.minusMonths(1));
+        MonitoringResult latest = create(covenant, "GIALLO", BASE_DATE);
+        MonitoringResult otherLatest = create(otherCovenant, "ROSSO", BASE_DATE.minusDays(3));
+
+        mockMvc.perform(post("/api/monitoring-results/latest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + covenant.getId() + "," + otherCovenant.getId() + ",999999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(latest.getId().intValue())))
+                .andExpect(jsonPath("$[0].status", is("GIALLO")))
+                .andExpect(jsonPath("$[1].id", is(otherLatest.getId().intValue())))
+                .andExpect(jsonPath("$[1].covenant.covenantId", is("COV-LATEST-2")));
+    }
+
+    @Test
+    void createEndpoint_shouldUseThePrincipalAndExposeTheCreatorAsReference() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(), Set.of("ROLE_FINANCE_COUNTRY"));
+
+        mockMvc.perform(post("/api/monitoring-results")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(principal, null,
+                                List.of(new SimpleGrantedAuthority("ROLE_FINANCE_COUNTRY")))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"covenant\":{\"id\":" + covenant.getId() + "},\"status\":\"VERDE\"," +
+                                "\"monitoringDate\":\"" + BASE_DATE + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdBy.id", is(user.getId().intValue())))
+                .andExpect(jsonPath("$.createdBy.username", is("latest-results")))
+                .andExpect(jsonPath("$.createdBy.password").doesNotExist())
+                .andExpect(jsonPath("$.createdBy.roles").doesNotExist())
+                .andExpect(jsonPath("$.covenant.covenantId", is("COV-LATEST-1")));
+
+        assertEquals("VERDE", latestResultRepository.findById(covenant.getId()).orElseThrow().getStatus());
+    }
+
+    private MonitoringResult create(Covenant target, String status, LocalDateTime monitoringDate) {
+        MonitoringResult result = new MonitoringResult();
+        result.setCovenant(target);
+        result.setStatus(status);
+        result.setMonitoringDate(monitoringDate);
+        return monitoringResultService.createMonitoringResult(result, user);
+    }
+
+    private Covenant covenant(Contract contract, String covenantId) {
+        Covenant covenant = new Covenant();
+        covenant.setContract(contract);
+        covenant.setCovenantId(covenantId);
+        covenant.setTitle("Debt Service Coverage Ratio");
+        covenant.setStatus("PENDING");
+        return covenant;
+    }
+}
@@ -0,0 +1,189 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.EmailOutboxMessage;
+import com.covenant.monitoring.repository.EmailOutboxRepository;
+import com.covenant.monitoring.service.EmailOutboxDispatcher;
+import com.covenant.monitoring.service.EmailOutboxService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Outbox email contro un server SMTP locale (GreenMail): scrittura transazionale,
+ * consegna a lotti e throughput rispetto all'invio di un messaggio per connessione.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        // Il dispatcher viene invocato dai test, non dallo scheduler
+        "email.outbox.initial-delay=3600000",
+        "email.outbox.batch-size=100"
+})
+@ActiveProfiles("test")
+public class EmailOutboxIntegrationTest {
+
+    private static final int THROUGHPUT_MESSAGES = 1000;
+    private static final int BATCH_SIZE = 100;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void enqueue_withRolledBackTransaction_shouldNotLeaveMessages() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxService.enqueue("finance@example.com", "Promemoria", "Messaggio");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, emailOutboxRepository.count());
+        assertEquals(0, emailOutboxDispatcher.dispatchPending());
+    }
+
+    @Test
+    void dispatchPending_shouldDeliverAndMarkSent() {
+        for (int i = 0; i < 3; i++) {
+            emailOutboxService.enqueue("user" + i + "@example.com", "Promemoria Monitoraggio Covenant",
+                    "Ci sono 3 covenant che richiedono monitoraggio.");
+        }
+
+        assertEquals(3, emailOutboxDispatcher.dispatchPending());
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(3, emailOutboxRepository.countByStatus(EmailOutboxMessage.STATUS_SENT));
+        assertEquals(0, emailOutboxDispatcher.dispatchPending());
+    }
+
+    @Test
+    void markSent_withExpiredClaim_shouldNotTouchTheMessageClaimedByAnotherDispatcher() {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient("user@example.com");
+        message.setSubject("Promemoria");
+        message.setBody("Messaggio");
+        message.setClaimToken("claim-nodo-2");
+        Long id = emailOutboxRepository.save(message).getId();
+
+        // Esito di un lotto preso in carico da un nodo la cui presa in carico e' scaduta
+        Integer updated = transactionTemplate.execute(status ->
+                emailOutboxRepository.markSent(List.of(id), "claim-nodo-1", LocalDateTime.now()));
+
+        assertEquals(0, updated);
+        EmailOutboxMessage reloaded = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxMessage.STATUS_PENDING, reloaded.getStatus());
+        assertEquals("claim-nodo-2", reloaded.getClaimToken());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void throughput_batchedDispatcherVersusOneConnectionPerMessage(TestReporter reporter) {
+        CountingMailSender countingSender = new CountingMailSender();
+        countingSender.setHost("localhost");
+        countingSender.setPort(ServerSetupTest.SMTP.getPort());
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, countingSender,
+                transactionManager, new SimpleMeterRegistry(), "noreply@example.com", BATCH_SIZE, 8,
+                Duration.ofSeconds(30), Duration.ofHours(6), Duration.ofMinutes(30), Duration.ofDays(30));
+
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < THROUGHPUT_MESSAGES; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("noreply@example.com");
+            message.setTo("single" + i + "@example.com");
+            message.setSubject("Promemoria");
+            message.setText("Messaggio " + i);
+            countingSender.send(message);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+        int singleConnections = countingSender.connections.getAndSet(0);
+
+        List<EmailOutboxMessage> queued = new ArrayList<>(THROUGHPUT_MESSAGES);
+        for (int i = 0; i < THROUGHPUT_MESSAGES; i++) {
+            EmailOutboxMessage message = new EmailOutboxMessage();
+            message.setRecipient("batch" + i + "@example.com");
+            message.setSubject("Promemoria");
+            message.setBody("Messaggio " + i);
+            queued.add(message);
+        }
+        emailOutboxRepository.saveAll(queued);
+
+        long batchStart = System.nanoTime();
+        int sent = dispatcher.dispatchPending();
+        long batchNanos = System.nanoTime() - batchStart;
+        int batchConnections = countingSender.connections.get();
+
+        assertEquals(THROUGHPUT_MESSAGES, sent);
+        greenMail.waitForIncomingEmail(2L * THROUGHPUT_MESSAGES);
+        assertEquals(2 * THROUGHPUT_MESSAGES, greenMail.getReceivedMessages().length);
+        // Una sola connessione SMTP per lotto invece di una per messaggio
+        assertEquals(THROUGHPUT_MESSAGES, singleConnections);
+        assertEquals((THROUGHPUT_MESSAGES + BATCH_SIZE - 1) / BATCH_SIZE, batchConnections);
+
+        reporter.publishEntry(Map.of(
+                "messages", String.valueOf(THROUGHPUT_MESSAGES),
+                "perMessage.connections", String.valueOf(singleConnections),
+                "perMessage.messagesPerSecond", messagesPerSecond(singleNanos),
+                "batched.connections", String.valueOf(batchConnections),
+                "batched.messagesPerSecond", messagesPerSecond(batchNanos)));
+    }
+
+    private static String messagesPerSecond(long nanos) {
+        return String.valueOf(Math.round(THROUGHPUT_MESSAGES * 1_000_000_000.0 / Math.max(nanos, 1)));
+    }
+
+    // Conta le connessioni SMTP aperte: JavaMailSenderImpl ne apre una per ogni chiamata a send
+    private static class CountingMailSender extends JavaMailSenderImpl {
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            connections.incrementAndGet();
+            return super.connectTransport();
+        }
+    }
+}
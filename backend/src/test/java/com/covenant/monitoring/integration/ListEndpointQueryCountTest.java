@@ -0,0 +1,148 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.model.MonitoringResult;
+import com.covenant.monitoring.model.Role;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.RoleRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.support.QueryCountTestConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.covenant.monitoring.support.SqlStatementCounter.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountTestConfig.class)
+public class ListEndpointQueryCountTest {
+
+    // Numero massimo di istruzioni SQL per una richiesta di lista, qualunque sia il numero di righe
+    private static final int MAX_STATEMENTS_PER_LIST = 2;
+
+    private static final List<String> LIST_ENDPOINTS = List.of(
+            "/api/contracts",
+            "/api/contracts?size=20",
+            "/api/covenants",
+            "/api/covenants?size=20&status=VERDE",
+            "/api/covenants/status/VERDE",
+            "/api/monitoring-results",
+            "/api/monitoring-results?size=20&country=Italia",
+            "/api/monitoring-results/status/VERDE"
+    );
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @AfterEach
+    void tearDown() {
+        monitoringResultRepository.deleteAll();
+        covenantRepository.deleteAll();
+        contractRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listEndpoints_shouldIssueConstantNumberOfQueries() throws Exception {
+        createData(0, 3);
+        for (String endpoint : LIST_ENDPOINTS) {
+            int small = assertMaxStatements(MAX_STATEMENTS_PER_LIST,
+                    () -> mockMvc.perform(get(endpoint)).andExpect(status().isOk()));
+
+            createData(1, 30);
+            int large = assertMaxStatements(MAX_STATEMENTS_PER_LIST,
+                    () -> mockMvc.perform(get(endpoint)).andExpect(status().isOk()));
+
+            assertEquals(small, large, "Il numero di query di " + endpoint + " cresce con i dati");
+            tearDown();
+            createData(0, 3);
+        }
+    }
+
+    // Crea "users" autori distinti, ognuno con un contratto, un covenant e un risultato
+    private void createData(int offset, int users) {
+        Role role = roleRepository.findByName("ROLE_FINANCE_HOLDING").orElseGet(() -> {
+            Role r = new Role();
+            r.setName("ROLE_FINANCE_HOLDING");
+            return roleRepository.save(r);
+        });
+        for (int i = 0; i < users; i++) {
+            String suffix = offset + "-" + i;
+
+            User user = new User();
+            user.setUsername("user" + suffix);
+            user.setPassword("$2a$10$hash");
+            user.setEmail("user" + suffix + "@example.com");
+            user.setFirstName("Mario");
+            user.setLastName("Rossi");
+            user.setRoles(Set.of(role));
+            user = userRepository.save(user);
+
+            Contract contract = new Contract();
+            contract.setContractId("CTR-" + suffix);
+            contract.setLegalEntity("Enel Green Power");
+            contract.setCountry("Italia");
+            contract.setContractType("Finanziamento");
+            contract.setAmount(BigDecimal.valueOf(1000000));
+            contract.setCurrency("EUR");
+            contract.setCounterparty("Banca");
+            contract.setStatus("ATTIVO");
+            contract.setStartDate(LocalDate.now().minusYears(1));
+            contract.setEndDate(LocalDate.now().plusYears(4));
+            contract = contractRepository.save(contract);
+
+            Covenant covenant = new Covenant();
+            covenant.setContract(contract);
+            covenant.setCovenantId("COV-" + suffix);
+            covenant.setTitle("Debt Service Coverage Ratio");
+            covenant.setStatus("VERDE");
+            covenant.setLastMonitoringDate(LocalDateTime.now().minusMonths(4));
+            covenant = covenantRepository.save(covenant);
+
+            MonitoringResult result = new MonitoringResult();
+            result.setCovenant(covenant);
+            result.setStatus("VERDE");
+            result.setMonitoringDate(LocalDateTime.now().minusMonths(4));
+            result.setCreatedBy(user);
+            monitoringResultRepository.save(result);
+        }
+    }
+}
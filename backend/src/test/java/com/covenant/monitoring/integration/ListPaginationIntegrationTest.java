@@ -0,0 +1,227 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.config.PaginationProperties;
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.model.MonitoringResult;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Liste paginate con cursore e filtri sulle query reali (H2): percorso completo delle pagine,
+ * filtri, limite massimo della dimensione di pagina e passaggio dalla lista legacy alla pagina.
+ */
+@SpringBootTest(properties = {
+        "pagination.default-page-size=2",
+        "pagination.max-page-size=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+public class ListPaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Ordinati per id: 3 contratti in Italia e 2 in Spagna, un covenant e un risultato ciascuno
+    private final List<Contract> contracts = new ArrayList<>();
+    private final List<Covenant> covenants = new ArrayList<>();
+    private final List<MonitoringResult> results = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("paging-user");
+        user.setPassword("$2a$10$hash");
+        user.setEmail("paging-user@example.com");
+        user.setFirstName("Mario");
+        user.setLastName("Rossi");
+        user = userRepository.save(user);
+
+        String[] countries = {"Italia", "Spagna", "Italia", "Spagna", "Italia"};
+        for (int i = 0; i < countries.length; i++) {
+            LocalDate start = LocalDate.of(2024, 1, 1).plusMonths(3L * i);
+
+            Contract contract = new Contract();
+            contract.setContractId("CTR-P" + i);
+            contract.setLegalEntity(countries[i].equals("Italia") ? "Enel Green Power" : "Endesa");
+            contract.setCountry(countries[i]);
+            contract.setContractType("Finanziamento");
+            contract.setAmount(BigDecimal.valueOf(1000000));
+            contract.setCurrency("EUR");
+            contract.setCounterparty("Banca");
+            contract.setStatus(i == 4 ? "CHIUSO" : "ATTIVO");
+            contract.setStartDate(start);
+            contract.setEndDate(start.plusYears(5));
+            contracts.add(contractRepository.save(contract));
+
+            Covenant covenant = new Covenant();
+            covenant.setContract(contracts.get(i));
+            covenant.setCovenantId("COV-P" + i);
+            covenant.setTitle("Debt Service Coverage Ratio");
+            covenant.setStatus(i % 2 == 0 ? "VERDE" : "ROSSO");
+            covenant.setLastMonitoringDate(start.atStartOfDay());
+            covenants.add(covenantRepository.save(covenant));
+
+            MonitoringResult result = new MonitoringResult();
+            result.setCovenant(covenants.get(i));
+            result.setStatus(covenants.get(i).getStatus());
+            result.setMonitoringDate(start.atStartOfDay());
+            result.setCreatedBy(user);
+            results.add(monitoringResultRepository.save(result));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(paginationProperties, "legacyListEnabled", true);
+        monitoringResultRepository.deleteAll();
+        covenantRepository.deleteAll();
+        contractRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void contracts_shouldWalkTheFilteredPagesWithTheCursor() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/contracts").param("country", "Italia"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].contractId", contains("CTR-P0", "CTR-P2")))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is(contracts.get(2).getId().intValue())))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/contracts").param("country", "Italia")
+                        .param("cursor", String.valueOf(((Number) JsonPath.read(firstPage, "$.nextCursor")).longValue())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].contractId", contains("CTR-P4")))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void contracts_shouldFilterByStatusAndStartDateRange() throws Exception {
+        mockMvc.perform(get("/api/contracts").param("status", "ATTIVO")
+                        .param("fromDate", "2024-04-01").param("toDate", "2024-09-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].contractId", contains("CTR-P1", "CTR-P2")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+
+        mockMvc.perform(get("/api/contracts").param("status", "CHIUSO"))
+                .andExpect(jsonPath("$.items[*].contractId", contains("CTR-P4")));
+    }
+
+    @Test
+    void covenants_shouldWalkTheFilteredPagesWithTheCursor() throws Exception {
+        mockMvc.perform(get("/api/covenants").param("status", "VERDE").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].covenantId", contains("COV-P0")))
+                .andExpect(jsonPath("$.nextCursor", is(covenants.get(0).getId().intValue())));
+
+        mockMvc.perform(get("/api/covenants").param("status", "VERDE").param("size", "1")
+                        .param("cursor", String.valueOf(covenants.get(0).getId())))
+                .andExpect(jsonPath("$.items[*].covenantId", contains("COV-P2")))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+    }
+
+    @Test
+    void covenants_shouldFilterByContractCountryLegalEntityAndMonitoringDate() throws Exception {
+        mockMvc.perform(get("/api/covenants").param("country", "Spagna").param("legalEntity", "Endesa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].covenantId", contains("COV-P1", "COV-P3")))
+                .andExpect(jsonPath("$.items[0].contract.country", is("Spagna")));
+
+        mockMvc.perform(get("/api/covenants").param("fromDate", "2024-07-01T00:00:00"))
+                .andExpect(jsonPath("$.items[*].covenantId", contains("COV-P2", "COV-P3")))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+    }
+
+    @Test
+    void monitoringResults_shouldWalkTheFilteredPagesWithTheCursor() throws Exception {
+        mockMvc.perform(get("/api/monitoring-results").param("country", "Italia")
+                        .param("cursor", String.valueOf(results.get(0).getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", contains(results.get(2).getId().intValue(),
+                        results.get(4).getId().intValue())))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void monitoringResults_shouldFilterByStatusAndMonitoringDateRange() throws Exception {
+        mockMvc.perform(get("/api/monitoring-results").param("status", "ROSSO")
+                        .param("fromDate", "2024-01-01T00:00:00").param("toDate", "2024-06-30T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", contains(results.get(1).getId().intValue())))
+                .andExpect(jsonPath("$.items[0].covenant.contract.contractId", is("CTR-P1")));
+    }
+
+    @Test
+    void pageSize_shouldBeClampedToTheMaximumAndDefaultWhenMissingOrInvalid() throws Exception {
+        mockMvc.perform(get("/api/contracts").param("size", "1000"))
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+
+        mockMvc.perform(get("/api/covenants").param("size", "0"))
+                .andExpect(jsonPath("$.items", hasSize(2)));
+
+        mockMvc.perform(get("/api/monitoring-results").param("size", "-5"))
+                .andExpect(jsonPath("$.items", hasSize(2)));
+    }
+
+    @Test
+    void withoutParameters_shouldReturnTheLegacyListOnlyWhileTheFlagIsEnabled() throws Exception {
+        for (String endpoint : List.of("/api/contracts", "/api/covenants", "/api/monitoring-results")) {
+            mockMvc.perform(get(endpoint))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(5)));
+        }
+
+        ReflectionTestUtils.setField(paginationProperties, "legacyListEnabled", false);
+
+        for (String endpoint : List.of("/api/contracts", "/api/covenants", "/api/monitoring-results")) {
+            mockMvc.perform(get(endpoint))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.hasMore", is(true)));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.covenant.monitoring.integration;
+
+import com.covenant.monitoring.model.SchedulerLock;
+import com.covenant.monitoring.repository.BroadcastNotificationRepository;
+import com.covenant.monitoring.repository.BroadcastReceiptRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.SchedulerLockRepository;
+import com.covenant.monitoring.service.EmailOutboxService;
+import com.covenant.monitoring.service.NotificationService;
+import com.covenant.monitoring.service.SchedulerLockService;
+import com.covenant.monitoring.service.SchedulerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Piu' istanze del backend simulate con piu' SchedulerLockService (nodi diversi)
+ * sullo stesso database condiviso.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchedulerLockIntegrationTest {
+
+    private static final int NODES = 4;
+    private static final String JOB = "testJob";
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CovenantRepository covenantRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Autowired
+    private BroadcastReceiptRepository broadcastReceiptRepository;
+
+    @BeforeEach
+    void setUp() {
+        schedulerLockRepository.deleteAll();
+        broadcastReceiptRepository.deleteAll();
+        broadcastNotificationRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentTriggers_shouldRunTheJobOnOneNodeOnly() throws Exception {
+        // Regime: la riga del job esiste gia' da un trigger precedente, con lease scaduto
+        schedulerLockRepository.save(new SchedulerLock(JOB, LocalDateTime.now().minusMinutes(1),
+                LocalDateTime.now().minusMinutes(2), "previous-node"));
+        AtomicInteger executions = new AtomicInteger();
+
+        List<Boolean> results = onAllNodes(lockService -> lockService.runLocked(JOB, () -> {
+            executions.incrementAndGet();
+            sleep(200);
+        }));
+
+        assertEquals(1, executions.get());
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void firstTrigger_shouldCreateTheLockRow() {
+        SchedulerLockService first = node("node-1", Duration.ofMinutes(5), Duration.ofSeconds(30));
+        SchedulerLockService second = node("node-2", Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+        assertTrue(first.runLocked(JOB, () -> { }));
+        // lock-at-least-for: lo stesso trigger scattato poco dopo su un altro nodo viene ignorato
+        assertFalse(second.runLocked(JOB, () -> { }));
+        assertEquals("node-1", schedulerLockRepository.findById(JOB).orElseThrow().getLockedBy());
+    }
+
+    @Test
+    void expiredLease_shouldBeTakenOverByAnotherNode() {
+        // Nodo fermato durante il job: il lease non viene mai rilasciato
+        schedulerLockRepository.save(new SchedulerLock(JOB, LocalDateTime.now().plusNanos(300_000_000),
+                LocalDateTime.now(), "dead-node"));
+        SchedulerLockService survivor = node("survivor", Duration.ofMinutes(5), Duration.ZERO);
+
+        assertFalse(survivor.runLocked(JOB, () -> { }));
+        sleep(400);
+        assertTrue(survivor.runLocked(JOB, () -> { }));
+        assertEquals("survivor", schedulerLockRepository.findById(JOB).orElseThrow().getLockedBy());
+    }
+
+    @Test
+    void schedulerOnSeveralInstances_shouldBroadcastEachReminderOnce() throws Exception {
+        List<Boolean> ignored = onAllNodes(lockService -> {
+            SchedulerService scheduler = new SchedulerService(covenantRepository, notificationService,
+                    emailOutboxService, lockService, false, Duration.ofDays(90));
+            // Come il proxy @Transactional del bean
+            transactionTemplate.executeWithoutResult(status -> scheduler.sendQuarterlyMonitoringReminders());
+            return true;
+        });
+
+        assertEquals(NODES, ignored.size());
+        assertEquals(1, broadcastNotificationRepository.count());
+    }
+
+    private List<Boolean> onAllNodes(NodeTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < NODES; i++) {
+                SchedulerLockService lockService = node("node-" + i, Duration.ofMinutes(5), Duration.ofSeconds(30));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run(lockService);
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SchedulerLockService node(String nodeId, Duration lockAtMostFor, Duration lockAtLeastFor) {
+        return new SchedulerLockService(schedulerLockRepository, transactionManager, nodeId, lockAtMostFor, lockAtLeastFor);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface NodeTask {
+        boolean run(SchedulerLockService lockService);
+    }
+}
@@ -0,0 +1,195 @@
+package com.covenant.monitoring.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtRequestFilterTest {
+
+    private static final String SECRET = "testSecretKeyForJwtRequestFilterWithEnoughLengthForHs512SigningAlgorithm";
+
+    @Mock
+    private JwtUserDetailsService jwtUserDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private final StreamTicketService streamTicketService = new StreamTicketService(SECRET, Duration.ofSeconds(30), 100L);
+
+    private CachedUserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        userDetails = new CachedUserDetails(42L, "mrossi", "hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_FINANCE_COUNTRY")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bearerToken_shouldResolveAuthenticatedUserPrincipal() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        when(jwtUserDetailsService.loadCachedUserDetails("mrossi")).thenReturn(userDetails);
+
+        filter(tokenUtil).doFilter(request(tokenUtil.generateToken(userDetails)), new MockHttpServletResponse(), new MockFilterChain());
+
+        AuthenticatedUser principal = principal();
+        assertEquals(42L, principal.getUserId());
+        assertEquals("mrossi", principal.getName());
+        assertEquals(Set.of("ROLE_FINANCE_COUNTRY"), principal.getRoles());
+        assertEquals(AuthenticatedUser.Scope.COUNTRY, principal.getScope());
+    }
+
+    @Test
+    void statelessToken_shouldResolvePrincipalWithoutLoadingTheUser() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(true);
+
+        filter(tokenUtil).doFilter(request(tokenUtil.generateToken(userDetails)), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(42L, principal().getUserId());
+        verifyNoInteractions(jwtUserDetailsService);
+    }
+
+    @Test
+    void statelessToken_whenRevoked_shouldNotAuthenticate() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(true);
+        when(tokenRevocationService.isRevoked(eq(42L), any(Instant.class))).thenReturn(true);
+
+        filter(tokenUtil).doFilter(request(tokenUtil.generateToken(userDetails)), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidToken_shouldNotAuthenticate() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+
+        filter(tokenUtil).doFilter(request("not-a-token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUserDetailsService, never()).loadCachedUserDetails(anyString());
+    }
+
+    @Test
+    void streamTicket_shouldAuthenticateTheStreamOnlyOnce() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        String ticket = streamTicketService.issue(AuthenticatedUser.from(userDetails));
+
+        filter(tokenUtil).doFilter(streamRequest(ticket), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(42L, principal().getUserId());
+        assertEquals(Set.of("ROLE_FINANCE_COUNTRY"), principal().getRoles());
+        verifyNoInteractions(jwtUserDetailsService);
+
+        SecurityContextHolder.clearContext();
+        filter(tokenUtil).doFilter(streamRequest(ticket), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void streamTicket_whenUserRevoked_shouldNotAuthenticate() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        when(tokenRevocationService.isRevoked(eq(42L), any(Instant.class))).thenReturn(true);
+
+        filter(tokenUtil).doFilter(streamRequest(streamTicketService.issue(AuthenticatedUser.from(userDetails))),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void streamTicket_outsideTheStreamEndpoint_shouldBeIgnored() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications");
+        request.setParameter("ticket", streamTicketService.issue(AuthenticatedUser.from(userDetails)));
+
+        filter(tokenUtil).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void accessTokenQueryParameter_shouldNotAuthenticate() throws Exception {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications/stream");
+        request.setParameter("access_token", tokenUtil.generateToken(userDetails));
+
+        filter(tokenUtil).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtUserDetailsService);
+    }
+
+    @Test
+    void holdingAndAdminRoles_shouldHaveHoldingScope() {
+        assertEquals(AuthenticatedUser.Scope.HOLDING,
+                new AuthenticatedUser(1L, "admin", Set.of("ROLE_ADMIN")).getScope());
+        assertEquals(AuthenticatedUser.Scope.HOLDING,
+                new AuthenticatedUser(2L, "holding", Set.of("ROLE_FINANCE_HOLDING")).getScope());
+        assertEquals(AuthenticatedUser.Scope.COUNTRY,
+                new AuthenticatedUser(3L, "country", Set.of("ROLE_ADMIN_COUNTRY")).getScope());
+    }
+
+    private AuthenticatedUser principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        return assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private MockHttpServletRequest streamRequest(String ticket) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications/stream");
+        request.setParameter("ticket", ticket);
+        return request;
+    }
+
+    private JwtRequestFilter filter(JwtTokenUtil tokenUtil) {
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUserDetailsService", jwtUserDetailsService);
+        ReflectionTestUtils.setField(filter, "jwtTokenUtil", tokenUtil);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "streamTicketService", streamTicketService);
+        return filter;
+    }
+
+    private JwtTokenUtil tokenUtil(boolean statelessAuthorities) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtTokenValidity", 3_600_000L);
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "verifiedCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(util, "statelessAuthorities", statelessAuthorities);
+        ReflectionTestUtils.setField(util, "statelessTokenValidity", 900_000L);
+        util.init();
+        return util;
+    }
+}
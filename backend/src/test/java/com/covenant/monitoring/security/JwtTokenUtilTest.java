@@ -0,0 +1,97 @@
+package com.covenant.monitoring.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenUtilTest {
+
+    private static final String SECRET = "testSecretKeyForJwtTokenUtilWithEnoughLengthForHs512SigningAlgorithm";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = tokenUtil(SECRET, 3_600_000L);
+        userDetails = new User("admin", "password", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    void verify_shouldReturnCachedTokenOnSecondCall() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+
+        VerifiedToken first = jwtTokenUtil.verify(token);
+        VerifiedToken second = jwtTokenUtil.verify(token);
+
+        assertSame(first, second);
+        assertEquals("admin", first.getSubject());
+        assertTrue(jwtTokenUtil.validateToken(first, userDetails));
+    }
+
+    @Test
+    void verify_withTokenSignedByAnotherKey_shouldThrow() {
+        String token = tokenUtil("anotherSecretKeyForJwtTokenUtilWithEnoughLengthForHs512Signing", 3_600_000L)
+                .generateToken(userDetails);
+
+        assertThrows(SignatureException.class, () -> jwtTokenUtil.verify(token));
+    }
+
+    @Test
+    void verify_withExpiredToken_shouldThrow() {
+        String token = tokenUtil(SECRET, -1_000L).generateToken(userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtTokenUtil.verify(token));
+    }
+
+    @Test
+    void validateToken_withDifferentUser_shouldReturnFalse() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        UserDetails other = new User("other", "password", List.of());
+
+        assertFalse(jwtTokenUtil.validateToken(token, other));
+    }
+
+    @Test
+    void statelessMode_shouldRebuildUserFromClaims() {
+        ReflectionTestUtils.setField(jwtTokenUtil, "statelessAuthorities", true);
+        ReflectionTestUtils.setField(jwtTokenUtil, "statelessTokenValidity", 900_000L);
+        CachedUserDetails cached = new CachedUserDetails(7L, "admin", "$2a$10$hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        VerifiedToken token = jwtTokenUtil.verify(jwtTokenUtil.generateToken(cached));
+        CachedUserDetails fromToken = jwtTokenUtil.getUserDetailsFromToken(token);
+
+        assertEquals(7L, fromToken.getUserId());
+        assertEquals("admin", fromToken.getUsername());
+        assertNull(fromToken.getPassword());
+        assertEquals("ROLE_ADMIN", fromToken.getAuthorities().iterator().next().getAuthority());
+        assertTrue(token.getExpiration().toEpochMilli() - System.currentTimeMillis() <= 900_000L);
+    }
+
+    @Test
+    void statelessMode_withTokenWithoutClaims_shouldFallBackToRepository() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        ReflectionTestUtils.setField(jwtTokenUtil, "statelessAuthorities", true);
+
+        assertNull(jwtTokenUtil.getUserDetailsFromToken(jwtTokenUtil.verify(token)));
+    }
+
+    private JwtTokenUtil tokenUtil(String secret, long validity) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtTokenValidity", validity);
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "verifiedCacheMaxSize", 100L);
+        util.init();
+        return util;
+    }
+}
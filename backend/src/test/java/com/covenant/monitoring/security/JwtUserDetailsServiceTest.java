@@ -0,0 +1,84 @@
+package com.covenant.monitoring.security;
+
+import com.covenant.monitoring.model.Role;
+import com.covenant.monitoring.model.User;
+import com.covenant.monitoring.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUserDetailsService userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new JwtUserDetailsService(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_ADMIN");
+        user = new User();
+        user.setId(7L);
+        user.setUsername("admin");
+        user.setPassword("$2a$10$hash");
+        user.setEnabled(true);
+        user.setRoles(Set.of(role));
+    }
+
+    @Test
+    void loadUserByUsername_shouldHitRepositoryOnlyOnce() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("admin");
+        UserDetails second = userDetailsService.loadUserByUsername("admin");
+
+        assertSame(first, second);
+        assertEquals("ROLE_ADMIN", first.getAuthorities().iterator().next().getAuthority());
+        assertFalse(first instanceof CredentialsContainer);
+        verify(userRepository, times(1)).findByUsername("admin");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void evictUser_byId_shouldDropEntryCachedUnderOldUsername() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("admin");
+
+        userDetailsService.evictUser(7L, "renamed");
+        userDetailsService.loadUserByUsername("admin");
+
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void loadUserByUsername_withUnknownUser_shouldThrowAndNotCache() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+}
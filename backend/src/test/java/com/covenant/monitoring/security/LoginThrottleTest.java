@@ -0,0 +1,48 @@
+package com.covenant.monitoring.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTest {
+
+    @Test
+    void tryAcquire_shouldLimitAttemptsPerUsername() {
+        LoginThrottle throttle = new LoginThrottle(3, 1, true, 100, 100, 1000);
+
+        assertTrue(throttle.tryAcquire("admin", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("ADMIN", "10.0.0.2"));
+        assertTrue(throttle.tryAcquire("admin", "10.0.0.3"));
+        assertFalse(throttle.tryAcquire("admin", "10.0.0.4"));
+        assertTrue(throttle.tryAcquire("other", "10.0.0.4"));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitAttemptsPerIp() {
+        LoginThrottle throttle = new LoginThrottle(100, 100, true, 2, 1, 1000);
+
+        assertTrue(throttle.tryAcquire("user1", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("user2", "10.0.0.1"));
+        assertFalse(throttle.tryAcquire("user3", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("user3", "10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_withIpBucketDisabled_shouldOnlyLimitPerUsername() {
+        LoginThrottle throttle = new LoginThrottle(100, 100, false, 1, 1, 1000);
+
+        assertTrue(throttle.tryAcquire("user1", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("user2", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("user3", "10.0.0.1"));
+    }
+
+    @Test
+    void tokenBucket_shouldRefillOverTime() throws InterruptedException {
+        LoginThrottle.TokenBucket bucket = new LoginThrottle.TokenBucket(1, 50.0);
+
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+        Thread.sleep(50);
+        assertTrue(bucket.tryConsume());
+    }
+}
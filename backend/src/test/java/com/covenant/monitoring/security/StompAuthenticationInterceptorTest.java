@@ -0,0 +1,135 @@
+package com.covenant.monitoring.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StompAuthenticationInterceptorTest {
+
+    private static final String SECRET = "testSecretKeyForStompAuthenticationInterceptorWithEnoughLengthForHs512";
+
+    @Mock
+    private JwtUserDetailsService jwtUserDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private MessageChannel channel;
+
+    private CachedUserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        userDetails = new CachedUserDetails(42L, "mrossi", "hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_FINANCE_COUNTRY")));
+    }
+
+    @Test
+    void connect_withValidToken_shouldSetTheSessionUser() {
+        JwtTokenUtil tokenUtil = tokenUtil(false);
+        when(jwtUserDetailsService.loadCachedUserDetails("mrossi")).thenReturn(userDetails);
+        Message<?> message = connect("Bearer " + tokenUtil.generateToken(userDetails));
+
+        interceptor(tokenUtil).preSend(message, channel);
+
+        Principal user = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class).getUser();
+        UsernamePasswordAuthenticationToken authentication = assertInstanceOf(UsernamePasswordAuthenticationToken.class, user);
+        assertEquals(42L, assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal()).getUserId());
+    }
+
+    @Test
+    void connect_withoutBearerHeader_shouldBeRejected() {
+        StompAuthenticationInterceptor interceptor = interceptor(tokenUtil(false));
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(connect(null), channel));
+        assertThrows(MessagingException.class, () -> interceptor.preSend(connect("Basic bXJvc3NpOnB3ZA=="), channel));
+        verifyNoInteractions(jwtUserDetailsService);
+    }
+
+    @Test
+    void connect_withInvalidToken_shouldBeRejected() {
+        StompAuthenticationInterceptor interceptor = interceptor(tokenUtil(false));
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(connect("Bearer not-a-token"), channel));
+        verify(jwtUserDetailsService, never()).loadCachedUserDetails(anyString());
+    }
+
+    @Test
+    void connect_withRevokedToken_shouldBeRejected() {
+        JwtTokenUtil tokenUtil = tokenUtil(true);
+        when(tokenRevocationService.isRevoked(eq(42L), any(Instant.class))).thenReturn(true);
+        Message<?> message = connect("Bearer " + tokenUtil.generateToken(userDetails));
+
+        assertThrows(MessagingException.class, () -> interceptor(tokenUtil).preSend(message, channel));
+        assertNull(MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class).getUser());
+    }
+
+    @Test
+    void subscribe_onUnauthenticatedSession_shouldBeRejected() {
+        Message<?> message = message(StompHeaderAccessor.create(StompCommand.SUBSCRIBE));
+
+        assertThrows(MessagingException.class, () -> interceptor(tokenUtil(false)).preSend(message, channel));
+    }
+
+    @Test
+    void subscribe_onAuthenticatedSession_shouldPass() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(AuthenticatedUser.from(userDetails), null,
+                userDetails.getAuthorities()));
+        Message<?> message = message(accessor);
+
+        assertSame(message, interceptor(tokenUtil(false)).preSend(message, channel));
+    }
+
+    private StompAuthenticationInterceptor interceptor(JwtTokenUtil tokenUtil) {
+        return new StompAuthenticationInterceptor(tokenUtil, jwtUserDetailsService, tokenRevocationService);
+    }
+
+    private Message<?> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.setNativeHeader("Authorization", authorization);
+        }
+        return message(accessor);
+    }
+
+    // Mutable accessor, as passed by Spring to the inbound channel interceptors
+    private Message<?> message(StompHeaderAccessor accessor) {
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private JwtTokenUtil tokenUtil(boolean statelessAuthorities) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "jwtTokenValidity", 3_600_000L);
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "verifiedCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(util, "statelessAuthorities", statelessAuthorities);
+        ReflectionTestUtils.setField(util, "statelessTokenValidity", 900_000L);
+        util.init();
+        return util;
+    }
+}
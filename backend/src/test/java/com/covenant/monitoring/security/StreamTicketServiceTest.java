@@ -0,0 +1,64 @@
+package com.covenant.monitoring.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamTicketServiceTest {
+
+    private static final String SECRET = "testSecretKeyForStreamTicketServiceWithEnoughLengthForHs512SigningAlgorithm";
+
+    private final StreamTicketService service = new StreamTicketService(SECRET, Duration.ofSeconds(30), 100L);
+
+    @Test
+    void redeem_shouldReturnTheTicketOwner() {
+        String ticket = service.issue(new AuthenticatedUser(42L, "mrossi", Set.of("ROLE_FINANCE_COUNTRY")));
+
+        StreamTicketService.RedeemedTicket redeemed = service.redeem(ticket);
+
+        assertNotNull(redeemed);
+        assertEquals(42L, redeemed.getUser().getUserId());
+        assertEquals("mrossi", redeemed.getUser().getUsername());
+        assertEquals(Set.of("ROLE_FINANCE_COUNTRY"), redeemed.getUser().getRoles());
+        assertNotNull(redeemed.getIssuedAt());
+    }
+
+    @Test
+    void redeem_shouldAcceptEachTicketOnlyOnce() {
+        String ticket = service.issue(new AuthenticatedUser(42L, "mrossi", Set.of("ROLE_FINANCE_COUNTRY")));
+
+        assertNotNull(service.redeem(ticket));
+        assertNull(service.redeem(ticket));
+    }
+
+    @Test
+    void redeem_withExpiredTicket_shouldReturnNull() {
+        StreamTicketService expiring = new StreamTicketService(SECRET, Duration.ofSeconds(-1), 100L);
+
+        assertNull(expiring.redeem(expiring.issue(new AuthenticatedUser(42L, "mrossi", Set.of("ROLE_ADMIN")))));
+    }
+
+    @Test
+    void redeem_shouldRejectAccessTokensAndTicketsFromAnotherSecret() {
+        JwtTokenUtil tokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(tokenUtil, "jwtTokenValidity", 3_600_000L);
+        ReflectionTestUtils.setField(tokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenUtil, "verifiedCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(tokenUtil, "statelessAuthorities", true);
+        ReflectionTestUtils.setField(tokenUtil, "statelessTokenValidity", 900_000L);
+        tokenUtil.init();
+        String accessToken = tokenUtil.generateToken(new CachedUserDetails(42L, "mrossi", "hash", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        StreamTicketService other = new StreamTicketService(SECRET + "-other", Duration.ofSeconds(30), 100L);
+
+        assertNull(service.redeem(accessToken));
+        assertNull(service.redeem(other.issue(new AuthenticatedUser(42L, "mrossi", Set.of("ROLE_ADMIN")))));
+        assertNull(service.redeem("not-a-ticket"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.covenant.monitoring.security;
+
+import com.covenant.monitoring.model.TokenRevocation;
+import com.covenant.monitoring.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Test
+    void revokeUser_shouldRejectTokensIssuedBefore() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepository, true, 900_000L);
+
+        service.revokeUser(7L);
+
+        verify(tokenRevocationRepository).advanceRevocation(eq(7L), any(LocalDateTime.class));
+        verify(tokenRevocationRepository).insertIfAbsent(eq(7L), any(LocalDateTime.class));
+        assertTrue(service.isRevoked(7L, Instant.now().minusSeconds(60)));
+        assertFalse(service.isRevoked(7L, Instant.now().plusSeconds(1)));
+        assertFalse(service.isRevoked(8L, Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    void revokeUser_withExistingRevocation_shouldOnlyUpdate() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepository, true, 900_000L);
+        when(tokenRevocationRepository.advanceRevocation(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+
+        service.revokeUser(7L);
+
+        verify(tokenRevocationRepository, never()).insertIfAbsent(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void revokeUser_withRowInsertedConcurrently_shouldRetryUpdate() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepository, true, 900_000L);
+        when(tokenRevocationRepository.advanceRevocation(eq(7L), any(LocalDateTime.class))).thenReturn(0, 1);
+        when(tokenRevocationRepository.insertIfAbsent(eq(7L), any(LocalDateTime.class))).thenReturn(0);
+
+        service.revokeUser(7L);
+
+        verify(tokenRevocationRepository, times(2)).advanceRevocation(eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void refresh_shouldLoadRevocationsFromOtherNodes() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepository, true, 900_000L);
+        LocalDateTime revokedAt = LocalDateTime.now().withNano(0);
+        when(tokenRevocationRepository.findByRevokedAtAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new TokenRevocation(7L, revokedAt)));
+
+        service.refresh();
+
+        Instant before = revokedAt.atZone(ZoneId.systemDefault()).toInstant().minusSeconds(1);
+        assertTrue(service.isRevoked(7L, before));
+        verify(tokenRevocationRepository).deleteByRevokedAtBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void disabled_shouldNotTouchRepository() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepository, false, 900_000L);
+
+        service.revokeUser(7L);
+        service.refresh();
+
+        verifyNoInteractions(tokenRevocationRepository);
+        assertFalse(service.isRevoked(7L, Instant.now().minusSeconds(60)));
+    }
+}
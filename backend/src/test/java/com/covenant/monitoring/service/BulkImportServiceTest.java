@@ -0,0 +1,163 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.ContractRef;
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.ImportReport;
+import com.covenant.monitoring.model.Contract;
+import com.covenant.monitoring.model.Covenant;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkImportServiceTest {
+
+    private static final String CONTRACT_HEADER =
+            "contractId,legalEntity,country,contractType,amount,currency,counterparty,status,startDate,endDate\n";
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private CovenantRepository covenantRepository;
+
+    @Mock
+    private CovenantStatusRollupService rollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        bulkImportService = new BulkImportService(contractRepository, covenantRepository, rollupService,
+                new ImportFileReader(), transactionManager, entityManager, 2, 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importContracts_shouldSaveValidRowsAndReportInvalidOnes() throws Exception {
+        String csv = CONTRACT_HEADER
+                + "CTR-1,Enel Green Power,Italia,Finanziamento,1000000,EUR,Banca,ATTIVO,2024-01-01,2029-01-01\n"
+                + "CTR-2,Enel Green Power,Italia,Finanziamento,abc,EUR,Banca,ATTIVO,2024-01-01,2029-01-01\n"
+                + "CTR-1,Enel Green Power,Italia,Finanziamento,500000,EUR,Banca,ATTIVO,2024-01-01,2029-01-01\n"
+                + "CTR-3,Endesa,Spagna,Finanziamento,250000,eur,Banca,ATTIVO,2024-01-01,2028-01-01\n";
+        when(contractRepository.findExistingContractIds(anyCollection())).thenReturn(List.of());
+
+        ImportReport report = bulkImportService.importContracts(csvFile(csv));
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        assertEquals(2, report.getRejectedRows());
+        assertEquals(3, report.getErrors().get(0).getRowNumber());
+        assertEquals("amount", report.getErrors().get(0).getColumn());
+        assertEquals(4, report.getErrors().get(1).getRowNumber());
+        assertEquals("contractId", report.getErrors().get(1).getColumn());
+
+        ArgumentCaptor<List<Contract>> saved = ArgumentCaptor.forClass(List.class);
+        verify(contractRepository, times(2)).saveAll(saved.capture());
+        assertEquals("CTR-1", saved.getAllValues().get(0).get(0).getContractId());
+        assertEquals("EUR", saved.getAllValues().get(1).get(0).getCurrency());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importContracts_withExistingContract_shouldRejectRow() throws Exception {
+        String csv = CONTRACT_HEADER
+                + "CTR-1,Enel Green Power,Italia,Finanziamento,1000000,EUR,Banca,ATTIVO,2024-01-01,2029-01-01\n";
+        when(contractRepository.findExistingContractIds(anyCollection())).thenReturn(List.of("CTR-1"));
+
+        ImportReport report = bulkImportService.importContracts(csvFile(csv));
+
+        assertEquals(0, report.getImportedRows());
+        assertEquals(1, report.getRejectedRows());
+        verify(contractRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCovenants_shouldResolveContractsOnceAndUpdateRollup() throws Exception {
+        String csv = "contractId,covenantId,title,status\n"
+                + "CTR-1,COV-1,Debt Service Coverage Ratio,VERDE\n"
+                + "CTR-X,COV-2,Leverage Ratio,VERDE\n"
+                + "CTR-1,COV-3,Negative Pledge,\n";
+        when(contractRepository.findRefsByContractIdIn(anyCollection()))
+                .thenReturn(List.of(new ContractRef(10L, "CTR-1", "Enel Green Power", "Italia")));
+        when(entityManager.getReference(Contract.class, 10L)).thenReturn(new Contract());
+
+        ImportReport report = bulkImportService.importCovenants(csvFile(csv));
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        assertEquals(1, report.getRejectedRows());
+        assertEquals(3, report.getErrors().get(0).getRowNumber());
+
+        // CTR-1 resta in cache: il secondo chunk non interroga di nuovo il database
+        verify(contractRepository, times(1)).findRefsByContractIdIn(argThat(ids -> ids.size() == 2));
+        verify(covenantRepository, times(2)).saveAll(anyList());
+        ArgumentCaptor<Map<CovenantStatusKey, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(rollupService, times(2)).applyDeltas(deltas.capture());
+        assertEquals(1L, deltas.getAllValues().get(0).get(new CovenantStatusKey("Italia", "Enel Green Power", "VERDE")));
+        assertEquals(1L, deltas.getAllValues().get(1).get(new CovenantStatusKey("Italia", "Enel Green Power", "PENDING")));
+    }
+
+    @Test
+    void importCovenants_withUnknownContract_shouldQueryItOnlyOnce() throws Exception {
+        String csv = "contractId,covenantId,title,status\n"
+                + "CTR-X,COV-1,Debt Service Coverage Ratio,VERDE\n"
+                + "CTR-X,COV-2,Leverage Ratio,VERDE\n"
+                + "CTR-X,COV-3,Negative Pledge,VERDE\n";
+        when(contractRepository.findRefsByContractIdIn(anyCollection())).thenReturn(List.of());
+
+        ImportReport report = bulkImportService.importCovenants(csvFile(csv));
+
+        assertEquals(3, report.getRejectedRows());
+        verify(contractRepository, times(1)).findRefsByContractIdIn(anyCollection());
+    }
+
+    @Test
+    void importContracts_withManyErrors_shouldCapReportedErrors() throws Exception {
+        StringBuilder csv = new StringBuilder(CONTRACT_HEADER);
+        for (int i = 1; i <= 5; i++) {
+            csv.append("CTR-").append(i).append(",Enel Green Power,Italia,Finanziamento,abc,EUR,Banca,ATTIVO,2024-01-01,2029-01-01\n");
+        }
+
+        ImportReport report = bulkImportService.importContracts(csvFile(csv.toString()));
+
+        assertEquals(5, report.getRejectedRows());
+        assertEquals(3, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        verify(contractRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importContracts_withUnsupportedFormat_shouldThrow() {
+        MockMultipartFile file = new MockMultipartFile("file", "contracts.txt", "text/plain", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkImportService.importContracts(file));
+    }
+
+    private MockMultipartFile csvFile(String content) {
+        return new MockMultipartFile("file", "import.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,7 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Contract;
 import com.covenant.monitoring.repository.ContractRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,7 +10,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -152,4 +157,47 @@ public class ContractServiceTest {
         assertEquals("Finanziamento Progetto Eolico", result.get(0).getTitle());
         verify(contractRepository, times(1)).findByCountryContainingIgnoreCase("Italia");
     }
+
+    @Test
+    void getContractsPage_withMoreRows_shouldReturnNextCursor() {
+        List<ContractListItem> rows = Arrays.asList(listItem(1L, "Italia"), listItem(2L, "Italia"));
+        when(contractRepository.findPage(null, null, "Italia", null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(rows);
+
+        CursorPage<ContractListItem> result = contractService.getContractsPage(null, 1, null, "Italia", null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.isHasMore());
+        assertEquals(1L, result.getNextCursor());
+        verify(contractRepository, times(1)).findPage(null, null, "Italia", null, null, null, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void getContractsPage_withLastPage_shouldReturnNoCursor() {
+        when(contractRepository.findPage(1L, null, null, null, null, null, PageRequest.of(0, 51)))
+                .thenReturn(List.of(listItem(2L, "Spagna")));
+
+        CursorPage<ContractListItem> result = contractService.getContractsPage(1L, 50, null, null, null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getContractListItems_shouldReturnProjections() {
+        when(contractRepository.findAllListItems()).thenReturn(List.of(listItem(1L, "Italia")));
+
+        List<ContractListItem> result = contractService.getContractListItems();
+
+        assertEquals(1, result.size());
+        assertEquals("Italia", result.get(0).getCountry());
+        verify(contractRepository, times(1)).findAllListItems();
+        verify(contractRepository, never()).findAll();
+    }
+
+    private ContractListItem listItem(Long id, String country) {
+        return new ContractListItem(id, "CTR-" + id, "Enel Green Power", country, "Finanziamento",
+                BigDecimal.valueOf(1000000), "EUR", "Banca", "ATTIVO", LocalDate.now(), LocalDate.now().plusYears(5));
+    }
 }
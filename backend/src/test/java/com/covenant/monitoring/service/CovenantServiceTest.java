@@ -1,5 +1,7 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.CovenantListItem;
+import com.covenant.monitoring.dto.CursorPage;
 import com.covenant.monitoring.model.Covenant;
 import com.covenant.monitoring.repository.CovenantRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,8 +10,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +29,12 @@ public class CovenantServiceTest {
     @Mock
     private CovenantRepository covenantRepository;
 
+    @Mock
+    private CovenantStatusRollupService rollupService;
+
+    @Mock
+    private CovenantStatusStreamPublisher statusStreamPublisher;
+
     @InjectMocks
     private CovenantService covenantService;
 
@@ -137,6 +147,39 @@ public class CovenantServiceTest {
         verify(covenantRepository, times(1)).save(any(Covenant.class));
     }
 
+    @Test
+    void saveCovenant_withoutFrequencyAndCreatedAt_shouldKeepPersistedValues() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 9, 0);
+        Covenant existing = new Covenant();
+        existing.setId(1L);
+        existing.setMonitoringFrequencyMonths(6);
+        existing.setCreatedAt(createdAt);
+        Covenant incoming = new Covenant();
+        incoming.setId(1L);
+        incoming.setTitle("Debt Service Coverage Ratio");
+        when(covenantRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(covenantRepository.save(any(Covenant.class))).thenAnswer(i -> i.getArgument(0));
+
+        Covenant result = covenantService.saveCovenant(incoming);
+
+        assertEquals(6, result.getMonitoringFrequencyMonths().intValue());
+        assertEquals(createdAt, result.getCreatedAt());
+    }
+
+    @Test
+    void saveCovenant_withFrequencyAndCreatedAt_shouldNotReloadTheCovenant() {
+        Covenant incoming = new Covenant();
+        incoming.setId(1L);
+        incoming.setMonitoringFrequencyMonths(12);
+        incoming.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 0));
+        when(covenantRepository.save(any(Covenant.class))).thenAnswer(i -> i.getArgument(0));
+
+        Covenant result = covenantService.saveCovenant(incoming);
+
+        assertEquals(12, result.getMonitoringFrequencyMonths().intValue());
+        verify(covenantRepository, never()).findById(anyLong());
+    }
+
     @Test
     void deleteCovenant_shouldCallRepositoryDelete() {
         doNothing().when(covenantRepository).deleteById(anyLong());
@@ -169,4 +212,35 @@ public class CovenantServiceTest {
         assertEquals("Debt Service Coverage Ratio", result.get(0).getName());
         verify(covenantRepository, times(1)).findByNextReviewDateBefore(reviewDate);
     }
+
+    @Test
+    void getCovenantsPage_withMoreRows_shouldReturnNextCursorAndPassFilters() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(covenantRepository.findPage(10L, "ROSSO", "Italia", "Enel Green Power", from, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(listItem(11L), listItem(12L), listItem(13L)));
+
+        CursorPage<CovenantListItem> result = covenantService.getCovenantsPage(10L, 2, "ROSSO", "Italia",
+                "Enel Green Power", from, null);
+
+        assertEquals(List.of(11L, 12L), result.getItems().stream().map(CovenantListItem::getId).toList());
+        assertTrue(result.isHasMore());
+        assertEquals(12L, result.getNextCursor());
+    }
+
+    @Test
+    void getCovenantsPage_withLastPage_shouldReturnNoCursor() {
+        when(covenantRepository.findPage(null, null, null, null, null, null, PageRequest.of(0, 51)))
+                .thenReturn(List.of(listItem(1L)));
+
+        CursorPage<CovenantListItem> result = covenantService.getCovenantsPage(null, 50, null, null, null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+
+    private CovenantListItem listItem(Long id) {
+        return new CovenantListItem(id, "COV-" + id, "Debt Service Coverage Ratio", false, "Art. 12", "ROSSO",
+                LocalDateTime.of(2024, 3, 31, 0, 0), 1L, "CTR-1", "Enel Green Power", "Italia");
+    }
 }
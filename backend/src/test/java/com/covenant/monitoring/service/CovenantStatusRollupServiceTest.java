@@ -0,0 +1,121 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.CovenantStatusKey;
+import com.covenant.monitoring.dto.StatusCount;
+import com.covenant.monitoring.model.CovenantStatusRollup;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.CovenantStatusRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CovenantStatusRollupServiceTest {
+
+    @Mock
+    private CovenantStatusRollupRepository rollupRepository;
+
+    @Mock
+    private CovenantRepository covenantRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @InjectMocks
+    private CovenantStatusRollupService rollupService;
+
+    @Test
+    void recordChange_withStatusChange_shouldMoveCountBetweenGroups() {
+        CovenantStatusKey before = new CovenantStatusKey("Italia", "Enel Green Power", "VERDE");
+        CovenantStatusKey after = new CovenantStatusKey("Italia", "Enel Green Power", "ROSSO");
+        when(rollupRepository.incrementCount(anyString(), anyString(), anyString(), anyLong())).thenReturn(1);
+
+        rollupService.recordChange(before, after);
+
+        verify(rollupRepository, times(1)).incrementCount("Italia", "Enel Green Power", "VERDE", -1);
+        verify(rollupRepository, times(1)).incrementCount("Italia", "Enel Green Power", "ROSSO", 1);
+        verify(rollupRepository, never()).insertIfAbsent(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void recordChange_withSameKey_shouldNotTouchRollup() {
+        CovenantStatusKey key = new CovenantStatusKey("Italia", "Enel Green Power", "VERDE");
+
+        rollupService.recordChange(key, new CovenantStatusKey("Italia", "Enel Green Power", "VERDE"));
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordChange_withNewGroup_shouldInsertRow() {
+        when(rollupRepository.incrementCount("Spagna", "Endesa", "PENDING", 1)).thenReturn(0);
+        when(rollupRepository.insertIfAbsent("Spagna", "Endesa", "PENDING", 1)).thenReturn(1);
+
+        rollupService.recordChange(null, new CovenantStatusKey("Spagna", "Endesa", "PENDING"));
+
+        verify(rollupRepository, times(1)).incrementCount("Spagna", "Endesa", "PENDING", 1);
+        verify(rollupRepository, times(1)).insertIfAbsent("Spagna", "Endesa", "PENDING", 1);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordChange_withGroupInsertedConcurrently_shouldRetryUpdate() {
+        when(rollupRepository.incrementCount("Spagna", "Endesa", "PENDING", 1)).thenReturn(0, 1);
+        when(rollupRepository.insertIfAbsent("Spagna", "Endesa", "PENDING", 1)).thenReturn(0);
+
+        rollupService.recordChange(null, new CovenantStatusKey("Spagna", "Endesa", "PENDING"));
+
+        verify(rollupRepository, times(2)).incrementCount("Spagna", "Endesa", "PENDING", 1);
+    }
+
+    @Test
+    void reconcile_shouldApplyCorrectionsAsDeltas() {
+        CovenantStatusRollup drifted = rollup("Italia", "Enel Green Power", "VERDE", 12L);
+        CovenantStatusRollup stale = rollup("Italia", "Enel Green Power", "ROSSO", 2L);
+        CovenantStatusRollup correct = rollup("Spagna", "Endesa", "VERDE", 5L);
+
+        when(schedulerLockService.tryAcquire("reconcileCovenantStatusRollup")).thenReturn(true);
+        when(rollupRepository.findAllForUpdate()).thenReturn(List.of(drifted, stale, correct));
+        when(covenantRepository.countByCountryAndLegalEntityAndStatus()).thenReturn(List.of(
+                new StatusCount("Italia", "Enel Green Power", "VERDE", 10L),
+                new StatusCount("Spagna", "Endesa", "VERDE", 5L),
+                new StatusCount("Spagna", "Endesa", "GIALLO", 4L)));
+        when(rollupRepository.incrementCount(anyString(), anyString(), anyString(), anyLong())).thenReturn(1);
+
+        rollupService.reconcile();
+
+        verify(rollupRepository, times(1)).incrementCount("Italia", "Enel Green Power", "VERDE", -2);
+        verify(rollupRepository, times(1)).incrementCount("Italia", "Enel Green Power", "ROSSO", -2);
+        verify(rollupRepository, times(1)).incrementCount("Spagna", "Endesa", "GIALLO", 4);
+        verify(rollupRepository, never()).incrementCount("Spagna", "Endesa", "VERDE", 0);
+        // Le entita' bloccate non vengono modificate: la correzione passa solo dagli UPDATE
+        assertEquals(12L, drifted.getCovenantCount());
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcile_whenLockHeldByAnotherNode_shouldSkip() {
+        when(schedulerLockService.tryAcquire("reconcileCovenantStatusRollup")).thenReturn(false);
+
+        rollupService.reconcile();
+
+        verifyNoInteractions(rollupRepository, covenantRepository);
+    }
+
+    private CovenantStatusRollup rollup(String country, String legalEntity, String status, long count) {
+        CovenantStatusRollup rollup = new CovenantStatusRollup();
+        rollup.setCountry(country);
+        rollup.setLegalEntity(legalEntity);
+        rollup.setStatus(status);
+        rollup.setCovenantCount(count);
+        return rollup;
+    }
+}
@@ -0,0 +1,68 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.CovenantStatusChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CovenantStatusStreamPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private CovenantStatusStreamPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new CovenantStatusStreamPublisher(messagingTemplate, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldCoalesceChangesOfTheSameCovenant() {
+        publisher.publish(new CovenantStatusChange(1L, 10L, "VERDE", "GIALLO"));
+        publisher.publish(new CovenantStatusChange(1L, 10L, "GIALLO", "ROSSO"));
+
+        publisher.flush();
+
+        ArgumentCaptor<List<CovenantStatusChange>> frame = ArgumentCaptor.forClass(List.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(CovenantStatusStreamPublisher.TOPIC), frame.capture());
+        assertEquals(1, frame.getValue().size());
+        assertEquals("VERDE", frame.getValue().get(0).getOldStatus());
+        assertEquals("ROSSO", frame.getValue().get(0).getNewStatus());
+        assertEquals(0, publisher.getPendingCount());
+    }
+
+    @Test
+    void flush_withStatusBackToTheInitialOne_shouldSendNothing() {
+        publisher.publish(new CovenantStatusChange(1L, 10L, "VERDE", "ROSSO"));
+        publisher.publish(new CovenantStatusChange(1L, 10L, "ROSSO", "VERDE"));
+        publisher.publish(new CovenantStatusChange(2L, 10L, "GIALLO", "GIALLO"));
+
+        publisher.flush();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void flush_shouldSplitLargeBurstsIntoBatches() {
+        for (long id = 1; id <= 5; id++) {
+            publisher.publish(new CovenantStatusChange(id, 10L, "VERDE", "ROSSO"));
+        }
+
+        publisher.flush();
+
+        verify(messagingTemplate, times(3)).convertAndSend(eq(CovenantStatusStreamPublisher.TOPIC), anyList());
+    }
+}
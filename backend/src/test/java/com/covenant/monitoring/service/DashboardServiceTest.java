@@ -0,0 +1,66 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.DashboardSummary;
+import com.covenant.monitoring.dto.StatusCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+
+    @Mock
+    private CovenantStatusRollupService rollupService;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    private List<StatusCount> counts;
+
+    @BeforeEach
+    void setUp() {
+        counts = Arrays.asList(
+                new StatusCount("Italia", "Enel Green Power", "VERDE", 10L),
+                new StatusCount("Italia", "Enel Green Power", "ROSSO", 2L),
+                new StatusCount("Italia", "Enel Energia", "GIALLO", 3L),
+                new StatusCount("Spagna", "Endesa", "VERDE", 7L)
+        );
+    }
+
+    @Test
+    void getStatusSummary_shouldGroupByCountryAndCompany() {
+        when(rollupService.getCounts(anyCollection())).thenReturn(counts);
+
+        DashboardSummary result = dashboardService.getStatusSummary();
+
+        assertEquals(2, result.getCountryStatusSummary().size());
+        assertEquals("Italia", result.getCountryStatusSummary().get(0).getName());
+        assertEquals(10L, result.getCountryStatusSummary().get(0).getVerde());
+        assertEquals(3L, result.getCountryStatusSummary().get(0).getGiallo());
+        assertEquals(2L, result.getCountryStatusSummary().get(0).getRosso());
+        assertEquals(3, result.getCompanyStatusSummary().size());
+        assertEquals(22L, result.getTotals().getTotal());
+        verify(covenantRepository, times(1)).countByCountryAndLegalEntityAndStatus(anyCollection());
+    }
+
+    @Test
+    void getStatusSummary_withNoCovenants_shouldReturnEmptySummary() {
+        when(rollupService.getCounts(anyCollection())).thenReturn(List.of());
+
+        DashboardSummary result = dashboardService.getStatusSummary();
+
+        assertTrue(result.getCountryStatusSummary().isEmpty());
+        assertTrue(result.getCompanyStatusSummary().isEmpty());
+        assertEquals(0L, result.getTotals().getTotal());
+    }
+}
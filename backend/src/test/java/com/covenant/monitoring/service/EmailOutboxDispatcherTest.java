@@ -0,0 +1,124 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.model.EmailOutboxMessage;
+import com.covenant.monitoring.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, transactionManager,
+                new SimpleMeterRegistry(), "noreply@example.com", 10, 3,
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofMinutes(30), Duration.ofDays(30));
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(i -> new MimeMessage((Session) null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchPending_shouldSendTheBatchInOneCallAndMarkItSent() {
+        givenClaimedBatch(message(1L, 1), message(2L, 1));
+
+        int sent = dispatcher.dispatchPending();
+
+        assertEquals(2, sent);
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        ArgumentCaptor<Collection<Long>> sentIds = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(emailOutboxRepository).claim(anyCollection(), claimToken.capture(), any(), any());
+        verify(emailOutboxRepository).markSent(sentIds.capture(), eq(claimToken.getValue()), any(LocalDateTime.class));
+        assertEquals(List.of(1L, 2L), List.copyOf(sentIds.getValue()));
+        verify(emailOutboxRepository, never()).markFailed(anyLong(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void dispatchPending_withRejectedMessage_shouldRetryOnlyThatOneWithBackoff() {
+        givenClaimedBatch(message(1L, 1), message(2L, 2));
+        doAnswer(invocation -> {
+            MimeMessage[] messages = invocation.getArgument(0);
+            throw new MailSendException(Map.of(messages[1], new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        int sent = dispatcher.dispatchPending();
+
+        assertEquals(1, sent);
+        verify(emailOutboxRepository).markSent(eq(List.of(1L)), anyString(), any(LocalDateTime.class));
+        verify(emailOutboxRepository).markFailed(eq(2L), anyString(), eq(EmailOutboxMessage.STATUS_PENDING),
+                argThat(next -> next.isAfter(LocalDateTime.now().plusSeconds(50))), eq("550 mailbox unavailable"));
+    }
+
+    @Test
+    void dispatchPending_withAttemptsExhausted_shouldMarkFailed() {
+        givenClaimedBatch(message(1L, 3));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        assertEquals(0, dispatcher.dispatchPending());
+
+        verify(emailOutboxRepository).markFailed(eq(1L), anyString(), eq(EmailOutboxMessage.STATUS_FAILED),
+                any(LocalDateTime.class), eq("Connection refused"));
+        verify(emailOutboxRepository, never()).markSent(anyCollection(), anyString(), any());
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofMinutes(1), dispatcher.backoff(2));
+        assertEquals(Duration.ofMinutes(4), dispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(5));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(40));
+    }
+
+    private void givenClaimedBatch(EmailOutboxMessage... messages) {
+        List<Long> ids = Arrays.stream(messages).map(EmailOutboxMessage::getId).toList();
+        when(emailOutboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(ids);
+        when(emailOutboxRepository.findByClaimToken(anyString())).thenAnswer(invocation -> {
+            Arrays.stream(messages).forEach(message -> message.setClaimToken(invocation.getArgument(0)));
+            return List.of(messages);
+        });
+    }
+
+    private EmailOutboxMessage message(Long id, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setRecipient("user" + id + "@example.com");
+        message.setSubject("Promemoria Monitoraggio Covenant");
+        message.setBody("Ci sono 3 covenant che richiedono monitoraggio.");
+        message.setAttempts(attempts);
+        return message;
+    }
+}
@@ -0,0 +1,145 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.ContractListItem;
+import com.covenant.monitoring.dto.MonitoringResultListItem;
+import com.covenant.monitoring.repository.ContractRepository;
+import com.covenant.monitoring.repository.CovenantRepository;
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private CovenantRepository covenantRepository;
+
+    @Mock
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    void writeContracts_shouldWriteHeaderAndEveryRowAndCloseTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        // Oltre la finestra di SXSSF, per coprire lo scarico su file temporaneo
+        Stream<ContractListItem> rows = IntStream.rangeClosed(1, 250)
+                .mapToObj(i -> new ContractListItem((long) i, "CTR-" + i, "Enel Green Power", "Italia", "Finanziamento",
+                        BigDecimal.valueOf(1000L * i), "EUR", "Banca", "ATTIVO",
+                        LocalDate.of(2024, 1, 1), LocalDate.of(2029, 1, 1)))
+                .onClose(() -> closed.set(true));
+        when(contractRepository.streamListItems("ATTIVO", null, null)).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeContracts(out, "ATTIVO", null, null);
+
+        assertTrue(closed.get());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Contratti");
+            assertEquals(250, sheet.getLastRowNum());
+            assertEquals("ID Contratto", sheet.getRow(0).getCell(0).getStringCellValue());
+            Row last = sheet.getRow(250);
+            assertEquals("CTR-250", last.getCell(0).getStringCellValue());
+            assertEquals(250000.0, last.getCell(4).getNumericCellValue());
+            assertEquals(LocalDate.of(2024, 1, 1), last.getCell(8).getLocalDateTimeCellValue().toLocalDate());
+        }
+    }
+
+    @Test
+    void writeWorkbook_overSheetRowLimit_shouldContinueOnNewSheets() throws Exception {
+        List<ExportService.Column<Integer>> columns = List.of(new ExportService.Column<Integer>("Numero", 10, i -> BigDecimal.valueOf(i)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // 10 righe per foglio: intestazione + 9 righe di dati
+        exportService.writeWorkbook(out, "Dati", columns, IntStream.rangeClosed(1, 20).boxed(), 10);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            assertEquals("Dati (2)", workbook.getSheetName(1));
+            Sheet second = workbook.getSheet("Dati (2)");
+            assertEquals("Numero", second.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(10.0, second.getRow(1).getCell(0).getNumericCellValue());
+            Sheet third = workbook.getSheet("Dati (3)");
+            assertEquals(2, third.getLastRowNum());
+            assertEquals(20.0, third.getRow(2).getCell(0).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void writeMonitoringHistoryNdjson_shouldWriteOneJsonObjectPerLine() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Stream<MonitoringResultListItem> rows = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> new MonitoringResultListItem((long) i, "VERDE", from.plusMonths(i), "Nota " + i,
+                        10L, "COV-1", "Debt Service Coverage Ratio", 20L, "CTR-1", "Enel Green Power", "Italia",
+                        30L, "mrossi", "Mario", "Rossi"));
+        when(monitoringResultRepository.streamHistory(from, null, "CTR-1")).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.writeMonitoringHistoryNdjson(out, from, null, "CTR-1");
+
+        assertEquals(3, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("2024-02-01T00:00:00", first.get("monitoringDate").asText());
+        assertEquals("CTR-1", first.get("covenant").get("contract").get("contractId").asText());
+    }
+
+    @Test
+    void writeMonitoringHistoryNdjson_shouldFlushOncePerBlockOfRows() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Stream<MonitoringResultListItem> rows = IntStream.rangeClosed(1, 2500)
+                .mapToObj(i -> new MonitoringResultListItem((long) i, "VERDE", from, null,
+                        10L, "COV-1", "Debt Service Coverage Ratio", 20L, "CTR-1", "Enel Green Power", "Italia",
+                        30L, "mrossi", "Mario", "Rossi"));
+        when(monitoringResultRepository.streamHistory(null, null, null)).thenReturn(rows);
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        exportService.writeMonitoringHistoryNdjson(out, null, null, null);
+
+        // Dopo 1000 e 2000 righe, piu' il flush finale e quello alla chiusura del generatore
+        assertEquals(4, flushes.get());
+    }
+}
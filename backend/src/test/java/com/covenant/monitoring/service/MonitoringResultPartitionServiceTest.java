@@ -0,0 +1,66 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.repository.MonitoringResultRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MonitoringResultPartitionServiceTest {
+
+    @Mock
+    private MonitoringResultRepository monitoringResultRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Test
+    void maintainPartitions_shouldCreateUpcomingQuartersAndDetachExpiredOnes() {
+        MonitoringResultPartitionService service = new MonitoringResultPartitionService(monitoringResultRepository,
+                schedulerLockService, true, 4, 8);
+        LocalDate currentQuarter = MonitoringResultPartitionService.quarterStart(LocalDate.now());
+        when(schedulerLockService.tryAcquire("maintainPartitions")).thenReturn(true);
+        when(monitoringResultRepository.ensurePartitions(any(), any())).thenReturn(1);
+        when(monitoringResultRepository.detachPartitionsBefore(any())).thenReturn(List.of("monitoring_results_2020_q1"));
+
+        service.maintainPartitions();
+
+        verify(monitoringResultRepository, times(1)).ensurePartitions(currentQuarter, currentQuarter.plusMonths(12));
+        verify(monitoringResultRepository, times(1)).detachPartitionsBefore(currentQuarter.minusMonths(24));
+    }
+
+    @Test
+    void maintainPartitions_whenDisabled_shouldNotTouchDatabase() {
+        MonitoringResultPartitionService service = new MonitoringResultPartitionService(monitoringResultRepository,
+                schedulerLockService, false, 4, 8);
+
+        service.maintainPartitions();
+
+        verifyNoInteractions(monitoringResultRepository, schedulerLockService);
+    }
+
+    @Test
+    void maintainPartitions_whenLockHeldByAnotherNode_shouldNotTouchDatabase() {
+        MonitoringResultPartitionService service = new MonitoringResultPartitionService(monitoringResultRepository,
+                schedulerLockService, true, 4, 8);
+        when(schedulerLockService.tryAcquire("maintainPartitions")).thenReturn(false);
+
+        service.maintainPartitions();
+
+        verifyNoInteractions(monitoringResultRepository);
+    }
+
+    @Test
+    void quarterStart_shouldReturnFirstDayOfQuarter() {
+        assertEquals(LocalDate.of(2024, 4, 1), MonitoringResultPartitionService.quarterStart(LocalDate.of(2024, 6, 30)));
+        assertEquals(LocalDate.of(2024, 10, 1), MonitoringResultPartitionService.quarterStart(LocalDate.of(2024, 10, 1)));
+    }
+}
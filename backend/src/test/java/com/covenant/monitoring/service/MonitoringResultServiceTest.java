@@ -1,15 +1,21 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.CursorPage;
+import com.covenant.monitoring.dto.MonitoringResultListItem;
 import com.covenant.monitoring.model.MonitoringResult;
+import com.covenant.monitoring.repository.CovenantLatestResultRepository;
 import com.covenant.monitoring.repository.MonitoringResultRepository;
+import com.covenant.monitoring.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +31,15 @@ public class MonitoringResultServiceTest {
     @Mock
     private MonitoringResultRepository monitoringResultRepository;
 
+    @Mock
+    private CovenantLatestResultRepository latestResultRepository;
+
+    @Mock
+    private CovenantService covenantService;
+
+    @Mock
+    private UserRepository userRepository;
+
     @InjectMocks
     private MonitoringResultService monitoringResultService;
 
@@ -184,4 +199,38 @@ public class MonitoringResultServiceTest {
         assertEquals("Non Compliant", result.get(0).getStatus());
         verify(monitoringResultRepository, times(1)).findByStatus("Non Compliant");
     }
+
+    @Test
+    void getMonitoringResultsPage_withMoreRows_shouldReturnNextCursorAndPassFilters() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 6, 30, 23, 59);
+        when(monitoringResultRepository.findPage(5L, "VERDE", "Spagna", null, from, to, PageRequest.of(0, 3)))
+                .thenReturn(List.of(listItem(6L), listItem(7L), listItem(8L)));
+
+        CursorPage<MonitoringResultListItem> result = monitoringResultService.getMonitoringResultsPage(5L, 2, "VERDE",
+                "Spagna", null, from, to);
+
+        assertEquals(List.of(6L, 7L), result.getItems().stream().map(MonitoringResultListItem::getId).toList());
+        assertTrue(result.isHasMore());
+        assertEquals(7L, result.getNextCursor());
+    }
+
+    @Test
+    void getMonitoringResultsPage_withLastPage_shouldReturnNoCursor() {
+        when(monitoringResultRepository.findPage(7L, null, null, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(listItem(8L)));
+
+        CursorPage<MonitoringResultListItem> result = monitoringResultService.getMonitoringResultsPage(7L, 2, null,
+                null, null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+
+    private MonitoringResultListItem listItem(Long id) {
+        return new MonitoringResultListItem(id, "VERDE", LocalDateTime.of(2024, 3, 31, 0, 0), null,
+                10L, "COV-1", "Debt Service Coverage Ratio", 20L, "CTR-1", "Endesa", "Spagna",
+                30L, "mrossi", "Mario", "Rossi");
+    }
 }
@@ -0,0 +1,126 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.dto.NotificationView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationPushServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Esecutore diretto: gli invii avvengono nel thread del test
+        pushService = new NotificationPushService(60000, meterRegistry, Runnable::run);
+    }
+
+    @Test
+    void subscribe_shouldRegisterConnectionAndSendInitialCount() {
+        AtomicInteger countRequests = new AtomicInteger();
+
+        assertNotNull(pushService.subscribe(1L, Set.of("ROLE_ADMIN"), () -> { countRequests.incrementAndGet(); return 3; }));
+        pushService.subscribe(1L, Set.of("ROLE_ADMIN"), () -> 3);
+        pushService.subscribe(2L, Set.of("ROLE_LEGAL_COUNTRY"), () -> 0);
+
+        assertEquals(3, pushService.getConnectionCount());
+        assertEquals(3.0, meterRegistry.get("notifications.sse.connections").gauge().value());
+        assertEquals(1, countRequests.get());
+    }
+
+    @Test
+    void publish_shouldReachOnlyTheRecipientConnections() {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        pushService.subscribe(1L, Set.of("ROLE_ADMIN"), first::incrementAndGet);
+        pushService.subscribe(2L, Set.of("ROLE_ADMIN"), second::incrementAndGet);
+
+        pushService.publish(1L, view(10L, false));
+
+        // Conteggio iniziale piu' quello inviato insieme alla notifica
+        assertEquals(2, first.get());
+        assertEquals(1, second.get());
+    }
+
+    @Test
+    void publishToRoles_shouldReachOnlyMatchingRoles() {
+        AtomicInteger finance = new AtomicInteger();
+        AtomicInteger legal = new AtomicInteger();
+        pushService.subscribe(1L, Set.of("ROLE_FINANCE_HOLDING"), finance::incrementAndGet);
+        pushService.subscribe(2L, Set.of("ROLE_LEGAL_COUNTRY"), legal::incrementAndGet);
+
+        pushService.publishToRoles(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY"), view(20L, true));
+        pushService.publishUnreadCount(2L);
+
+        assertEquals(2, finance.get());
+        assertEquals(2, legal.get());
+    }
+
+    @Test
+    void publishUnreadCounts_shouldRefreshOnlyTheRecipients() {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        AtomicInteger legal = new AtomicInteger();
+        pushService.subscribe(1L, Set.of("ROLE_FINANCE_HOLDING"), first::incrementAndGet);
+        pushService.subscribe(2L, Set.of("ROLE_FINANCE_HOLDING"), second::incrementAndGet);
+        pushService.subscribe(3L, Set.of("ROLE_LEGAL_COUNTRY"), legal::incrementAndGet);
+
+        pushService.publishUnreadCounts(List.of(1L, 2L));
+        pushService.publishUnreadCountsForRoles(List.of("ROLE_LEGAL_COUNTRY"));
+
+        assertEquals(2, first.get());
+        assertEquals(2, second.get());
+        assertEquals(2, legal.get());
+    }
+
+    @Test
+    void publish_shouldWriteOnThePushExecutorInOrder() {
+        List<Runnable> tasks = new ArrayList<>();
+        NotificationPushService deferred = new NotificationPushService(60000, meterRegistry, tasks::add);
+        AtomicInteger counts = new AtomicInteger();
+        deferred.subscribe(1L, Set.of("ROLE_ADMIN"), counts::incrementAndGet);
+
+        deferred.publish(1L, view(10L, false));
+        deferred.publishUnreadCount(1L);
+
+        // Il thread chiamante accoda soltanto; un solo task svuota la coda della connessione
+        assertEquals(1, counts.get());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(3, counts.get());
+    }
+
+    @Test
+    void tooManyPendingEvents_shouldCloseTheSlowConnection() {
+        NotificationPushService stalled = new NotificationPushService(60000, meterRegistry, task -> { });
+        stalled.subscribe(1L, Set.of("ROLE_ADMIN"), () -> 0);
+        stalled.subscribe(2L, Set.of("ROLE_ADMIN"), () -> 0);
+
+        for (int i = 0; i <= NotificationPushService.MAX_PENDING_EVENTS; i++) {
+            stalled.publishUnreadCount(1L);
+        }
+
+        assertEquals(1, stalled.getConnectionCount());
+    }
+
+    @Test
+    void sendHeartbeats_withNoConnections_shouldDoNothing() {
+        pushService.sendHeartbeats();
+
+        assertEquals(0, pushService.getConnectionCount());
+    }
+
+    private NotificationView view(Long id, boolean broadcast) {
+        return new NotificationView(id, "Covenant in scadenza", "Messaggio", false, LocalDateTime.now(), broadcast);
+    }
+}
@@ -1,6 +1,10 @@
 package com.covenant.monitoring.service;
 
+import com.covenant.monitoring.dto.NotificationView;
+import com.covenant.monitoring.model.BroadcastNotification;
 import com.covenant.monitoring.model.Notification;
+import com.covenant.monitoring.repository.BroadcastNotificationRepository;
+import com.covenant.monitoring.repository.BroadcastReceiptRepository;
 import com.covenant.monitoring.repository.NotificationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,15 +12,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +33,21 @@ public class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Mock
+    private BroadcastReceiptRepository broadcastReceiptRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
+    @Mock
+    private NotificationPushService pushService;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -194,4 +217,153 @@ public class NotificationServiceTest {
         assertEquals("Warning", result.get(0).getType());
         verify(notificationRepository, times(1)).findByType("Warning");
     }
+
+    @Test
+    void getNotificationViews_shouldMergeDirectAndBroadcastNewestFirst() {
+        Set<String> roles = Set.of("ROLE_FINANCE_HOLDING");
+        when(notificationRepository.findViewsByUserId(1L)).thenReturn(List.of(
+                new NotificationView(10L, "Diretta", "Messaggio", false, LocalDateTime.now().minusDays(2), false)));
+        when(broadcastNotificationRepository.findViewsForUser(1L, roles)).thenReturn(List.of(
+                new NotificationView(60L, "Broadcast", "Messaggio", null, LocalDateTime.now().minusDays(1), true)));
+
+        List<NotificationView> result = notificationService.getNotificationViews(1L, roles);
+
+        assertEquals(2, result.size());
+        assertEquals(60L, result.get(0).getId());
+        assertTrue(result.get(0).isBroadcast());
+        assertFalse(result.get(0).getIsRead());
+        assertEquals(10L, result.get(1).getId());
+    }
+
+    @Test
+    void markAsReadForUser_withBroadcast_shouldWriteReceiptOnly() {
+        Set<String> roles = Set.of("ROLE_FINANCE_HOLDING");
+        BroadcastNotification broadcast = new BroadcastNotification();
+        broadcast.setId(60L);
+        broadcast.setTitle("Broadcast");
+        when(notificationRepository.existsByIdAndUserId(60L, 1L)).thenReturn(false);
+        when(broadcastNotificationRepository.isAddressedTo(60L, roles)).thenReturn(true);
+        when(broadcastNotificationRepository.findById(60L)).thenReturn(Optional.of(broadcast));
+        when(broadcastReceiptRepository.setRead(60L, 1L)).thenReturn(0);
+        when(broadcastReceiptRepository.insertRead(60L, 1L)).thenReturn(1);
+
+        Optional<NotificationView> result = notificationService.markAsReadForUser(60L, 1L, roles);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().getIsRead());
+        verify(broadcastReceiptRepository, times(1)).setRead(60L, 1L);
+        verify(broadcastReceiptRepository, times(1)).insertRead(60L, 1L);
+        verify(unreadCounter, times(1)).decrement(1L);
+        verify(pushService, times(1)).publishUnreadCount(1L);
+        verify(notificationRepository, never()).save(any(Notification.class));
+    }
+
+    @Test
+    void markAsReadForUser_withNotificationOfAnotherUser_shouldReturnEmpty() {
+        when(notificationRepository.existsByIdAndUserId(1L, 2L)).thenReturn(false);
+
+        Optional<NotificationView> result = notificationService.markAsReadForUser(1L, 2L, Set.of());
+
+        assertTrue(result.isEmpty());
+        verify(notificationRepository, never()).findById(anyLong());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verifyNoInteractions(broadcastNotificationRepository, broadcastReceiptRepository, unreadCounter);
+    }
+
+    @Test
+    void deleteForUser_withOwnNotification_shouldDeleteIt() {
+        when(notificationRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(notificationRepository.existsByIdAndUserIdAndIsRead(1L, 1L, false)).thenReturn(true);
+
+        assertTrue(notificationService.deleteForUser(1L, 1L, Set.of("ROLE_FINANCE_HOLDING")));
+
+        verify(notificationRepository, times(1)).deleteById(1L);
+        verify(unreadCounter, times(1)).decrement(1L);
+        verifyNoInteractions(broadcastNotificationRepository, broadcastReceiptRepository);
+    }
+
+    @Test
+    void deleteForUser_withNotificationOfAnotherUser_shouldNotDelete() {
+        Set<String> roles = Set.of("ROLE_FINANCE_COUNTRY");
+        when(notificationRepository.existsByIdAndUserId(1L, 2L)).thenReturn(false);
+        when(broadcastNotificationRepository.isAddressedTo(1L, roles)).thenReturn(false);
+
+        assertFalse(notificationService.deleteForUser(1L, 2L, roles));
+
+        verify(notificationRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(broadcastReceiptRepository, unreadCounter, pushService);
+    }
+
+    @Test
+    void deleteForUser_withBroadcastReceiptInsertedConcurrently_shouldRetryUpdate() {
+        Set<String> roles = Set.of("ROLE_FINANCE_HOLDING");
+        when(notificationRepository.existsByIdAndUserId(60L, 1L)).thenReturn(false);
+        when(broadcastNotificationRepository.isAddressedTo(60L, roles)).thenReturn(true);
+        when(broadcastReceiptRepository.setDeleted(60L, 1L)).thenReturn(0, 1);
+        when(broadcastReceiptRepository.insertDeleted(60L, 1L)).thenReturn(0);
+
+        assertTrue(notificationService.deleteForUser(60L, 1L, roles));
+
+        verify(broadcastReceiptRepository, times(2)).setDeleted(60L, 1L);
+    }
+
+    @Test
+    void purgeBroadcastsBefore_shouldDeleteReceiptsAndBroadcasts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        BroadcastNotification expired = new BroadcastNotification();
+        expired.setId(60L);
+        when(broadcastNotificationRepository.findByCreatedAtBefore(cutoff)).thenReturn(List.of(expired));
+
+        assertEquals(1, notificationService.purgeBroadcastsBefore(cutoff));
+
+        verify(broadcastReceiptRepository, times(1)).deleteByBroadcastIdIn(List.of(60L));
+        verify(broadcastNotificationRepository, times(1)).deleteAll(List.of(expired));
+    }
+
+    @Test
+    void broadcast_shouldSaveOneRowForAllRoles() {
+        when(broadcastNotificationRepository.save(any(BroadcastNotification.class))).thenAnswer(i -> i.getArgument(0));
+
+        BroadcastNotification result = notificationService.broadcast(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY"),
+                "Promemoria", "Messaggio");
+
+        assertEquals(Set.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY"), result.getTargetRoles());
+        verify(broadcastNotificationRepository, times(1)).save(any(BroadcastNotification.class));
+        verify(unreadCounter, times(1)).incrementForRoles(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY"));
+        verify(pushService, times(1)).publishToRoles(eq(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY")),
+                argThat(view -> view.isBroadcast() && !view.getIsRead()));
+    }
+
+    @Test
+    void createNotifications_shouldInsertOneBatchPerRecipientSet() {
+        int created = notificationService.createNotifications(List.of(1L, 2L, 2L, 3L), "Promemoria", "Messaggio");
+
+        assertEquals(3, created);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat(ids -> ids.size() == 3), anyInt(), any());
+        verify(unreadCounter, times(1)).increment(1L);
+        verify(unreadCounter, times(1)).increment(2L);
+        verify(unreadCounter, times(1)).increment(3L);
+        verify(pushService, times(1)).publishUnreadCounts(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L, 3L))));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void createNotifications_withoutRecipients_shouldDoNothing() {
+        assertEquals(0, notificationService.createNotifications(List.of(), "Promemoria", "Messaggio"));
+
+        verifyNoInteractions(jdbcTemplate, unreadCounter, pushService);
+    }
+
+    @Test
+    void createNotificationsForRoles_shouldInsertWithSingleStatement() {
+        List<String> roles = List.of("ROLE_FINANCE_HOLDING");
+        when(notificationRepository.insertForRoles(roles, "Promemoria", "Messaggio")).thenReturn(10_000);
+
+        assertEquals(10_000, notificationService.createNotificationsForRoles(roles, "Promemoria", "Messaggio"));
+
+        verify(notificationRepository, times(1)).insertForRoles(roles, "Promemoria", "Messaggio");
+        verify(unreadCounter, times(1)).incrementForRoles(roles);
+        verify(pushService, times(1)).publishUnreadCountsForRoles(roles);
+        verifyNoInteractions(jdbcTemplate);
+    }
 }
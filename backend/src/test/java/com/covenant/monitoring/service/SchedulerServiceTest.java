@@ -0,0 +1,107 @@
+package com.covenant.monitoring.service;
+
+import com.covenant.monitoring.model.BroadcastNotification;
+import com.covenant.monitoring.repository.CovenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SchedulerServiceTest {
+
+    @Mock
+    private CovenantRepository covenantRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private SchedulerService schedulerService;
+
+    @BeforeEach
+    void setUp() {
+        schedulerService = new SchedulerService(covenantRepository, notificationService, emailOutboxService,
+                schedulerLockService, false, Duration.ofDays(90));
+        lenient().when(schedulerLockService.tryAcquire(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void sendMonitoringReminders_withLockHeldByAnotherNode_shouldSkip() {
+        when(schedulerLockService.tryAcquire("sendMonitoringReminders")).thenReturn(false);
+
+        schedulerService.sendMonitoringReminders();
+
+        verifyNoInteractions(covenantRepository, notificationService, emailOutboxService);
+    }
+
+    @Test
+    void sendMonitoringReminders_shouldBroadcastToFinanceRolesWithCount() {
+        when(covenantRepository.countByNextDueDateLessThanEqual(any(LocalDateTime.class))).thenReturn(12L);
+        when(notificationService.broadcast(anyCollection(), anyString(), anyString())).thenReturn(new BroadcastNotification());
+
+        schedulerService.sendMonitoringReminders();
+
+        verify(notificationService).broadcast(eq(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY")),
+                eq("Promemoria Monitoraggio Covenant"), contains("12 covenant"));
+        verifyNoInteractions(emailOutboxService);
+    }
+
+    @Test
+    void sendQuarterlyMonitoringReminders_withEmailEnabled_shouldQueueEmails() {
+        schedulerService = new SchedulerService(covenantRepository, notificationService, emailOutboxService,
+                schedulerLockService, true, Duration.ofDays(90));
+        when(notificationService.broadcast(anyCollection(), anyString(), anyString())).thenReturn(new BroadcastNotification());
+
+        schedulerService.sendQuarterlyMonitoringReminders();
+
+        verify(emailOutboxService, times(1)).enqueueForRoles(eq(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY")),
+                eq("Monitoraggio Trimestrale Covenant"), anyString());
+    }
+
+    @Test
+    void sendMonitoringReminders_withNoDueCovenants_shouldNotNotify() {
+        when(covenantRepository.countByNextDueDateLessThanEqual(any(LocalDateTime.class))).thenReturn(0L);
+
+        schedulerService.sendMonitoringReminders();
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void sendReminderForUnmonitoredCovenants_shouldCountByStatus() {
+        when(covenantRepository.countByStatus("GIALLO")).thenReturn(0L);
+        when(covenantRepository.countByStatus("ROSSO")).thenReturn(3L);
+        when(notificationService.broadcast(anyCollection(), anyString(), anyString())).thenReturn(new BroadcastNotification());
+
+        schedulerService.sendReminderForUnmonitoredCovenants();
+
+        verify(notificationService, times(1)).broadcast(
+                argThat(roles -> roles.contains("ROLE_LEGAL_COUNTRY")),
+                eq("URGENTE: Covenant non Rispettati"), contains("3 covenant"));
+        verify(covenantRepository, never()).findByStatus(anyString());
+    }
+
+    @Test
+    void purgeExpiredBroadcasts_shouldDeleteBroadcastsOlderThanRetention() {
+        LocalDateTime before = LocalDateTime.now().minusDays(90);
+
+        schedulerService.purgeExpiredBroadcasts();
+
+        verify(notificationService).purgeBroadcastsBefore(argThat(cutoff ->
+                !cutoff.isBefore(before) && cutoff.isBefore(LocalDateTime.now().minusDays(89))));
+    }
+}
@@ -0,0 +1,49 @@
+package com.covenant.monitoring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnreadNotificationCounterTest {
+
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter(100, Duration.ofMinutes(5));
+
+    @Test
+    void get_shouldLoadOnceAndThenServeFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(3, counter.get(1L, Set.of("ROLE_ADMIN"), () -> { loads.incrementAndGet(); return 3; }));
+        assertEquals(3, counter.get(1L, Set.of("ROLE_ADMIN"), () -> { loads.incrementAndGet(); return 99; }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void incrementAndDecrement_shouldAdjustCachedUsersOnly() {
+        counter.get(1L, Set.of("ROLE_ADMIN"), () -> 1);
+
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.decrement(1L);
+        counter.decrement(1L);
+        counter.decrement(1L);
+
+        assertEquals(0, counter.get(1L, Set.of("ROLE_ADMIN"), () -> 99));
+        assertEquals(7, counter.get(2L, Set.of("ROLE_ADMIN"), () -> 7));
+    }
+
+    @Test
+    void incrementForRoles_shouldMatchUsersByRole() {
+        counter.get(1L, Set.of("ROLE_FINANCE_HOLDING"), () -> 0);
+        counter.get(2L, Set.of("ROLE_LEGAL_COUNTRY"), () -> 0);
+
+        counter.incrementForRoles(List.of("ROLE_FINANCE_HOLDING", "ROLE_FINANCE_COUNTRY"));
+
+        assertEquals(1, counter.get(1L, Set.of(), () -> 99));
+        assertEquals(0, counter.get(2L, Set.of(), () -> 99));
+    }
+}
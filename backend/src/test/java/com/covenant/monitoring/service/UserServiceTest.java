@@ -2,6 +2,8 @@ package com.covenant.monitoring.service;
 
 import com.covenant.monitoring.model.User;
 import com.covenant.monitoring.repository.UserRepository;
+import com.covenant.monitoring.security.JwtUserDetailsService;
+import com.covenant.monitoring.security.TokenRevocationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +31,15 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private JwtUserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
     @InjectMocks
     private UserService userService;
 
@@ -119,6 +130,19 @@ public class UserServiceTest {
         assertEquals("encoded_password", result.getPassword());
         verify(passwordEncoder, times(1)).encode("password123");
         verify(userRepository, times(1)).save(any(User.class));
+        verify(tokenRevocationService, never()).revokeUser(anyLong());
+        verify(unreadNotificationCounter, never()).evict(anyLong());
+    }
+
+    @Test
+    void saveUser_withExistingUser_shouldRevokeTokensAndEvictUnreadCount() {
+        when(userRepository.save(user1)).thenReturn(user1);
+
+        userService.saveUser(user1);
+
+        verify(userDetailsService, times(1)).evictUser(1L, "admin@example.com");
+        verify(tokenRevocationService, times(1)).revokeUser(1L);
+        verify(unreadNotificationCounter, times(1)).evict(1L);
     }
 
     @Test
@@ -215,6 +239,8 @@ public class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository, times(1)).deleteById(1L);
+        verify(tokenRevocationService, times(1)).revokeUser(1L);
+        verify(unreadNotificationCounter, times(1)).evict(1L);
     }
 
     @Test
@@ -0,0 +1,49 @@
+package com.covenant.monitoring.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conta le istruzioni SQL preparate da Hibernate. Registrato come statement
+ * inspector da {@link QueryCountTestConfig}, permette di verificare che un
+ * endpoint esegua un numero fisso di query indipendente dalla dimensione dei dati.
+ * Il conteggio e' per thread: MockMvc esegue la richiesta sul thread del test, mentre
+ * le query dei job @Scheduled (outbox, rollup, lock) girano su altri thread e non vengono contate.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get().set(0);
+    }
+
+    // Istruzioni eseguite dal thread corrente dall'ultimo reset
+    public static int count() {
+        return COUNT.get().get();
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+    // Esegue l'azione e fallisce se ha generato più di maxStatements istruzioni SQL
+    public static int assertMaxStatements(int maxStatements, SqlAction action) throws Exception {
+        reset();
+        action.run();
+        int executed = count();
+        assertTrue(executed <= maxStatements,
+                "Attese al massimo " + maxStatements + " istruzioni SQL, eseguite " + executed);
+        return executed;
+    }
+}
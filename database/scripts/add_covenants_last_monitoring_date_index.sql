@@ -0,0 +1,3 @@
+-- Indice per i conteggi dei job schedulati (covenant non monitorati da una certa data).
+-- CONCURRENTLY non blocca le scritture: va eseguito fuori da una transazione.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_covenants_last_monitoring_date ON covenants(last_monitoring_date);
@@ -0,0 +1,22 @@
+-- Scadenza del prossimo monitoraggio per covenant, con frequenza configurabile.
+-- I covenant mai monitorati risultano in scadenza dalla data di creazione.
+BEGIN;
+
+ALTER TABLE covenants ADD COLUMN IF NOT EXISTS monitoring_frequency_months INTEGER NOT NULL DEFAULT 3
+    CHECK (monitoring_frequency_months >= 1);
+ALTER TABLE covenants ADD COLUMN IF NOT EXISTS next_due_date TIMESTAMP;
+
+UPDATE covenants
+SET next_due_date = COALESCE(last_monitoring_date + make_interval(months => monitoring_frequency_months),
+                             created_at, CURRENT_TIMESTAMP)
+WHERE next_due_date IS NULL;
+
+ALTER TABLE covenants ALTER COLUMN next_due_date SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE covenants ALTER COLUMN next_due_date SET NOT NULL;
+
+COMMIT;
+
+-- CONCURRENTLY non blocca le scritture: va eseguito fuori da una transazione.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_covenants_next_due_date ON covenants(next_due_date);
+
+ANALYZE covenants;
@@ -0,0 +1,3 @@
+-- Indice per le liste e il conteggio delle notifiche non lette di un utente.
+-- CONCURRENTLY non blocca le scritture: va eseguito fuori da una transazione.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_id_is_read ON notifications(user_id, is_read);
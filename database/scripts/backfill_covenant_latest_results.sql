@@ -0,0 +1,12 @@
+-- Popola covenant_latest_results da monitoring_results per un database esistente.
+-- Idempotente: puo' essere rieseguito per riallineare la tabella.
+
+INSERT INTO covenant_latest_results (covenant_id, monitoring_result_id, monitoring_date, status, updated_at)
+SELECT DISTINCT ON (covenant_id) covenant_id, id, monitoring_date, status, CURRENT_TIMESTAMP
+FROM monitoring_results
+ORDER BY covenant_id, monitoring_date DESC, id DESC
+ON CONFLICT (covenant_id) DO UPDATE
+SET monitoring_result_id = EXCLUDED.monitoring_result_id,
+    monitoring_date = EXCLUDED.monitoring_date,
+    status = EXCLUDED.status,
+    updated_at = CURRENT_TIMESTAMP;
@@ -7,10 +7,13 @@ CREATE DATABASE covenant_monitoring;
 \c covenant_monitoring;
 
 -- Creazione delle tabelle
+-- Gli id sono generati da sequence con incremento 50 (optimizer "pooled" di Hibernate):
+-- il backend riserva blocchi di id con una sola chiamata e può così usare i batch JDBC
 
 -- Tabella degli utenti
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE users (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('users_seq'),
     username VARCHAR(50) NOT NULL UNIQUE,
     password VARCHAR(100) NOT NULL,
     email VARCHAR(100) NOT NULL UNIQUE,
@@ -22,24 +25,26 @@ CREATE TABLE users (
 );
 
 -- Tabella dei ruoli
+CREATE SEQUENCE roles_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE roles (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('roles_seq'),
     name VARCHAR(50) NOT NULL UNIQUE,
     description VARCHAR(255)
 );
 
 -- Tabella di relazione utenti-ruoli
 CREATE TABLE user_roles (
-    user_id INTEGER NOT NULL,
-    role_id INTEGER NOT NULL,
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
     PRIMARY KEY (user_id, role_id),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE
 );
 
 -- Tabella dei contratti finanziari
+CREATE SEQUENCE contracts_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE contracts (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('contracts_seq'),
     contract_id VARCHAR(50) NOT NULL UNIQUE,
     legal_entity VARCHAR(100) NOT NULL,
     country VARCHAR(50) NOT NULL,
@@ -58,9 +63,10 @@ CREATE TABLE contracts (
 );
 
 -- Tabella dei documenti contrattuali
+CREATE SEQUENCE contract_documents_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE contract_documents (
-    id SERIAL PRIMARY KEY,
-    contract_id INTEGER NOT NULL,
+    id BIGINT PRIMARY KEY DEFAULT nextval('contract_documents_seq'),
+    contract_id BIGINT NOT NULL,
     document_name VARCHAR(255) NOT NULL,
     document_type VARCHAR(50) NOT NULL,
     file_path VARCHAR(255) NOT NULL,
@@ -69,15 +75,18 @@ CREATE TABLE contract_documents (
 );
 
 -- Tabella dei covenant
+CREATE SEQUENCE covenants_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE covenants (
-    id SERIAL PRIMARY KEY,
-    contract_id INTEGER NOT NULL,
+    id BIGINT PRIMARY KEY DEFAULT nextval('covenants_seq'),
+    contract_id BIGINT NOT NULL,
     covenant_id VARCHAR(50) NOT NULL,
     title VARCHAR(255) NOT NULL,
     has_cure_period BOOLEAN DEFAULT FALSE,
     contract_article VARCHAR(50),
     status VARCHAR(20) DEFAULT 'PENDING',
     last_monitoring_date TIMESTAMP,
+    monitoring_frequency_months INTEGER NOT NULL DEFAULT 3 CHECK (monitoring_frequency_months >= 1),
+    next_due_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     future_risks TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -85,9 +94,10 @@ CREATE TABLE covenants (
 );
 
 -- Tabella delle ownership dei covenant
+CREATE SEQUENCE covenant_owners_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE covenant_owners (
-    id SERIAL PRIMARY KEY,
-    covenant_id INTEGER NOT NULL,
+    id BIGINT PRIMARY KEY DEFAULT nextval('covenant_owners_seq'),
+    covenant_id BIGINT NOT NULL,
     owner_name VARCHAR(100) NOT NULL,
     owner_unit VARCHAR(100) NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -96,22 +106,93 @@ CREATE TABLE covenant_owners (
 );
 
 -- Tabella dei risultati del monitoraggio
+-- Partizionata per trimestre su monitoring_date: le query per intervallo di date leggono solo
+-- le partizioni interessate e i trimestri vecchi si archiviano con DETACH PARTITION invece di DELETE.
+-- La chiave primaria deve includere la colonna di partizionamento; l'unicita' di id e' garantita dalla sequence
+CREATE SEQUENCE monitoring_results_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE monitoring_results (
-    id SERIAL PRIMARY KEY,
-    covenant_id INTEGER NOT NULL,
+    id BIGINT NOT NULL DEFAULT nextval('monitoring_results_seq'),
+    covenant_id BIGINT NOT NULL,
     status VARCHAR(20) NOT NULL,
     monitoring_date TIMESTAMP NOT NULL,
     notes TEXT,
-    created_by INTEGER NOT NULL,
+    created_by BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, monitoring_date),
     FOREIGN KEY (covenant_id) REFERENCES covenants(id) ON DELETE CASCADE,
     FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE CASCADE
-);
+) PARTITION BY RANGE (monitoring_date);
+
+-- Raccoglie le righe fuori dai trimestri creati (es. date molto vecchie inserite a mano)
+CREATE TABLE monitoring_results_default PARTITION OF monitoring_results DEFAULT;
+
+-- Crea le partizioni trimestrali mancanti (monitoring_results_AAAA_qN) tra due date.
+-- Le righe del trimestre gia' finite nella partizione di default vengono spostate nella nuova
+-- tabella prima dell'ATTACH: CREATE TABLE ... PARTITION OF fallirebbe con righe in conflitto
+CREATE OR REPLACE FUNCTION ensure_monitoring_results_partitions(from_date DATE, to_date DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    quarter_start DATE := date_trunc('quarter', from_date)::DATE;
+    quarter_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE quarter_start <= to_date LOOP
+        quarter_end := (quarter_start + INTERVAL '3 months')::DATE;
+        partition_name := format('monitoring_results_%s_q%s',
+                                 to_char(quarter_start, 'YYYY'), extract(QUARTER FROM quarter_start));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE monitoring_results INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                           partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM monitoring_results_default ' ||
+                           'WHERE monitoring_date >= %L AND monitoring_date < %L RETURNING *) ' ||
+                           'INSERT INTO %I SELECT * FROM moved',
+                           quarter_start, quarter_end, partition_name);
+            EXECUTE format('ALTER TABLE monitoring_results ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, quarter_start, quarter_end);
+            created := created + 1;
+        END IF;
+        quarter_start := quarter_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Stacca le partizioni trimestrali interamente precedenti a cutoff. Le tabelle restano nel
+-- database come tabelle autonome, da esportare e poi eliminare; restituisce i nomi staccati
+CREATE OR REPLACE FUNCTION detach_monitoring_results_partitions_before(cutoff DATE)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    part RECORD;
+    quarter_end DATE;
+BEGIN
+    FOR part IN
+        SELECT c.relname,
+               substring(c.relname FROM 'monitoring_results_(\d{4})_q\d')::INTEGER AS part_year,
+               substring(c.relname FROM 'monitoring_results_\d{4}_q(\d)')::INTEGER AS part_quarter
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'monitoring_results'::regclass
+          AND c.relname ~ '^monitoring_results_\d{4}_q\d$'
+        ORDER BY c.relname
+    LOOP
+        quarter_end := (make_date(part.part_year, (part.part_quarter - 1) * 3 + 1, 1) + INTERVAL '3 months')::DATE;
+        IF quarter_end <= cutoff THEN
+            EXECUTE format('ALTER TABLE monitoring_results DETACH PARTITION %I', part.relname);
+            RETURN NEXT part.relname;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partizioni iniziali: dal 2020 a un anno avanti (le successive le crea l'applicazione)
+SELECT ensure_monitoring_results_partitions(DATE '2020-01-01', (CURRENT_DATE + INTERVAL '1 year')::DATE);
 
 -- Tabella delle notifiche
+CREATE SEQUENCE notifications_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE notifications (
-    id SERIAL PRIMARY KEY,
-    user_id INTEGER NOT NULL,
+    id BIGINT PRIMARY KEY DEFAULT nextval('notifications_seq'),
+    user_id BIGINT NOT NULL,
     title VARCHAR(255) NOT NULL,
     message TEXT NOT NULL,
     is_read BOOLEAN DEFAULT FALSE,
@@ -119,6 +200,97 @@ CREATE TABLE notifications (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Notifiche broadcast: un messaggio per insieme di ruoli invece di una riga per utente.
+-- Gli id vengono dalla sequence delle notifiche dirette, cosi' le due tipologie non si sovrappongono
+CREATE TABLE broadcast_notifications (
+    id BIGINT PRIMARY KEY DEFAULT nextval('notifications_seq'),
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE broadcast_notification_roles (
+    broadcast_id BIGINT NOT NULL,
+    role_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (broadcast_id, role_name),
+    FOREIGN KEY (broadcast_id) REFERENCES broadcast_notifications(id) ON DELETE CASCADE
+);
+
+-- Ricevute per utente, scritte solo alla lettura o cancellazione (assenza = non letta)
+CREATE TABLE broadcast_receipts (
+    broadcast_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (broadcast_id, user_id),
+    FOREIGN KEY (broadcast_id) REFERENCES broadcast_notifications(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Tabella di rollup dei covenant per country, legal entity e status
+-- (aggiornata insieme ai covenant e riconciliata periodicamente dal backend)
+CREATE SEQUENCE covenant_status_rollup_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE covenant_status_rollup (
+    id BIGINT PRIMARY KEY DEFAULT nextval('covenant_status_rollup_seq'),
+    country VARCHAR(50) NOT NULL,
+    legal_entity VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    covenant_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (country, legal_entity, status)
+);
+
+-- Ultimo risultato di monitoraggio per covenant (aggiornato a ogni inserimento dal backend).
+-- monitoring_result_id + monitoring_date individuano la riga di monitoring_results, e quindi la partizione
+CREATE TABLE covenant_latest_results (
+    covenant_id BIGINT PRIMARY KEY,
+    monitoring_result_id BIGINT NOT NULL,
+    monitoring_date TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (covenant_id) REFERENCES covenants(id) ON DELETE CASCADE
+);
+
+-- Revoche dei token stateless: i token di user_id emessi prima di revoked_at non sono validi.
+-- Nessuna foreign key: la revoca deve sopravvivere alla cancellazione dell'utente
+CREATE TABLE token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    revoked_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_token_revocations_revoked_at ON token_revocations(revoked_at);
+
+-- Outbox delle email: scritta nella stessa transazione della notifica, inviata in background
+-- a lotti dal backend. I messaggi non consegnati vengono ritentati con backoff fino a FAILED
+CREATE SEQUENCE email_outbox_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE email_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('email_outbox_seq'),
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claim_token VARCHAR(36),
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- Solo i messaggi ancora da inviare: l'indice resta piccolo anche con molto storico
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_claim_token ON email_outbox(claim_token) WHERE claim_token IS NOT NULL;
+CREATE INDEX idx_email_outbox_sent_at ON email_outbox(sent_at) WHERE status = 'SENT';
+
+-- Lock dei job schedulati: con piu' istanze del backend ogni job gira su un solo nodo per trigger.
+-- Una riga per job, creata alla prima esecuzione; locked_until e' la scadenza del lease
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
 -- Inserimento dei ruoli predefiniti
 INSERT INTO roles (name, description) VALUES
 ('ROLE_ADMIN', 'Amministratore del sistema'),
@@ -134,7 +306,13 @@ CREATE INDEX idx_contracts_country ON contracts(country);
 CREATE INDEX idx_contracts_legal_entity ON contracts(legal_entity);
 CREATE INDEX idx_covenants_contract_id ON covenants(contract_id);
 CREATE INDEX idx_covenants_status ON covenants(status);
-CREATE INDEX idx_monitoring_results_covenant_id ON monitoring_results(covenant_id);
+CREATE INDEX idx_covenants_last_monitoring_date ON covenants(last_monitoring_date);
+CREATE INDEX idx_covenants_next_due_date ON covenants(next_due_date);
+-- Gli indici sulla tabella partizionata vengono creati su ogni partizione
+CREATE INDEX idx_monitoring_results_covenant_date ON monitoring_results(covenant_id, monitoring_date DESC);
+CREATE INDEX idx_monitoring_results_monitoring_date ON monitoring_results(monitoring_date);
 CREATE INDEX idx_monitoring_results_status ON monitoring_results(status);
+CREATE INDEX idx_notifications_user_id_is_read ON notifications(user_id, is_read);
 CREATE INDEX idx_user_roles_user_id ON user_roles(user_id);
 CREATE INDEX idx_user_roles_role_id ON user_roles(role_id);
+CREATE INDEX idx_broadcast_notification_roles_role_name ON broadcast_notification_roles(role_name, broadcast_id);
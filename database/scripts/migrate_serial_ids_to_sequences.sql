@@ -0,0 +1,45 @@
+-- Migrazione di un database esistente dagli id SERIAL alle sequence <tabella>_seq con
+-- INCREMENT BY 50 usate dall'optimizer pooled di Hibernate (allocationSize = 50).
+-- Senza questo script, con ddl-auto=validate l'applicazione non parte: le sequence mancano
+-- e gli id sono INTEGER invece di BIGINT.
+-- Da eseguire a applicazione ferma e prima di partition_monitoring_results.sql.
+
+BEGIN;
+
+DO $$
+DECLARE
+    t TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'roles', 'contracts', 'contract_documents', 'covenants',
+                             'covenant_owners', 'monitoring_results', 'notifications', 'covenant_status_rollup']
+    LOOP
+        -- Tabella assente o gia' migrata
+        IF to_regclass(t) IS NULL OR to_regclass(t || '_seq') IS NOT NULL THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', t) INTO max_id;
+        EXECUTE format('CREATE SEQUENCE %I START WITH 1 INCREMENT BY 50', t || '_seq');
+        -- Con l'optimizer pooled il valore letto e' il limite superiore del blocco (valore - 49 .. valore):
+        -- il primo nextval restituisce max_id + 100, quindi il primo blocco parte da max_id + 51
+        PERFORM setval(t || '_seq', max_id + 50, true);
+
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id TYPE BIGINT', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', t || '_seq', t);
+        EXECUTE format('DROP SEQUENCE IF EXISTS %I', t || '_id_seq');
+    END LOOP;
+END $$;
+
+-- Le chiavi esterne seguono il tipo degli id
+ALTER TABLE user_roles ALTER COLUMN user_id TYPE BIGINT;
+ALTER TABLE user_roles ALTER COLUMN role_id TYPE BIGINT;
+ALTER TABLE contract_documents ALTER COLUMN contract_id TYPE BIGINT;
+ALTER TABLE covenants ALTER COLUMN contract_id TYPE BIGINT;
+ALTER TABLE covenant_owners ALTER COLUMN covenant_id TYPE BIGINT;
+ALTER TABLE monitoring_results ALTER COLUMN covenant_id TYPE BIGINT;
+ALTER TABLE monitoring_results ALTER COLUMN created_by TYPE BIGINT;
+ALTER TABLE notifications ALTER COLUMN user_id TYPE BIGINT;
+
+COMMIT;
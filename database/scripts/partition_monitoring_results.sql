@@ -0,0 +1,52 @@
+-- Migrazione di un database esistente a monitoring_results partizionata per trimestre.
+-- Richiede che le funzioni ensure_monitoring_results_partitions e
+-- detach_monitoring_results_partitions_before di create_database.sql siano gia' definite.
+-- Richiede anche monitoring_results_seq, creata da migrate_serial_ids_to_sequences.sql.
+-- Da eseguire a applicazione ferma: la copia dei dati avviene in un'unica transazione.
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF to_regclass('monitoring_results_seq') IS NULL THEN
+        RAISE EXCEPTION 'monitoring_results_seq mancante: eseguire prima migrate_serial_ids_to_sequences.sql';
+    END IF;
+END $$;
+
+ALTER TABLE monitoring_results RENAME TO monitoring_results_unpartitioned;
+ALTER INDEX IF EXISTS idx_monitoring_results_covenant_id RENAME TO idx_monitoring_results_unpartitioned_covenant_id;
+ALTER INDEX IF EXISTS idx_monitoring_results_status RENAME TO idx_monitoring_results_unpartitioned_status;
+
+CREATE TABLE monitoring_results (
+    id BIGINT NOT NULL DEFAULT nextval('monitoring_results_seq'),
+    covenant_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    monitoring_date TIMESTAMP NOT NULL,
+    notes TEXT,
+    created_by BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, monitoring_date),
+    FOREIGN KEY (covenant_id) REFERENCES covenants(id) ON DELETE CASCADE,
+    FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (monitoring_date);
+
+CREATE TABLE monitoring_results_default PARTITION OF monitoring_results DEFAULT;
+
+-- Una partizione per ogni trimestre presente nei dati, piu' un anno avanti
+SELECT ensure_monitoring_results_partitions(
+    COALESCE((SELECT MIN(monitoring_date)::DATE FROM monitoring_results_unpartitioned), CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '1 year')::DATE);
+
+INSERT INTO monitoring_results (id, covenant_id, status, monitoring_date, notes, created_by, created_at)
+SELECT id, covenant_id, status, monitoring_date, notes, created_by, created_at
+FROM monitoring_results_unpartitioned;
+
+CREATE INDEX idx_monitoring_results_covenant_date ON monitoring_results(covenant_id, monitoring_date DESC);
+CREATE INDEX idx_monitoring_results_monitoring_date ON monitoring_results(monitoring_date);
+CREATE INDEX idx_monitoring_results_status ON monitoring_results(status);
+
+DROP TABLE monitoring_results_unpartitioned;
+
+COMMIT;
+
+ANALYZE monitoring_results;
@@ -98,20 +98,14 @@ export class ContractListComponent implements OnInit {
     // Mostrerebbe un dialog per inserire il nome della vista e poi la salverebbe
   }
   
-  exportToExcel(contracts: Contract[]): void {
-    // Prepara le intestazioni per l'export Excel
-    const headers = [
-      { key: 'contractId', header: 'ID Contratto' },
-      { key: 'title', header: 'Titolo' },
-      { key: 'legalEntity', header: 'Entità Legale' },
-      { key: 'country', header: 'Paese' },
-      { key: 'startDate', header: 'Data Inizio' },
-      { key: 'endDate', header: 'Data Fine' },
-      { key: 'status', header: 'Stato' }
-    ];
-    
-    // Esporta i dati in Excel
-    this.excelExportService.exportToExcel(contracts, headers, 'contratti');
+  exportToExcel(): void {
+    // L'export viene generato dal backend con gli stessi filtri della lista
+    const filters = this.filterForm.value;
+    this.excelExportService.downloadExport('contracts', 'contratti', {
+      status: filters.status,
+      country: filters.country,
+      legalEntity: filters.legalEntity
+    }).subscribe();
   }
   
   viewContract(contract: Contract): void {
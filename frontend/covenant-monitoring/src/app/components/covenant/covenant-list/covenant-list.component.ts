@@ -97,21 +97,12 @@ export class CovenantListComponent implements OnInit {
     // Mostrerebbe un dialog per inserire il nome della vista e poi la salverebbe
   }
   
-  exportToExcel(covenants: Covenant[]): void {
-    // Prepara le intestazioni per l'export Excel
-    const headers = [
-      { key: 'id', header: 'ID' },
-      { key: 'name', header: 'Nome' },
-      { key: 'type', header: 'Tipo' },
-      { key: 'contractId', header: 'ID Contratto' },
-      { key: 'threshold', header: 'Threshold' },
-      { key: 'frequency', header: 'Frequenza' },
-      { key: 'nextMonitoringDate', header: 'Prossimo Monitoraggio' },
-      { key: 'status', header: 'Stato' }
-    ];
-    
-    // Esporta i dati in Excel
-    this.excelExportService.exportToExcel(covenants, headers, 'covenant');
+  exportToExcel(): void {
+    // L'export viene generato dal backend con gli stessi filtri della lista
+    const filters = this.filterForm.value;
+    this.excelExportService.downloadExport('covenants', 'covenant', {
+      status: filters.status
+    }).subscribe();
   }
   
   viewCovenant(covenant: Covenant): void {
@@ -1,17 +1,18 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { Store } from '@ngrx/store';
 import { AppState } from '../../store';
 import * as CovenantActions from '../../store/covenant/covenant.actions';
-import { Covenant } from '../../core/models/models';
+import { Covenant, StatusSummary } from '../../core/models/models';
 import { Observable } from 'rxjs';
 import { ExcelExportService } from '../../core/services/excel-export.service';
+import { DashboardService } from '../../core/services/dashboard.service';
 
 @Component({
   selector: 'app-dashboard',
   templateUrl: './dashboard.component.html',
   styleUrls: ['./dashboard.component.scss']
 })
-export class DashboardComponent implements OnInit {
+export class DashboardComponent implements OnInit, OnDestroy {
   // Dati per il sommario degli stati dei covenant per country
   countryStatusSummary: any[] = [];
   
@@ -36,47 +37,42 @@ export class DashboardComponent implements OnInit {
   
   constructor(
     private store: Store<AppState>,
-    private excelExportService: ExcelExportService
+    private excelExportService: ExcelExportService,
+    private dashboardService: DashboardService
   ) { }
 
   ngOnInit(): void {
     // Carica i covenant
     this.store.dispatch(CovenantActions.loadCovenants());
+
+    // Riceve le variazioni di stato in tempo reale (WebSocket) e le applica allo store
+    this.store.dispatch(CovenantActions.connectCovenantStatusStream());
     
     // Carica i covenant che richiedono monitoraggio immediato
     this.store.dispatch(CovenantActions.loadCovenantsDueForMonitoring());
     
-    // Simula dati per il sommario degli stati dei covenant per country
-    this.countryStatusSummary = [
-      { country: 'Italia', verde: 45, giallo: 12, rosso: 5 },
-      { country: 'Spagna', verde: 32, giallo: 8, rosso: 3 },
-      { country: 'Romania', verde: 18, giallo: 6, rosso: 2 },
-      { country: 'Brasile', verde: 27, giallo: 9, rosso: 4 },
-      { country: 'Cile', verde: 15, giallo: 5, rosso: 1 }
-    ];
-    
-    // Simula dati per il sommario degli stati dei covenant per compagnia
-    this.companyStatusSummary = [
-      { company: 'Enel Green Power', verde: 38, giallo: 10, rosso: 3 },
-      { company: 'Enel Distribuzione', verde: 42, giallo: 15, rosso: 6 },
-      { company: 'Endesa', verde: 29, giallo: 7, rosso: 2 },
-      { company: 'Enel X', verde: 18, giallo: 5, rosso: 1 },
-      { company: 'Enel Energia', verde: 25, giallo: 8, rosso: 3 }
-    ];
-    
-    // Calcola le statistiche generali
-    this.calculateStatistics();
+    // Carica il sommario aggregato degli stati dei covenant (calcolato dal backend)
+    this.dashboardService.getStatusSummary().subscribe(summary => {
+      this.countryStatusSummary = summary.countryStatusSummary.map(item => ({
+        country: item.name, verde: item.verde, giallo: item.giallo, rosso: item.rosso
+      }));
+      this.companyStatusSummary = summary.companyStatusSummary.map(item => ({
+        company: item.name, verde: item.verde, giallo: item.giallo, rosso: item.rosso
+      }));
+      this.calculateStatistics(summary.totals);
+    });
   }
   
-  calculateStatistics(): void {
-    // Calcola le statistiche generali dai dati di sommario
-    this.countryStatusSummary.forEach(country => {
-      this.verdeCovenants += country.verde;
-      this.gialloCovenants += country.giallo;
-      this.rossoCovenants += country.rosso;
-    });
-    
-    this.totalCovenants = this.verdeCovenants + this.gialloCovenants + this.rossoCovenants;
+  ngOnDestroy(): void {
+    this.store.dispatch(CovenantActions.disconnectCovenantStatusStream());
+  }
+
+  calculateStatistics(totals: StatusSummary): void {
+    // Le statistiche generali arrivano già aggregate dal backend
+    this.verdeCovenants = totals.verde;
+    this.gialloCovenants = totals.giallo;
+    this.rossoCovenants = totals.rosso;
+    this.totalCovenants = totals.total;
   }
   
   exportToExcel(data: any[], filename: string): void {
@@ -1,20 +1,29 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { Store } from '@ngrx/store';
+import { Observable } from 'rxjs';
+import { AppState } from '../../../store';
+import * as NotificationActions from '../../../store/notification/notification.actions';
 
 @Component({
   selector: 'app-navbar',
   templateUrl: './navbar.component.html',
   styleUrls: ['./navbar.component.scss']
 })
-export class NavbarComponent implements OnInit {
+export class NavbarComponent implements OnInit, OnDestroy {
   public isCollapsed = true;
   public searchQuery = '';
-  public unreadNotifications = 0;
+  public unreadNotifications$: Observable<number>;
 
-  constructor() { }
+  constructor(private store: Store<AppState>) { }
 
   ngOnInit(): void {
-    // In un'implementazione reale, qui si recupererebbe il conteggio delle notifiche non lette
-    this.unreadNotifications = 5;
+    // Il conteggio delle notifiche non lette arriva dal canale SSE, senza polling
+    this.unreadNotifications$ = this.store.select(state => state.notifications.unreadCount);
+    this.store.dispatch(NotificationActions.connectNotificationStream());
+  }
+
+  ngOnDestroy(): void {
+    this.store.dispatch(NotificationActions.disconnectNotificationStream());
   }
 
   toggleSidebar(): void {
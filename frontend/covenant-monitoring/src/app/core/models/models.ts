@@ -29,10 +29,20 @@ export interface Covenant {
   endDate?: Date;
   status: string; // VERDE, GIALLO, ROSSO
   lastMonitoringDate?: Date;
+  monitoringFrequencyMonths?: number;
+  nextDueDate?: Date;
   createdAt?: Date;
   updatedAt?: Date;
 }
 
+// Variazione di stato pubblicata sul topic /topic/covenant-status
+export interface CovenantStatusChange {
+  covenantId: number;
+  contractId: number;
+  oldStatus: string;
+  newStatus: string;
+}
+
 // Modello per il proprietario del covenant
 export interface CovenantOwner {
   id?: number;
@@ -75,14 +85,15 @@ export interface Role {
   name: string;
 }
 
-// Modello per la notifica
+// Modello per la notifica (diretta o broadcast verso un insieme di ruoli)
 export interface Notification {
   id?: number;
-  user: User;
+  user?: User;
   title: string;
   message: string;
   isRead: boolean;
   createdAt?: Date;
+  broadcast?: boolean;
 }
 
 // Modello per il documento del contratto
@@ -106,3 +117,34 @@ export interface AuthRequest {
 export interface AuthResponse {
   token: string;
 }
+
+// Modello per il sommario degli stati dei covenant (per country o compagnia)
+export interface StatusSummary {
+  name: string;
+  verde: number;
+  giallo: number;
+  rosso: number;
+  total: number;
+}
+
+// Modello per la risposta aggregata della dashboard
+export interface DashboardSummary {
+  countryStatusSummary: StatusSummary[];
+  companyStatusSummary: StatusSummary[];
+  totals: StatusSummary;
+}
+
+// Modello per le righe di lista dei risultati di monitoraggio (riferimenti sintetici)
+export interface MonitoringResultListItem {
+  id: number;
+  status: string;
+  monitoringDate: string;
+  notes?: string;
+  covenant: {
+    id: number;
+    covenantId: string;
+    title: string;
+    contract: { id: number; contractId: string; legalEntity: string; country: string; };
+  };
+  createdBy: { id: number; username: string; firstName: string; lastName: string; };
+}
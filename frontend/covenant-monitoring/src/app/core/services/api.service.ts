@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../environments/environment';
 
@@ -31,4 +31,8 @@ export class ApiService {
   delete(endpoint: string, id: number): Observable<void> {
     return this.http.delete<void>(`${this.apiUrl}/${endpoint}/${id}`);
   }
+
+  getBlob(endpoint: string, params: { [key: string]: string } = {}): Observable<Blob> {
+    return this.http.get(`${this.apiUrl}/${endpoint}`, { params: new HttpParams({ fromObject: params }), responseType: 'blob' });
+  }
 }
@@ -0,0 +1,34 @@
+import { Injectable, NgZone } from '@angular/core';
+import { Client } from '@stomp/stompjs';
+import { Observable } from 'rxjs';
+import { CovenantStatusChange } from '../models/models';
+import { environment } from '../../../environments/environment';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class CovenantStatusStreamService {
+  private brokerUrl = `${environment.apiUrl.replace(/^http/, 'ws')}/ws`;
+
+  constructor(private zone: NgZone) { }
+
+  // Ogni frame del topic contiene un lotto di variazioni già accorpate dal backend.
+  // Il client si riconnette da solo; la sottoscrizione chiude la connessione
+  statusChanges(token: string): Observable<CovenantStatusChange[]> {
+    return new Observable<CovenantStatusChange[]>(subscriber => {
+      const client = new Client({
+        brokerURL: this.brokerUrl,
+        connectHeaders: { Authorization: `Bearer ${token}` },
+        reconnectDelay: 5000,
+        heartbeatIncoming: 10000,
+        heartbeatOutgoing: 10000
+      });
+      client.onConnect = () => {
+        client.subscribe('/topic/covenant-status', frame =>
+          this.zone.run(() => subscriber.next(JSON.parse(frame.body))));
+      };
+      client.activate();
+      return () => { client.deactivate(); };
+    });
+  }
+}
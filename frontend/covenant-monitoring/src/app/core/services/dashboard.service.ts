@@ -0,0 +1,17 @@
+import { Injectable } from '@angular/core';
+import { ApiService } from './api.service';
+import { Observable } from 'rxjs';
+import { DashboardSummary } from '../models/models';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class DashboardService {
+  private endpoint = 'dashboard';
+  
+  constructor(private apiService: ApiService) { }
+
+  getStatusSummary(): Observable<DashboardSummary> {
+    return this.apiService.get<DashboardSummary>(`${this.endpoint}/status-summary`);
+  }
+}
@@ -1,16 +1,40 @@
 import { Injectable } from '@angular/core';
 import * as ExcelJS from 'exceljs';
 import { saveAs } from 'file-saver';
+import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+import { ApiService } from './api.service';
 
 @Injectable({
   providedIn: 'root'
 })
 export class ExcelExportService {
   
-  constructor() { }
+  constructor(private apiService: ApiService) { }
 
   /**
-   * Esporta dati in formato Excel
+   * Scarica un export Excel generato dal backend (contratti, covenant, risultati di monitoraggio).
+   * Il file viene prodotto in streaming lato server: il browser deve solo salvarlo.
+   * @param resource Risorsa da esportare
+   * @param filename Nome del file Excel
+   * @param filters Filtri opzionali (status, country, legalEntity, fromDate, toDate)
+   */
+  downloadExport(resource: 'contracts' | 'covenants' | 'monitoring-results', filename: string,
+                 filters: { [key: string]: string | null | undefined } = {}): Observable<void> {
+    const params: { [key: string]: string } = {};
+    Object.keys(filters).forEach(key => {
+      const value = filters[key];
+      if (value) {
+        params[key] = value;
+      }
+    });
+    return this.apiService.getBlob(`export/${resource}`, params).pipe(
+      map(blob => saveAs(blob, `${filename}.xlsx`))
+    );
+  }
+
+  /**
+   * Esporta dati in formato Excel lato browser (solo per piccoli insiemi di dati, es. riepiloghi)
    * @param data Array di oggetti da esportare
    * @param headers Intestazioni delle colonne
    * @param filename Nome del file Excel
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { ApiService } from './api.service';
 import { Observable } from 'rxjs';
-import { MonitoringResult, Covenant } from '../models/models';
+import { MonitoringResult, Covenant, MonitoringResultListItem } from '../models/models';
 
 @Injectable({
   providedIn: 'root'
@@ -35,6 +35,11 @@ export class MonitoringResultService {
     return this.apiService.get<MonitoringResult[]>(`${this.endpoint}/latest/${covenantId}`);
   }
 
+  // Ultimi risultati di piu' covenant con una sola richiesta (i covenant mai monitorati sono assenti)
+  getLatestMonitoringResultsForCovenants(covenantIds: number[]): Observable<MonitoringResultListItem[]> {
+    return this.apiService.post<MonitoringResultListItem[]>(`${this.endpoint}/latest`, covenantIds);
+  }
+
   createMonitoringResult(monitoringResult: MonitoringResult): Observable<MonitoringResult> {
     return this.apiService.post<MonitoringResult>(this.endpoint, monitoringResult);
   }
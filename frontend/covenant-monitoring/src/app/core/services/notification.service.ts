@@ -1,7 +1,19 @@
-import { Injectable } from '@angular/core';
+import { Injectable, NgZone } from '@angular/core';
 import { ApiService } from './api.service';
-import { Observable } from 'rxjs';
+import { Observable, Subscription } from 'rxjs';
 import { Notification } from '../models/models';
+import { environment } from '../../../environments/environment';
+
+// Eventi inviati dal canale SSE /notifications/stream
+export type NotificationStreamEvent =
+  | { type: 'notification'; notification: Notification }
+  | { type: 'unread-count'; count: number };
+
+interface StreamTicket {
+  ticket: string;
+}
+
+const STREAM_RECONNECT_DELAY_MS = 5000;
 
 @Injectable({
   providedIn: 'root'
@@ -9,7 +21,47 @@ import { Notification } from '../models/models';
 export class NotificationService {
   private endpoint = 'notifications';
   
-  constructor(private apiService: ApiService) { }
+  constructor(private apiService: ApiService, private zone: NgZone) { }
+
+  // EventSource non permette di impostare l'header Authorization: lo stream si apre con un ticket
+  // monouso chiesto con il JWT, che quindi non finisce negli URL. Su errore la connessione viene
+  // chiusa e riaperta con un nuovo ticket; la sottoscrizione chiude tutto
+  streamNotifications(): Observable<NotificationStreamEvent> {
+    return new Observable<NotificationStreamEvent>(subscriber => {
+      let source: EventSource | undefined;
+      let ticketSubscription: Subscription | undefined;
+      let reconnectTimer: ReturnType<typeof setTimeout> | undefined;
+
+      const connect = () => {
+        ticketSubscription = this.apiService.post<StreamTicket>(`${this.endpoint}/stream-ticket`, {}).subscribe({
+          next: ({ ticket }) => {
+            source = new EventSource(`${environment.apiUrl}/${this.endpoint}/stream?ticket=${encodeURIComponent(ticket)}`);
+            source.addEventListener('notification', (event: MessageEvent) =>
+              this.zone.run(() => subscriber.next({ type: 'notification', notification: JSON.parse(event.data) })));
+            source.addEventListener('unread-count', (event: MessageEvent) =>
+              this.zone.run(() => subscriber.next({ type: 'unread-count', count: Number(event.data) })));
+            // Il ticket e' gia' stato usato: la riconnessione automatica del browser fallirebbe
+            source.onerror = () => reconnect();
+          },
+          error: () => reconnect()
+        });
+      };
+
+      const reconnect = () => {
+        source?.close();
+        source = undefined;
+        clearTimeout(reconnectTimer);
+        reconnectTimer = setTimeout(connect, STREAM_RECONNECT_DELAY_MS);
+      };
+
+      connect();
+      return () => {
+        clearTimeout(reconnectTimer);
+        ticketSubscription?.unsubscribe();
+        source?.close();
+      };
+    });
+  }
 
   getCurrentUserNotifications(): Observable<Notification[]> {
     return this.apiService.get<Notification[]>(this.endpoint);
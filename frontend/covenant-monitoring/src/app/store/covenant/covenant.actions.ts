@@ -1,5 +1,5 @@
 import { createAction, props } from '@ngrx/store';
-import { Covenant } from '../../core/models/models';
+import { Covenant, CovenantStatusChange } from '../../core/models/models';
 
 // Load covenants
 export const loadCovenants = createAction('[Covenant] Load Covenants');
@@ -124,3 +124,13 @@ export const deleteCovenantFailure = createAction(
   '[Covenant] Delete Covenant Failure',
   props<{ error: any }>()
 );
+
+// Covenant status stream (WebSocket/STOMP)
+export const connectCovenantStatusStream = createAction('[Covenant] Connect Covenant Status Stream');
+
+export const disconnectCovenantStatusStream = createAction('[Covenant] Disconnect Covenant Status Stream');
+
+export const covenantStatusChanged = createAction(
+  '[Covenant] Covenant Status Changed',
+  props<{ changes: CovenantStatusChange[] }>()
+);
@@ -1,8 +1,11 @@
 import { Injectable } from '@angular/core';
 import { Actions, createEffect, ofType } from '@ngrx/effects';
-import { of } from 'rxjs';
-import { catchError, map, mergeMap, switchMap } from 'rxjs/operators';
+import { EMPTY, of } from 'rxjs';
+import { catchError, map, mergeMap, switchMap, takeUntil } from 'rxjs/operators';
+import { AuthService } from '../../core/services/auth.service';
 import { CovenantService } from '../../core/services/covenant.service';
+import { CovenantStatusStreamService } from '../../core/services/covenant-status-stream.service';
+import * as AuthActions from '../auth/auth.actions';
 import * as CovenantActions from './covenant.actions';
 
 @Injectable()
@@ -88,8 +91,27 @@ export class CovenantEffects {
     )
   ));
 
+  // Le variazioni di stato arrivano come delta: niente ricaricamento dell'intera lista
+  covenantStatusStream$ = createEffect(() => this.actions$.pipe(
+    ofType(CovenantActions.connectCovenantStatusStream),
+    switchMap(() => {
+      const token = this.authService.getToken();
+      if (!token) {
+        return EMPTY;
+      }
+      return this.covenantStatusStreamService.statusChanges(token).pipe(
+        map(changes => CovenantActions.covenantStatusChanged({ changes })),
+        takeUntil(this.actions$.pipe(
+          ofType(CovenantActions.disconnectCovenantStatusStream, AuthActions.logout)
+        ))
+      );
+    })
+  ));
+
   constructor(
     private actions$: Actions,
-    private covenantService: CovenantService
+    private covenantService: CovenantService,
+    private covenantStatusStreamService: CovenantStatusStreamService,
+    private authService: AuthService
   ) {}
 }
@@ -150,7 +150,16 @@ export const reducer = createReducer(
     ...state,
     loading: false,
     error
-  }))
+  })),
+  // Solo i covenant già nello store vengono aggiornati; gli altri sono ignorati
+  on(CovenantActions.covenantStatusChanged, (state, { changes }) =>
+    adapter.updateMany(
+      changes
+        .filter(change => state.entities[change.covenantId])
+        .map(change => ({ id: change.covenantId, changes: { status: change.newStatus } })),
+      state
+    )
+  )
 );
 
 // Selectors
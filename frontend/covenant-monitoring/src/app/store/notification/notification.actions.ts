@@ -71,3 +71,18 @@ export const deleteNotificationFailure = createAction(
   '[Notification] Delete Notification Failure',
   props<{ error: any }>()
 );
+
+// Notification stream (Server-Sent Events)
+export const connectNotificationStream = createAction('[Notification] Connect Notification Stream');
+
+export const disconnectNotificationStream = createAction('[Notification] Disconnect Notification Stream');
+
+export const notificationReceived = createAction(
+  '[Notification] Notification Received',
+  props<{ notification: Notification }>()
+);
+
+export const unreadCountUpdated = createAction(
+  '[Notification] Unread Count Updated',
+  props<{ count: number }>()
+);
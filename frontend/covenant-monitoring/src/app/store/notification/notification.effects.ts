@@ -1,8 +1,10 @@
 import { Injectable } from '@angular/core';
 import { Actions, createEffect, ofType } from '@ngrx/effects';
-import { of } from 'rxjs';
-import { catchError, map, mergeMap, switchMap } from 'rxjs/operators';
+import { EMPTY, of } from 'rxjs';
+import { catchError, map, mergeMap, switchMap, takeUntil } from 'rxjs/operators';
+import { AuthService } from '../../core/services/auth.service';
 import { NotificationService } from '../../core/services/notification.service';
+import * as AuthActions from '../auth/auth.actions';
 import * as NotificationActions from './notification.actions';
 
 @Injectable()
@@ -58,8 +60,27 @@ export class NotificationEffects {
     )
   ));
 
+  // Una sola connessione SSE per sessione: chiusa alla disconnessione o al logout
+  notificationStream$ = createEffect(() => this.actions$.pipe(
+    ofType(NotificationActions.connectNotificationStream),
+    switchMap(() => {
+      if (!this.authService.getToken()) {
+        return EMPTY;
+      }
+      return this.notificationService.streamNotifications().pipe(
+        map(event => event.type === 'notification'
+          ? NotificationActions.notificationReceived({ notification: event.notification })
+          : NotificationActions.unreadCountUpdated({ count: event.count })),
+        takeUntil(this.actions$.pipe(
+          ofType(NotificationActions.disconnectNotificationStream, AuthActions.logout)
+        ))
+      );
+    })
+  ));
+
   constructor(
     private actions$: Actions,
-    private notificationService: NotificationService
+    private notificationService: NotificationService,
+    private authService: AuthService
   ) {}
 }
@@ -105,6 +105,14 @@ export const reducer = createReducer(
     ...state,
     loading: false,
     error
+  })),
+  // Il conteggio arriva dal server subito dopo ogni notifica: qui non viene incrementato
+  on(NotificationActions.notificationReceived, (state, { notification }) =>
+    adapter.upsertOne(notification, state)
+  ),
+  on(NotificationActions.unreadCountUpdated, (state, { count }) => ({
+    ...state,
+    unreadCount: count
   }))
 );
 